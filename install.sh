@@ -10,45 +10,81 @@ echo "Installing Spring Hex CLI..."
 
 # Determine download URL
 if [ "$VERSION" = "latest" ]; then
-    DOWNLOAD_URL="https://github.com/$REPO/releases/latest/download/spring-hex-cli-1.0.0.jar"
+    RELEASE_URL="https://github.com/$REPO/releases/latest/download"
 else
-    DOWNLOAD_URL="https://github.com/$REPO/releases/download/$VERSION/spring-hex-cli-1.0.0.jar"
+    RELEASE_URL="https://github.com/$REPO/releases/download/$VERSION"
 fi
+DOWNLOAD_URL="$RELEASE_URL/spring-hex-cli-1.0.0.jar"
 
-# Check for Java
-if ! command -v java &> /dev/null; then
-    echo "Error: Java 17+ is required but not found."
-    echo "Install Java and try again."
-    exit 1
-fi
+# Determine platform for the bundled runtime image
+case "$(uname -m)" in
+    x86_64|amd64) ARCH="x64" ;;
+    aarch64|arm64) ARCH="aarch64" ;;
+    *) ARCH="$(uname -m)" ;;
+esac
+PLATFORM="$(uname -s | tr '[:upper:]' '[:lower:]')-$ARCH"
+RUNTIME_URL="$RELEASE_URL/spring-hex-runtime-$PLATFORM.tar.gz"
 
-# Check Java version
-JAVA_VERSION=$(java -version 2>&1 | head -1 | cut -d'"' -f2 | cut -d'.' -f1)
-if [ "$JAVA_VERSION" -lt 17 ] 2>/dev/null; then
-    echo "Error: Java 17+ is required. Found Java $JAVA_VERSION."
-    exit 1
-fi
+download() {
+    if command -v curl &> /dev/null; then
+        curl -fsSL -o "$2" "$1"
+    elif command -v wget &> /dev/null; then
+        wget -q -O "$2" "$1"
+    else
+        echo "Error: curl or wget is required."
+        exit 1
+    fi
+}
 
 # Create install directory
 mkdir -p "$INSTALL_DIR"
 
-# Download JAR
-echo "Downloading from $DOWNLOAD_URL..."
-if command -v curl &> /dev/null; then
-    curl -fsSL -o "$INSTALL_DIR/$JAR_NAME" "$DOWNLOAD_URL"
-elif command -v wget &> /dev/null; then
-    wget -q -O "$INSTALL_DIR/$JAR_NAME" "$DOWNLOAD_URL"
+# Prefer the trimmed runtime image (bundled JVM + AppCDS archive, no local Java needed)
+RUNTIME_ARCHIVE="$(mktemp)"
+echo "Downloading from $RUNTIME_URL..."
+if download "$RUNTIME_URL" "$RUNTIME_ARCHIVE" 2>/dev/null; then
+    rm -rf "$INSTALL_DIR/runtime" "$INSTALL_DIR/lib" "$INSTALL_DIR/bin" "$INSTALL_DIR/spring-hex" "$INSTALL_DIR/$JAR_NAME"
+    tar -xzf "$RUNTIME_ARCHIVE" -C "$INSTALL_DIR" --strip-components=1
+    rm -f "$RUNTIME_ARCHIVE"
+
+    # The AppCDS archive records absolute paths, so it is generated here rather than shipped
+    echo "Generating class data sharing archive..."
+    "$INSTALL_DIR/bin/spring-hex-train-cds"
+
+    cat > "$INSTALL_DIR/spring-hex" << 'WRAPPER'
+#!/bin/bash
+exec "$HOME/.spring-hex/bin/spring-hex" "$@"
+WRAPPER
+    chmod +x "$INSTALL_DIR/spring-hex"
 else
-    echo "Error: curl or wget is required."
-    exit 1
-fi
+    rm -f "$RUNTIME_ARCHIVE"
+    echo "No runtime image for $PLATFORM, falling back to the JAR."
+
+    # Check for Java
+    if ! command -v java &> /dev/null; then
+        echo "Error: Java 17+ is required but not found."
+        echo "Install Java and try again."
+        exit 1
+    fi
 
-# Create wrapper script
-cat > "$INSTALL_DIR/spring-hex" << 'WRAPPER'
+    # Check Java version
+    JAVA_VERSION=$(java -version 2>&1 | head -1 | cut -d'"' -f2 | cut -d'.' -f1)
+    if [ "$JAVA_VERSION" -lt 17 ] 2>/dev/null; then
+        echo "Error: Java 17+ is required. Found Java $JAVA_VERSION."
+        exit 1
+    fi
+
+    # Download JAR
+    echo "Downloading from $DOWNLOAD_URL..."
+    download "$DOWNLOAD_URL" "$INSTALL_DIR/$JAR_NAME"
+
+    # Create wrapper script
+    cat > "$INSTALL_DIR/spring-hex" << 'WRAPPER'
 #!/bin/bash
 exec java -jar "$HOME/.spring-hex/spring-hex-cli.jar" "$@"
 WRAPPER
-chmod +x "$INSTALL_DIR/spring-hex"
+    chmod +x "$INSTALL_DIR/spring-hex"
+fi
 
 # Add to PATH if not already there
 SHELL_RC=""
@@ -0,0 +1,211 @@
+#!/bin/bash
+#
+# Measures CommandBus dispatch cost with JMH on the mediator that make:mediator generates.
+#
+# Three benchmarks, each dispatching one command to a trivial handler:
+#   bareBus                     the generated bus, no pipeline behaviors
+#   chainedBus3Behaviors        the generated bus with three pass-through behaviors, whose
+#                               chain is linked once per message type
+#   perDispatchChain3Behaviors  the same three behaviors chained on every dispatch, the way a
+#                               bus without prebuilt pipelines would
+# -prof gc adds the bytes allocated per dispatch (gc.alloc.rate.norm).
+#
+# Spring and JMH are resolved by Maven, so mvn must be on the PATH.
+#
+# Usage:
+#   scripts/bench-mediator.sh java -jar target/spring-hex-cli-1.0.0.jar
+#   JMH_ARGS="-f 3 -wi 5 -i 10" scripts/bench-mediator.sh java -jar target/spring-hex-cli-1.0.0.jar
+#
+set -u
+
+if [ $# -eq 0 ]; then
+    echo "Usage: $0 <spring-hex launcher...>"
+    exit 2
+fi
+
+LAUNCHER=("$@")
+for i in "${!LAUNCHER[@]}"; do
+    if [[ "${LAUNCHER[$i]}" == *.jar && "${LAUNCHER[$i]}" != /* ]]; then
+        LAUNCHER[$i]="$PWD/${LAUNCHER[$i]}"
+    fi
+done
+
+SPRING_VERSION=${SPRING_VERSION:-6.1.6}
+JMH_VERSION=${JMH_VERSION:-1.37}
+JMH_ARGS=${JMH_ARGS:-"-f 1 -wi 3 -w 1s -i 5 -r 1s"}
+
+WORK_DIR=$(mktemp -d)
+trap 'rm -rf "$WORK_DIR"' EXIT
+PROJECT="$WORK_DIR/project"
+mkdir -p "$PROJECT"
+
+export SPRING_HEX_NO_DAEMON=1
+
+echo "Generating the mediator..."
+if ! (cd "$PROJECT" && "${LAUNCHER[@]}" make:mediator -p com.bench > "$WORK_DIR/generate.log" 2>&1); then
+    cat "$WORK_DIR/generate.log"
+    exit 1
+fi
+
+echo "Resolving Spring $SPRING_VERSION and JMH $JMH_VERSION..."
+cat > "$WORK_DIR/pom.xml" <<POM
+<project xmlns="http://maven.apache.org/POM/4.0.0">
+    <modelVersion>4.0.0</modelVersion>
+    <groupId>com.bench</groupId>
+    <artifactId>bench-mediator</artifactId>
+    <version>1.0.0</version>
+    <dependencies>
+        <dependency>
+            <groupId>org.springframework</groupId>
+            <artifactId>spring-context</artifactId>
+            <version>$SPRING_VERSION</version>
+        </dependency>
+        <dependency>
+            <groupId>org.projectlombok</groupId>
+            <artifactId>lombok</artifactId>
+            <version>1.18.32</version>
+        </dependency>
+        <dependency>
+            <groupId>org.openjdk.jmh</groupId>
+            <artifactId>jmh-core</artifactId>
+            <version>$JMH_VERSION</version>
+        </dependency>
+        <dependency>
+            <groupId>org.openjdk.jmh</groupId>
+            <artifactId>jmh-generator-annprocess</artifactId>
+            <version>$JMH_VERSION</version>
+        </dependency>
+    </dependencies>
+</project>
+POM
+if ! mvn -B -q -f "$WORK_DIR/pom.xml" dependency:build-classpath -Dmdep.outputFile="$WORK_DIR/classpath.txt" > "$WORK_DIR/resolve.log" 2>&1; then
+    cat "$WORK_DIR/resolve.log"
+    exit 1
+fi
+CLASSPATH_DEPS=$(cat "$WORK_DIR/classpath.txt")
+
+BENCH_DIR="$PROJECT/src/main/java/com/bench/jmh"
+mkdir -p "$BENCH_DIR"
+cat > "$BENCH_DIR/BusBench.java" <<'JAVA'
+package com.bench.jmh;
+
+import com.bench.domain.cqrs.CommandHandler;
+import com.bench.infrastructure.config.MediatorConfig;
+import com.bench.infrastructure.mediator.CommandBus;
+import com.bench.infrastructure.mediator.PipelineBehavior;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BusBench {
+
+    public record CreateOrder(String id) {}
+
+    public static class CreateOrderHandler implements CommandHandler<CreateOrder, String> {
+        @Override
+        public String handle(CreateOrder command) {
+            return command.id();
+        }
+    }
+
+    public static class PassThrough implements PipelineBehavior {
+        @Override
+        public Object handle(Object message, Next next) {
+            return next.proceed(message);
+        }
+    }
+
+    @Configuration
+    public static class Bare {
+        @Bean CreateOrderHandler createOrderHandler() { return new CreateOrderHandler(); }
+    }
+
+    @Configuration
+    public static class Chained {
+        @Bean CreateOrderHandler createOrderHandler() { return new CreateOrderHandler(); }
+        @Bean PassThrough first() { return new PassThrough(); }
+        @Bean PassThrough second() { return new PassThrough(); }
+        @Bean PassThrough third() { return new PassThrough(); }
+    }
+
+    private AnnotationConfigApplicationContext bareContext;
+    private AnnotationConfigApplicationContext chainedContext;
+    private CommandBus bare;
+    private CommandBus chained;
+    private Map<Class<?>, CreateOrderHandler> handlers;
+    private List<PipelineBehavior> behaviors;
+    private final CreateOrder command = new CreateOrder("1");
+
+    @Setup
+    public void setUp() {
+        bareContext = new AnnotationConfigApplicationContext(MediatorConfig.class, Bare.class);
+        chainedContext = new AnnotationConfigApplicationContext(MediatorConfig.class, Chained.class);
+        bare = bareContext.getBean(CommandBus.class);
+        chained = chainedContext.getBean(CommandBus.class);
+        handlers = Map.of(CreateOrder.class, new CreateOrderHandler());
+        behaviors = List.of(new PassThrough(), new PassThrough(), new PassThrough());
+    }
+
+    @TearDown
+    public void tearDown() {
+        bareContext.close();
+        chainedContext.close();
+    }
+
+    @Benchmark
+    public Object bareBus() {
+        return bare.dispatch(command);
+    }
+
+    @Benchmark
+    public Object chainedBus3Behaviors() {
+        return chained.dispatch(command);
+    }
+
+    @Benchmark
+    public Object perDispatchChain3Behaviors() {
+        CreateOrderHandler handler = handlers.get(command.getClass());
+        Iterator<PipelineBehavior> remaining = behaviors.iterator();
+        PipelineBehavior.Next[] next = new PipelineBehavior.Next[1];
+        next[0] = message -> remaining.hasNext()
+            ? remaining.next().handle(message, next[0])
+            : handler.handle((CreateOrder) message);
+        return next[0].proceed(command);
+    }
+}
+JAVA
+
+echo "Compiling..."
+find "$PROJECT/src/main/java" -name '*.java' > "$WORK_DIR/sources.txt"
+if ! javac -nowarn -d "$WORK_DIR/classes" -cp "$CLASSPATH_DEPS" -processorpath "$CLASSPATH_DEPS" \
+        @"$WORK_DIR/sources.txt" > "$WORK_DIR/compile.log" 2>&1; then
+    cat "$WORK_DIR/compile.log"
+    exit 1
+fi
+
+echo
+# shellcheck disable=SC2086
+java -cp "$WORK_DIR/classes:$CLASSPATH_DEPS" org.openjdk.jmh.Main BusBench $JMH_ARGS -prof gc \
+    > "$WORK_DIR/jmh.log" 2>&1
+status=$?
+if [ "$status" -ne 0 ]; then
+    cat "$WORK_DIR/jmh.log"
+    exit "$status"
+fi
+# The summary table, time and allocation rows only
+sed -n '/^Benchmark /,$p' "$WORK_DIR/jmh.log" | grep -E "^Benchmark|ns/op|gc\.alloc\.rate\.norm"
@@ -0,0 +1,79 @@
+#!/bin/bash
+#
+# Times base-package auto-detection on a synthetic source tree (50k files by default).
+#
+# The @SpringBootApplication class sits in the directory that sorts last, and every file
+# carries a few KB of body, so a scanner that reads whole files in walk order pays for
+# most of the tree. Each scenario is reported as the median wall time of a make:model
+# call, next to the same call with -p (no detection) to show JVM startup alone.
+#
+# Usage:
+#   scripts/bench-package-detect.sh java -jar target/spring-hex-cli-1.0.0.jar
+#   FILES=12000 RUNS=7 scripts/bench-package-detect.sh java -jar old.jar
+#
+set -u
+
+if [ $# -eq 0 ]; then
+    echo "Usage: $0 <spring-hex launcher...>"
+    exit 2
+fi
+
+LAUNCHER=("$@")
+for i in "${!LAUNCHER[@]}"; do
+    if [[ "${LAUNCHER[$i]}" == *.jar && "${LAUNCHER[$i]}" != /* ]]; then
+        LAUNCHER[$i]="$PWD/${LAUNCHER[$i]}"
+    fi
+done
+
+FILES=${FILES:-50000}
+RUNS=${RUNS:-5}
+FILES_PER_DIR=50
+
+WORK_DIR=$(mktemp -d)
+trap 'rm -rf "$WORK_DIR"' EXIT
+PROJECT="$WORK_DIR/project"
+SRC="$PROJECT/src/main/java/com/acme/mono"
+
+export SPRING_HEX_NO_DAEMON=1
+
+echo "Generating $FILES source files..."
+BODY=$(for i in $(seq 1 60); do echo "    // line $i of filler so the body dominates the file size"; done)
+dirs=$(( (FILES + FILES_PER_DIR - 1) / FILES_PER_DIR ))
+for d in $(seq 1 "$dirs"); do
+    dir="$SRC/m$(( d / 100 ))/s$d"
+    mkdir -p "$dir"
+    for f in $(seq 1 "$FILES_PER_DIR"); do
+        printf 'package com.acme.mono.m%d.s%d;\n\nimport java.util.List;\n\npublic class C%d {\n%s\n}\n' \
+            $(( d / 100 )) "$d" "$f" "$BODY" > "$dir/C$f.java"
+    done
+done
+mkdir -p "$SRC/zz"
+printf 'package com.acme.mono;\n\n@SpringBootApplication\npublic class App {\n}\n' > "$SRC/zz/App.java"
+printf '<project><groupId>org.unrelated</groupId></project>\n' > "$PROJECT/pom.xml"
+
+RUN=0
+
+# Prints the median wall time in ms of RUNS invocations of make:model with the given extra args
+median_ms() {
+    local times=() start end
+    for _ in $(seq 1 "$RUNS"); do
+        RUN=$((RUN + 1))
+        start=$(date +%s%N)
+        (cd "$PROJECT" && "${LAUNCHER[@]}" make:model "Bench$RUN" -a "bench$RUN" "$@" > /dev/null 2>&1)
+        end=$(date +%s%N)
+        times+=($(( (end - start) / 1000000 )))
+    done
+    printf '%s\n' "${times[@]}" | sort -n | sed -n "$(( (RUNS + 1) / 2 ))p"
+}
+
+detected=$(cd "$PROJECT" && "${LAUNCHER[@]}" make:model Probe -a probe 2>&1 | grep -m1 "base package")
+echo "Detection result: ${detected:-<none>}"
+echo
+
+printf '%-44s %8s\n' "Scenario" "median"
+printf '%-44s %6s ms\n' "explicit -p (JVM + generation only)" "$(median_ms -p com.acme.mono)"
+printf '%-44s %6s ms\n' "auto-detect, no .hex/ (one-off scan)" "$(median_ms)"
+mkdir -p "$PROJECT/.hex"
+printf '%-44s %6s ms\n' "auto-detect, .hex/ present (first run)" "$(RUNS=1 median_ms)"
+sleep 3
+printf '%-44s %6s ms\n' "auto-detect, .hex/ present (warm index)" "$(median_ms)"
@@ -0,0 +1,100 @@
+#!/bin/bash
+#
+# Builds a trimmed Java runtime plus an AppCDS archive for the shaded jar.
+#
+# Usage: scripts/build-runtime-image.sh <shaded-jar> <output-dir>
+#
+# Layout of <output-dir>:
+#   runtime/                 jlink image holding only the modules the jar needs
+#   lib/spring-hex-cli.jar   the shaded jar
+#   lib/spring-hex.jsa       AppCDS archive from the training run (init, make:module, make:migration)
+#   bin/spring-hex           launcher that passes the archive
+#   bin/spring-hex-train-cds regenerates the archive in place (install.sh runs it after moving the image)
+#   startup-times.txt        --version wall-clock with and without the archive
+#
+# <output-dir>-<os>-<arch>.tar.gz is the release asset install.sh downloads.
+#
+set -euo pipefail
+
+JAR="$1"
+OUT="$2"
+EXTRA_MODULES="${EXTRA_MODULES:-}"
+SAMPLES="${SAMPLES:-5}"
+
+rm -rf "$OUT"
+mkdir -p "$OUT/lib" "$OUT/bin"
+
+MODULES=$(jdeps --ignore-missing-deps --print-module-deps --multi-release 17 "$JAR")
+# --verify finds javac through ToolProvider, which jdeps cannot see
+MODULES="$MODULES,jdk.compiler"
+if [ -n "$EXTRA_MODULES" ]; then
+    MODULES="$MODULES,$EXTRA_MODULES"
+fi
+echo "jlink modules: $MODULES"
+
+jlink --add-modules "$MODULES" \
+      --strip-debug --no-man-pages --no-header-files --compress=2 \
+      --output "$OUT/runtime"
+
+# Base CDS archive for the trimmed runtime; the dynamic app archive is layered on top of it
+"$OUT/runtime/bin/java" -Xshare:dump > /dev/null
+
+cp "$JAR" "$OUT/lib/spring-hex-cli.jar"
+
+cat > "$OUT/bin/spring-hex" <<'LAUNCHER'
+#!/bin/bash
+HOME_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+exec "$HOME_DIR/runtime/bin/java" \
+    -XX:SharedArchiveFile="$HOME_DIR/lib/spring-hex.jsa" -Xshare:auto -Xlog:cds=off,cds+dynamic=off \
+    -XX:TieredStopAtLevel=1 \
+    -jar "$HOME_DIR/lib/spring-hex-cli.jar" "$@"
+LAUNCHER
+
+# The archive records the jar's absolute path, so it must be regenerated wherever the image lives
+cat > "$OUT/bin/spring-hex-train-cds" <<'TRAIN'
+#!/bin/bash
+set -e
+HOME_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+rm -f "$HOME_DIR/lib/spring-hex.jsa"
+"$HOME_DIR/runtime/bin/java" \
+    -XX:ArchiveClassesAtExit="$HOME_DIR/lib/spring-hex.jsa" -Xlog:cds=off,cds+dynamic=off \
+    -XX:TieredStopAtLevel=1 \
+    -cp "$HOME_DIR/lib/spring-hex-cli.jar" com.springhex.CdsTraining > /dev/null
+TRAIN
+chmod +x "$OUT/bin/spring-hex" "$OUT/bin/spring-hex-train-cds"
+
+"$OUT/bin/spring-hex-train-cds"
+echo "AppCDS archive: $(du -h "$OUT/lib/spring-hex.jsa" | cut -f1)"
+
+average_ms() {
+    local total=0 start end
+    for _ in $(seq "$SAMPLES"); do
+        start=$(date +%s%N)
+        "$@" > /dev/null
+        end=$(date +%s%N)
+        total=$((total + (end - start) / 1000000))
+    done
+    echo $((total / SAMPLES))
+}
+
+JAVA="$OUT/runtime/bin/java"
+APP_JAR="$OUT/lib/spring-hex-cli.jar"
+WITHOUT=$(average_ms "$JAVA" -XX:TieredStopAtLevel=1 -jar "$APP_JAR" --version)
+WITH=$(average_ms "$OUT/bin/spring-hex" --version)
+
+{
+    echo "spring-hex --version, average of $SAMPLES runs"
+    echo "  without AppCDS archive: ${WITHOUT} ms"
+    echo "  with AppCDS archive:    ${WITH} ms"
+} | tee "$OUT/startup-times.txt"
+
+case "$(uname -m)" in
+    x86_64|amd64) ARCH=x64 ;;
+    aarch64|arm64) ARCH=aarch64 ;;
+    *) ARCH=$(uname -m) ;;
+esac
+PLATFORM="$(uname -s | tr '[:upper:]' '[:lower:]')-$ARCH"
+
+# The archive is regenerated by install.sh at the final location, so it is not shipped
+tar -czf "$OUT-$PLATFORM.tar.gz" --exclude='spring-hex.jsa' -C "$(dirname "$OUT")" "$(basename "$OUT")"
+echo "Packaged $OUT-$PLATFORM.tar.gz"
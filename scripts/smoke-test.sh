@@ -0,0 +1,117 @@
+#!/bin/bash
+#
+# Runs every spring-hex subcommand against a throwaway project.
+#
+# Usage:
+#   scripts/smoke-test.sh target/spring-hex                        # native binary
+#   scripts/smoke-test.sh java -jar target/spring-hex-cli-1.0.0.jar # shaded jar
+#
+set -u
+
+if [ $# -eq 0 ]; then
+    echo "Usage: $0 <spring-hex launcher...>"
+    exit 2
+fi
+
+LAUNCHER=("$@")
+if [ -x "${LAUNCHER[0]}" ] && [[ "${LAUNCHER[0]}" != /* ]]; then
+    LAUNCHER[0]="$PWD/${LAUNCHER[0]}"
+fi
+for i in "${!LAUNCHER[@]}"; do
+    if [[ "${LAUNCHER[$i]}" == *.jar && "${LAUNCHER[$i]}" != /* ]]; then
+        LAUNCHER[$i]="$PWD/${LAUNCHER[$i]}"
+    fi
+done
+
+WORK_DIR=$(mktemp -d)
+trap 'rm -rf "$WORK_DIR"' EXIT
+FAILURES=0
+
+hex() {
+    "${LAUNCHER[@]}" "$@"
+}
+
+check() {
+    local description="$1"
+    shift
+    local start end output
+    start=$(date +%s%N)
+    if output=$("$@" 2>&1); then
+        end=$(date +%s%N)
+        printf "  ok    %-55s %5d ms\n" "$description" $(( (end - start) / 1000000 ))
+    else
+        echo "  FAIL  $description"
+        echo "$output" | sed 's/^/        /'
+        FAILURES=$((FAILURES + 1))
+    fi
+}
+
+# Minimal Spring Boot project with Flyway so auto-detection has something to find
+mkdir -p "$WORK_DIR/src/main/java/com/acme/shop" "$WORK_DIR/src/main/resources/db/migration"
+cat > "$WORK_DIR/src/main/java/com/acme/shop/ShopApplication.java" <<'JAVA'
+package com.acme.shop;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ShopApplication {
+}
+JAVA
+cat > "$WORK_DIR/pom.xml" <<'POM'
+<project>
+    <groupId>com.acme</groupId>
+    <artifactId>shop</artifactId>
+    <dependencies>
+        <dependency>
+            <groupId>org.flywaydb</groupId>
+            <artifactId>flyway-core</artifactId>
+        </dependency>
+    </dependencies>
+</project>
+POM
+
+cd "$WORK_DIR" || exit 1
+
+echo "Command specs:"
+check "--version" hex --version
+COMMANDS=$(hex --help | awk '/^Commands:/ {found=1; next} found && /^  [a-z]/ {print $1}')
+for command in $COMMANDS; do
+    check "$command --help" hex "$command" --help
+done
+
+echo "Generators:"
+check "init"                          hex init
+check "make:mediator"                 hex make:mediator
+check "make:module Order"             hex make:module Order
+check "make:command ShipOrder"        hex make:command ShipOrder -a order
+check "make:query ListOrders"         hex make:query ListOrders -a order
+check "make:event OrderShipped"       hex make:event OrderShipped -a order
+check "make:model Line"               hex make:model Line -a order
+check "make:entity Item"              hex make:entity Item -a cart
+check "make:aggregate Cart"           hex make:aggregate Cart
+check "make:value-object Money"       hex make:value-object Money -a order
+check "make:repository Item (mongo)"  hex make:repository Item -a cart -s mongodb
+check "make:repository Sess (redis)"  hex make:repository Sess -a session -s redis
+check "make:request Checkout"         hex make:request Checkout -a order
+check "make:response Checkout"        hex make:response Checkout -a order
+check "make:controller invoice"       hex make:controller invoice
+check "make:mapper Line"              hex make:mapper Line -a order
+check "make:port Payment"             hex make:port Payment -a order
+check "make:adapter Stripe"           hex make:adapter Stripe -a order --port PaymentPort --category payment
+check "make:crud Product"             hex make:crud Product --resources
+check "make:factory Line"             hex make:factory Line -a order
+check "make:seeder LineSeeder"        hex make:seeder LineSeeder -a order --entity Line
+check "make:test OrderTest"           hex make:test OrderTest
+check "make:migration create_orders"  hex make:migration create_orders
+
+echo "Output:"
+check "no unfilled placeholders" bash -c '! grep -rl "{{" src'
+check "DomainConfig registered handlers" \
+    grep -q "createOrderCommandHandler" src/main/java/com/acme/shop/infrastructure/config/DomainConfig.java
+
+echo
+if [ "$FAILURES" -gt 0 ]; then
+    echo "$FAILURES smoke check(s) failed"
+    exit 1
+fi
+echo "All smoke checks passed"
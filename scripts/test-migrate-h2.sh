@@ -0,0 +1,163 @@
+#!/bin/bash
+#
+# Checks the in-process Flyway runner (migrate, migrate:fresh) against an embedded H2 file
+# database in a throwaway Maven project.
+#
+# The H2 driver is resolved by Maven from the project's pom, the way spring-hex finds a real
+# project's driver, so the first run needs mvn on the PATH and H2 in (or downloadable to)
+# the local repository.
+#
+# Usage:
+#   scripts/test-migrate-h2.sh java -jar target/spring-hex-cli-1.0.0.jar
+#   H2_VERSION=2.1.214 scripts/test-migrate-h2.sh target/spring-hex   # another H2, native binary
+#
+set -u
+
+if [ $# -eq 0 ]; then
+    echo "Usage: $0 <spring-hex launcher...>"
+    exit 2
+fi
+
+LAUNCHER=("$@")
+if [ -x "${LAUNCHER[0]}" ] && [[ "${LAUNCHER[0]}" != /* ]]; then
+    LAUNCHER[0]="$PWD/${LAUNCHER[0]}"
+fi
+for i in "${!LAUNCHER[@]}"; do
+    if [[ "${LAUNCHER[$i]}" == *.jar && "${LAUNCHER[$i]}" != /* ]]; then
+        LAUNCHER[$i]="$PWD/${LAUNCHER[$i]}"
+    fi
+done
+
+H2_VERSION=${H2_VERSION:-2.2.224}
+
+WORK_DIR=$(mktemp -d)
+trap 'rm -rf "$WORK_DIR"' EXIT
+FAILURES=0
+OUTPUT=""
+
+export SPRING_HEX_NO_DAEMON=1
+
+hex() {
+    (cd "$WORK_DIR" && "${LAUNCHER[@]}" "$@")
+}
+
+# Runs a command, keeping its output in OUTPUT, and checks its exit code and output
+expect() {
+    local description="$1" expected_exit="$2" pattern="$3"
+    shift 3
+    local exit_code
+    OUTPUT=$("$@" 2>&1)
+    exit_code=$?
+    if [ "$exit_code" -eq "$expected_exit" ] && grep -qE "$pattern" <<< "$OUTPUT"; then
+        printf "  ok    %s\n" "$description"
+    else
+        echo "  FAIL  $description (exit $exit_code, expected $expected_exit and /$pattern/)"
+        echo "$OUTPUT" | sed 's/^/        /'
+        FAILURES=$((FAILURES + 1))
+    fi
+}
+
+MIGRATIONS="$WORK_DIR/src/main/resources/db/migration"
+mkdir -p "$MIGRATIONS" "$WORK_DIR/.hex"
+cat > "$WORK_DIR/pom.xml" <<POM
+<project xmlns="http://maven.apache.org/POM/4.0.0">
+    <modelVersion>4.0.0</modelVersion>
+    <groupId>com.acme</groupId>
+    <artifactId>shop</artifactId>
+    <version>1.0.0</version>
+    <dependencies>
+        <dependency>
+            <groupId>org.flywaydb</groupId>
+            <artifactId>flyway-core</artifactId>
+            <version>9.22.3</version>
+            <scope>provided</scope>
+        </dependency>
+        <dependency>
+            <groupId>com.h2database</groupId>
+            <artifactId>h2</artifactId>
+            <version>$H2_VERSION</version>
+            <scope>runtime</scope>
+        </dependency>
+    </dependencies>
+</project>
+POM
+cat > "$WORK_DIR/src/main/resources/application.properties" <<PROPS
+spring.datasource.url=jdbc:h2:file:$WORK_DIR/db/shop
+spring.datasource.username=sa
+PROPS
+cat > "$MIGRATIONS/V1__create_orders.sql" <<'SQL'
+CREATE TABLE orders (id BIGINT PRIMARY KEY, status VARCHAR(20) NOT NULL);
+SQL
+cat > "$MIGRATIONS/V2__add_total.sql" <<'SQL'
+ALTER TABLE orders ADD COLUMN total DECIMAL(10, 2);
+INSERT INTO orders (id, status, total) VALUES (1, 'NEW', 9.99);
+SQL
+
+echo "migrate"
+expect "applies pending migrations" 0 "Applied 2 migration\(s\)" hex migrate
+expect "re-running applies nothing" 0 "Schema is up to date" hex migrate
+
+echo "validation"
+cp "$MIGRATIONS/V1__create_orders.sql" "$WORK_DIR/V1.orig"
+echo "-- edited after it was applied" >> "$MIGRATIONS/V1__create_orders.sql"
+expect "refuses an edited migration" 1 "Checksum mismatch for V1__create_orders.sql" hex migrate
+cp "$WORK_DIR/V1.orig" "$MIGRATIONS/V1__create_orders.sql"
+
+cat > "$MIGRATIONS/V1_5__add_index.sql" <<'SQL'
+CREATE INDEX orders_status_idx ON orders (status);
+SQL
+expect "refuses an out-of-order version" 1 "older than the applied version 2" hex migrate
+echo "spring.flyway.out-of-order=true" >> "$WORK_DIR/src/main/resources/application.properties"
+expect "applies it with out-of-order=true" 0 "Applied: V1_5__add_index.sql" hex migrate
+sed -i.bak '/out-of-order/d' "$WORK_DIR/src/main/resources/application.properties"
+
+echo "unsupported Flyway features"
+# A stand-in wrapper, so falling back to the build tool shows up as its output
+printf '#!/bin/sh\necho "wrapper ran: $*"\n' > "$WORK_DIR/mvnw"
+chmod +x "$WORK_DIR/mvnw"
+PROPS_FILE="$WORK_DIR/src/main/resources/application.properties"
+echo "spring.flyway.table=schema_history" >> "$PROPS_FILE"
+expect "falls back for spring.flyway.table" 0 "spring.flyway.table.*running through the build tool" \
+    hex migrate
+sed -i.bak '/flyway.table/d' "$PROPS_FILE"
+expect "falls back for SPRING_FLYWAY_SCHEMAS" 0 "SPRING_FLYWAY_SCHEMAS.*running through the build tool" \
+    env SPRING_FLYWAY_SCHEMAS=app bash -c 'cd "$0" && "$@" migrate' "$WORK_DIR" "${LAUNCHER[@]}"
+echo "SELECT 1;" > "$MIGRATIONS/afterMigrate.sql"
+expect "falls back for SQL callbacks" 0 "afterMigrate.sql needs Flyway" hex migrate
+rm "$MIGRATIONS/afterMigrate.sql"
+echo 'INSERT INTO orders (id, status) VALUES (${order_id}, '"'NEW'"');' > "$MIGRATIONS/V9__seed.sql"
+expect "falls back for placeholders" 0 "V9__seed.sql uses Flyway placeholders" hex migrate
+rm "$MIGRATIONS/V9__seed.sql"
+mkdir -p "$WORK_DIR/src/main/java/db/migration"
+echo "package db.migration;" > "$WORK_DIR/src/main/java/db/migration/V9__Java.java"
+expect "falls back for Java migrations" 0 "Java-based migrations" hex migrate
+rm -r "$WORK_DIR/src/main/java" "$WORK_DIR/mvnw"
+
+echo "failures"
+cat > "$MIGRATIONS/V3__broken.sql" <<'SQL'
+CREATE TABLE customers (id BIGINT PRIMARY KEY);
+INSERT INTO no_such_table VALUES (1);
+SQL
+expect "reports a failing migration" 1 "H2 cannot roll back DDL" hex migrate
+cat > "$MIGRATIONS/V3__broken.sql" <<'SQL'
+CREATE TABLE customers (id BIGINT PRIMARY KEY);
+SQL
+expect "records it as failed and stops the next run" 1 "V3__broken.sql failed in an earlier run" hex migrate
+
+echo "migrate:fresh"
+expect "drops everything and re-applies" 0 "Dropped all objects.*" hex migrate:fresh --force
+if grep -q "Applied 4 migration(s)" <<< "$OUTPUT"; then
+    printf "  ok    %s\n" "every migration ran again"
+else
+    echo "  FAIL  every migration ran again"
+    echo "$OUTPUT" | sed 's/^/        /'
+    FAILURES=$((FAILURES + 1))
+fi
+expect "then re-running applies nothing" 0 "Schema is up to date" hex migrate
+
+echo
+if [ "$FAILURES" -gt 0 ]; then
+    echo "$FAILURES check(s) failed"
+    exit 1
+fi
+echo "All migration checks passed"
@@ -0,0 +1,51 @@
+package com.springhex;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Training workload for the AppCDS archive shipped with the jlink runtime image.
+ *
+ * Runs {@code init}, {@code make:module} and {@code make:migration} in one JVM against a
+ * throwaway project so that {@code -XX:ArchiveClassesAtExit} captures every class those
+ * commands load. Not part of the CLI itself; see {@code scripts/build-runtime-image.sh}.
+ */
+public final class CdsTraining {
+
+    private CdsTraining() {}
+
+    public static void main(String[] args) throws IOException {
+        Path project = Files.createTempDirectory("spring-hex-cds");
+        try {
+            Path sources = Files.createDirectories(project.resolve("src/main/java/com/example/app"));
+            Files.createDirectories(project.resolve("src/main/resources/db/migration"));
+            Files.writeString(sources.resolve("App.java"),
+                "package com.example.app;\n\n@SpringBootApplication\npublic class App {\n}\n");
+
+            String dir = project.toString();
+            run("init", "-o", dir);
+            run("make:module", "Order", "-o", dir);
+            run("make:migration", "create_orders", "-o", dir);
+        } finally {
+            deleteRecursively(project);
+        }
+    }
+
+    private static void run(String... args) {
+        int exitCode = SpringHexCli.newCommandLine(args).execute(args);
+        if (exitCode != 0) {
+            throw new IllegalStateException("Training command failed: " + String.join(" ", args));
+        }
+    }
+
+    private static void deleteRecursively(Path root) throws IOException {
+        try (Stream<Path> walk = Files.walk(root)) {
+            for (Path p : (Iterable<Path>) walk.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+}
@@ -1,15 +1,31 @@
 package com.springhex;
 
 import com.springhex.command.*;
+import com.springhex.daemon.DaemonClient;
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Spec;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
 
 @Command(
     name = "spring-hex",
     mixinStandardHelpOptions = true,
-    version = "1.0.0",
-    description = "CLI tool for generating hexagonal architecture scaffolding for Spring projects",
-    subcommands = {
+    version = SpringHexCli.VERSION,
+    description = "CLI tool for generating hexagonal architecture scaffolding for Spring projects"
+)
+public class SpringHexCli implements Runnable {
+
+    public static final String VERSION = "1.0.0";
+
+    // Registered by newCommandLine rather than through @Command(subcommands), in this order
+    private static final List<Class<?>> SUBCOMMANDS = List.of(
         InitCommand.class,
         MakeMediatorCommand.class,
         MakeCommandCommand.class,
@@ -25,6 +41,7 @@ import picocli.CommandLine.Command;
         MakeValueObjectCommand.class,
         MakeEventCommand.class,
         MakeModuleCommand.class,
+        MakeBatchCommand.class,
         MakePortCommand.class,
         MakeAdapterCommand.class,
         MakeCrudCommand.class,
@@ -39,20 +56,89 @@ import picocli.CommandLine.Command;
         MigrateValidateCommand.class,
         MigrateRepairCommand.class,
         MigrateFreshCommand.class,
-        DbSeedCommand.class
-    }
-)
-public class SpringHexCli implements Runnable {
+        DbSeedCommand.class,
+        DaemonCommand.class
+    );
+
+    private static volatile Map<String, Class<?>> subcommandsByName;
+
+    @Spec
+    private CommandSpec spec;
 
     public static void main(String[] args) {
-        int exitCode = new CommandLine(new SpringHexCli())
-            .setExecutionStrategy(new CommandLine.RunAll())
-            .execute(args);
+        // Hand the call to a running daemon if there is one; the daemon command itself always runs here
+        if (args.length == 0 || !"daemon".equals(args[0])) {
+            OptionalInt daemonExit = new DaemonClient(VERSION).tryRun(args);
+            if (daemonExit.isPresent()) {
+                System.exit(daemonExit.getAsInt());
+            }
+        }
+
+        int exitCode = newCommandLine(args).execute(args);
         System.exit(exitCode);
     }
 
+    /**
+     * Builds the command line for one invocation. Only the subcommand named by the first
+     * argument is built in full; every other one is registered as a bare name and
+     * description taken from its annotation, which is all help output and unknown-command
+     * suggestions need. That avoids reflecting over, and instantiating, thirty commands
+     * to run one.
+     */
+    public static CommandLine newCommandLine(String... args) {
+        String invoked = args.length > 0 ? args[0] : null;
+        CommandLine commandLine = new CommandLine(new SpringHexCli());
+        for (Map.Entry<String, Class<?>> entry : subcommands().entrySet()) {
+            if (entry.getKey().equals(invoked)) {
+                commandLine.addSubcommand(entry.getKey(), entry.getValue());
+            } else {
+                commandLine.addSubcommand(entry.getKey(), new CommandLine(placeholder(entry.getKey(), entry.getValue())));
+            }
+        }
+        return commandLine.setExecutionStrategy(new PlannedExecutionStrategy(new CommandLine.RunAll()));
+    }
+
+    public static Set<String> subcommandNames() {
+        return subcommands().keySet();
+    }
+
+    /**
+     * Creates a fresh instance of the named subcommand, or returns null if there is none.
+     */
+    public static Object newSubcommand(String name) {
+        Class<?> type = subcommands().get(name);
+        if (type == null) {
+            return null;
+        }
+        try {
+            return CommandLine.defaultFactory().create(type);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not create command " + name, e);
+        }
+    }
+
+    private static Map<String, Class<?>> subcommands() {
+        Map<String, Class<?>> byName = subcommandsByName;
+        if (byName == null) {
+            byName = new LinkedHashMap<>();
+            for (Class<?> type : SUBCOMMANDS) {
+                byName.put(type.getAnnotation(Command.class).name(), type);
+            }
+            byName = Collections.unmodifiableMap(byName);
+            subcommandsByName = byName;
+        }
+        return byName;
+    }
+
+    private static CommandSpec placeholder(String name, Class<?> type) {
+        Command command = type.getAnnotation(Command.class);
+        CommandSpec placeholder = CommandSpec.create().name(name);
+        placeholder.usageMessage().description(command.description()).header(command.header());
+        return placeholder;
+    }
+
     @Override
     public void run() {
-        CommandLine.usage(this, System.out);
+        spec.commandLine().usage(System.out);
     }
 }
@@ -0,0 +1,61 @@
+package com.springhex.command;
+
+import com.springhex.SpringHexCli;
+import com.springhex.daemon.DaemonClient;
+import com.springhex.daemon.DaemonServer;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+@Command(
+    name = "daemon",
+    mixinStandardHelpOptions = true,
+    description = "Run a background daemon that serves spring-hex commands from a warm JVM"
+)
+public class DaemonCommand implements Callable<Integer> {
+
+    @Option(names = "--idle-timeout", description = "Minutes of inactivity before the daemon exits (default: ${DEFAULT-VALUE})", defaultValue = "30")
+    private long idleTimeoutMinutes;
+
+    @Option(names = "--stop", description = "Stop the running daemon")
+    private boolean stop;
+
+    @Option(names = "--status", description = "Report whether a daemon is running")
+    private boolean status;
+
+    @Override
+    public Integer call() {
+        DaemonClient client = new DaemonClient(SpringHexCli.VERSION);
+
+        if (stop) {
+            if (client.stop()) {
+                System.out.println("Daemon stopped.");
+                return 0;
+            }
+            System.err.println("No running daemon found.");
+            return 1;
+        }
+
+        if (status) {
+            boolean running = client.ping();
+            System.out.println(running ? "Daemon is running." : "Daemon is not running.");
+            return running ? 0 : 1;
+        }
+
+        if (idleTimeoutMinutes <= 0) {
+            System.err.println("Error: --idle-timeout must be a positive number of minutes.");
+            return 1;
+        }
+
+        try {
+            new DaemonServer(SpringHexCli.VERSION, Duration.ofMinutes(idleTimeoutMinutes), SpringHexCli::newCommandLine).serve();
+            return 0;
+        } catch (IOException e) {
+            System.err.println("Error running daemon: " + e.getMessage());
+            return 1;
+        }
+    }
+}
@@ -6,7 +6,6 @@ import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 
-import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -49,17 +48,13 @@ public class DbSeedCommand implements Callable<Integer> {
 
         String executable = buildToolDetector.resolveExecutable(baseDir, tool);
         String seedTarget = all ? "all" : seederName;
-        List<String> command = buildCommand(executable, tool, seedTarget);
+        List<String> command = buildToolDetector.prepare(baseDir, tool, buildCommand(executable, tool, seedTarget));
 
         System.out.println("Running seeder: " + seedTarget);
         System.out.println("Executing: " + String.join(" ", command));
 
         try {
-            ProcessBuilder pb = new ProcessBuilder(command);
-            pb.directory(new File(baseDir));
-            pb.inheritIO();
-            Process process = pb.start();
-            return process.waitFor();
+            return buildToolDetector.execute(baseDir, tool, command);
         } catch (IOException e) {
             System.err.println("Error running seeder: " + e.getMessage());
             return 1;
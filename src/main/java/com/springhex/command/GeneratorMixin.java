@@ -10,6 +10,18 @@ public class GeneratorMixin {
     @Option(names = {"-o", "--output"}, description = "Output directory (defaults to current directory)", defaultValue = ".")
     String outputDir;
 
+    @Option(names = "--dry-run", description = "Show what would be generated without writing anything")
+    boolean dryRun;
+
+    @Option(names = "--sync", description = "Regenerate existing files whose output changed, unless edited since generation")
+    boolean sync;
+
+    @Option(names = "--force", description = "Like --sync, and also overwrite existing files spring-hex has no record of generating")
+    boolean force;
+
+    @Option(names = "--verify", description = "Compile the generated files in-process against the project classpath")
+    boolean verify;
+
     public String getBasePackage() {
         return basePackage;
     }
@@ -17,4 +29,20 @@ public class GeneratorMixin {
     public String getOutputDir() {
         return outputDir;
     }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    public boolean isSync() {
+        return sync;
+    }
+
+    public boolean isForce() {
+        return force;
+    }
+
+    public boolean isVerify() {
+        return verify;
+    }
 }
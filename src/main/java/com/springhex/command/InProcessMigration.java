@@ -0,0 +1,153 @@
+package com.springhex.command;
+
+import com.springhex.migration.DataSourceSettings;
+import com.springhex.migration.FlywayMigrator;
+import com.springhex.migration.MigrationException;
+import com.springhex.util.MigrationLock;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * The in-process path shared by {@code migrate} and {@code migrate:fresh}: Flyway scripts
+ * applied over JDBC with {@link FlywayMigrator} instead of through the build tool.
+ */
+final class InProcessMigration {
+
+    /** Flyway's callback events: beforeMigrate.sql, afterEachMigrate__log.sql, ... */
+    private static final Pattern CALLBACK = Pattern.compile("(?:before|after|createSchema)[A-Za-z]*(?:__.*)?\\.sql");
+    private static final Pattern MAVEN_PLUGIN_CONFIGURATION =
+        Pattern.compile("<artifactId>flyway-maven-plugin</artifactId>(?:(?!</plugin>).)*<configuration>", Pattern.DOTALL);
+    private static final Pattern GRADLE_PLUGIN_CONFIGURATION = Pattern.compile("(?m)^\\s*flyway\\s*\\{");
+
+    private InProcessMigration() {}
+
+    /**
+     * Loads the datasource settings, or returns {@code null}, saying why, when the project has
+     * to go through the build tool: it has no datasource URL, or it uses Flyway features the
+     * in-process runner does not implement.
+     */
+    static DataSourceSettings settings(Path projectRoot) {
+        String reason;
+        DataSourceSettings settings = null;
+        try {
+            settings = DataSourceSettings.load(projectRoot);
+            reason = settings.getUrl() == null
+                ? "No spring.datasource.url configured"
+                : unsupportedFeature(projectRoot, settings);
+        } catch (IOException e) {
+            System.err.println("Warning: " + e.getMessage());
+            reason = "The datasource settings could not be read";
+        }
+        if (reason != null) {
+            System.out.println(reason + "; running through the build tool.");
+            return null;
+        }
+        return settings;
+    }
+
+    /**
+     * The first Flyway feature the project relies on that {@link FlywayMigrator} would
+     * silently skip, or {@code null} when the in-process run matches what Flyway would do.
+     */
+    private static String unsupportedFeature(Path projectRoot, DataSourceSettings settings) throws IOException {
+        Set<String> unsupported = settings.getUnsupportedFlywaySettings();
+        if (!unsupported.isEmpty()) {
+            return "Flyway is configured with " + String.join(", ", unsupported) + ", which in-process runs do not support";
+        }
+        for (String configFile : new String[]{"flyway.conf", "flyway.toml"}) {
+            if (Files.exists(projectRoot.resolve(configFile))) {
+                return "Flyway is configured in " + configFile;
+            }
+        }
+        String pom = readIfPresent(projectRoot.resolve("pom.xml"));
+        if (MAVEN_PLUGIN_CONFIGURATION.matcher(pom).find() || pom.contains("<flyway.")) {
+            return "flyway-maven-plugin is configured in pom.xml";
+        }
+        for (String buildFile : new String[]{"build.gradle", "build.gradle.kts"}) {
+            if (GRADLE_PLUGIN_CONFIGURATION.matcher(readIfPresent(projectRoot.resolve(buildFile))).find()) {
+                return "The Flyway Gradle plugin is configured in " + buildFile;
+            }
+        }
+
+        for (Path location : settings.getLocations(projectRoot)) {
+            if (!Files.isDirectory(location)) {
+                continue;
+            }
+            List<Path> scripts;
+            try (Stream<Path> walk = Files.walk(location)) {
+                scripts = walk.filter(Files::isRegularFile).sorted().toList();
+            }
+            for (Path script : scripts) {
+                String name = script.getFileName().toString();
+                if (CALLBACK.matcher(name).matches()) {
+                    return "The SQL callback " + name + " needs Flyway";
+                }
+                if (name.endsWith(".sql") && Files.readString(script).contains("${")) {
+                    return name + " uses Flyway placeholders";
+                }
+            }
+        }
+
+        for (Path location : settings.getLocations(projectRoot)) {
+            Path resources = projectRoot.resolve("src/main/resources");
+            if (!location.startsWith(resources)) {
+                continue;
+            }
+            for (String sourceRoot : new String[]{"src/main/java", "src/main/kotlin"}) {
+                Path javaMigrations = projectRoot.resolve(sourceRoot).resolve(resources.relativize(location));
+                if (Files.isDirectory(javaMigrations)) {
+                    try (Stream<Path> walk = Files.walk(javaMigrations)) {
+                        if (walk.anyMatch(p -> p.toString().endsWith(".java") || p.toString().endsWith(".kt"))) {
+                            return "Java-based migrations in " + projectRoot.relativize(javaMigrations) + " need Flyway";
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String readIfPresent(Path file) throws IOException {
+        return Files.exists(file) ? Files.readString(file) : "";
+    }
+
+    static int run(Path projectRoot, DataSourceSettings settings, boolean clean) {
+        long start = System.nanoTime();
+        try (FlywayMigrator migrator = FlywayMigrator.connect(projectRoot, settings)) {
+            System.out.println("Detected: FLYWAY, running in-process against " + migrator.getDatabaseName());
+            if (clean) {
+                migrator.clean();
+                System.out.println("Dropped all objects in the schema.");
+            }
+
+            Map<String, Long> applied = migrator.migrate(settings.getLocations(projectRoot), settings.isOutOfOrder());
+            for (Map.Entry<String, Long> script : applied.entrySet()) {
+                System.out.println("Applied: " + script.getKey() + " (" + script.getValue() + " ms)");
+            }
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            System.out.println(applied.isEmpty()
+                ? "Schema is up to date."
+                : "Applied " + applied.size() + " migration(s) in " + elapsedMillis + " ms.");
+
+            MigrationLock.refreshIfPresent(projectRoot);
+            return 0;
+        } catch (MigrationException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        } catch (SQLException e) {
+            System.err.println("Error: database error: " + e.getMessage());
+            return 1;
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+    }
+}
@@ -1,13 +1,12 @@
 package com.springhex.command;
 
+import com.springhex.generator.FileGenerator;
 import com.springhex.generator.StubProcessor;
 import com.springhex.util.PackageDetector;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
@@ -31,19 +30,25 @@ public class InitCommand implements Callable<Integer> {
     @Option(names = "--force", description = "Overwrite existing config", defaultValue = "false")
     private boolean force;
 
+    @Option(names = "--dry-run", description = "Show what would be generated without writing anything")
+    private boolean dryRun;
+
     private final PackageDetector packageDetector;
     private final StubProcessor stubProcessor;
+    private final FileGenerator fileGenerator;
 
     public InitCommand() {
         this.packageDetector = new PackageDetector();
         this.stubProcessor = new StubProcessor();
+        this.fileGenerator = new FileGenerator();
     }
 
     @Override
     public Integer call() {
         Path configPath = Paths.get(outputDir, ".hex", "config.yml");
 
-        if (Files.exists(configPath) && !force) {
+        boolean exists = fileGenerator.exists(configPath);
+        if (exists && !force) {
             System.err.println("Error: .hex/config.yml already exists. Use --force to overwrite.");
             return 1;
         }
@@ -55,18 +60,17 @@ public class InitCommand implements Callable<Integer> {
         }
 
         try {
-            Path hexDir = configPath.getParent();
-            if (!Files.exists(hexDir)) {
-                Files.createDirectories(hexDir);
-            }
-
             Map<String, String> replacements = new HashMap<>();
             replacements.put("{{BASE_PACKAGE}}", resolvedPackage);
 
             String content = stubProcessor.process("init/config", replacements);
-            Files.writeString(configPath, content, StandardCharsets.UTF_8);
+            if (exists) {
+                fileGenerator.overwrite(configPath, content);
+                FileGenerator.reportUpdated(configPath);
+            } else {
+                fileGenerator.generate(configPath, content);
+            }
 
-            System.out.println("Created: " + configPath);
             System.out.println();
             System.out.println("Configuration:");
             System.out.println("  base-package: " + resolvedPackage);
@@ -77,9 +77,10 @@ public class MakeAdapterCommand implements Callable<Integer> {
             String content = stubProcessor.process("infrastructure/adapter", replacements);
             Path outputPath = packageResolver.resolveOutputPath(mixin.getOutputDir(), className, adapterPackage);
             fileGenerator.generate(outputPath, content);
-            System.out.println("Created: " + outputPath);
 
-            System.out.println("\nAdapter generated successfully!");
+            if (!FileGenerator.isDryRun()) {
+                System.out.println("\nAdapter generated successfully!");
+            }
             return 0;
         } catch (ConfigurationException e) {
             System.err.println("Error: " + e.getMessage());
@@ -68,7 +68,6 @@ public class MakeAggregateCommand implements Callable<Integer> {
             String content = stubProcessor.process("domain/aggregate", replacements);
             Path outputPath = packageResolver.resolveOutputPath(mixin.getOutputDir(), aggregateCapitalized, modelPackage);
             fileGenerator.generate(outputPath, content);
-            System.out.println("Created: " + outputPath);
 
             // Register @Bean in DomainConfig if it exists
             String configPackage = pathResolver.resolveStatic("config");
@@ -83,10 +82,12 @@ public class MakeAggregateCommand implements Callable<Integer> {
             boolean beanAdded = configAppender.appendBeanIfAbsent(mixin.getOutputDir(), configPackage,
                 "infrastructure/bean-method-model", beanReplacements, imports, beanName);
             if (beanAdded) {
-                System.out.println("Updated: DomainConfig.java with @Bean for " + aggregateCapitalized);
+                FileGenerator.reportUpdated("DomainConfig.java with @Bean for " + aggregateCapitalized);
             }
 
-            System.out.println("\nAggregate generated successfully!");
+            if (!FileGenerator.isDryRun()) {
+                System.out.println("\nAggregate generated successfully!");
+            }
             return 0;
         } catch (ConfigurationException e) {
             System.err.println("Error: " + e.getMessage());
@@ -0,0 +1,296 @@
+package com.springhex.command;
+
+import com.springhex.SpringHexCli;
+import com.springhex.config.ConfigResolver;
+import com.springhex.config.ConfigurationException;
+import com.springhex.config.ResolvedConfig;
+import com.springhex.generator.FileGenerator;
+import com.springhex.generator.GenerationManifest;
+import com.springhex.generator.GenerationPlan;
+import com.springhex.generator.RegenerationMode;
+import com.springhex.util.ClientEnvironment;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.error.YAMLException;
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+@Command(
+    name = "make:batch",
+    mixinStandardHelpOptions = true,
+    description = "Run many make:* generators from a YAML manifest in a single process"
+)
+public class MakeBatchCommand implements Callable<Integer> {
+
+    private static final Set<String> EXCLUDED = Set.of("make:batch");
+
+    @Parameters(index = "0", description = "Manifest file listing generator calls (e.g., manifest.yml)")
+    private String manifest;
+
+    @Option(names = "--json", description = "Print a JSON report instead of a text summary")
+    private boolean json;
+
+    @Mixin
+    private GeneratorMixin mixin;
+
+    @Override
+    public Integer call() {
+        long start = System.nanoTime();
+
+        List<List<String>> entries;
+        try {
+            entries = loadManifest(ClientEnvironment.resolve(manifest));
+        } catch (IOException | YAMLException e) {
+            System.err.println("Error reading manifest: " + e.getMessage());
+            return 1;
+        }
+
+        ResolvedConfig config;
+        try {
+            // Resolve once up front; every entry then receives the package explicitly
+            config = ConfigResolver.resolve(mixin.getOutputDir(), mixin.getBasePackage());
+        } catch (ConfigurationException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+
+        Set<String> available = SpringHexCli.subcommandNames();
+        for (int i = 0; i < entries.size(); i++) {
+            List<String> entry = entries.get(i);
+            String name = entry.isEmpty() ? "" : entry.get(0);
+            if (!name.startsWith("make:") || EXCLUDED.contains(name) || !available.contains(name)) {
+                System.err.println("Error: manifest entry " + (i + 1) + " uses unsupported command '" + name + "'.");
+                return 1;
+            }
+        }
+
+        // Normally the plan is opened by PlannedExecutionStrategy; open one when run on our own
+        GenerationPlan plan = FileGenerator.currentPlan();
+        boolean ownPlan = plan == null;
+        if (ownPlan) {
+            plan = FileGenerator.plan();
+        }
+
+        try {
+            for (int i = 0; i < entries.size(); i++) {
+                List<String> entry = entries.get(i);
+                ByteArrayOutputStream captured = new ByteArrayOutputStream();
+                // Labels the entry's files so --verify compiles each entry as its own task
+                plan.setGroup(String.join(" ", entry));
+                int exitCode = runCaptured(entry.get(0), entry.subList(1, entry.size()), config.getBasePackage(), captured);
+                if (exitCode != 0) {
+                    System.err.println("Error: manifest entry " + (i + 1) + " (" + String.join(" ", entry) + ") failed.");
+                    System.err.print(captured);
+                    return exitCode;
+                }
+            }
+            plan.setGroup(null);
+
+            if (mixin.isDryRun()) {
+                return 0;
+            }
+            plan.commit();
+
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            if (json) {
+                System.out.println(toJson(entries.size(), plan.getCreated(), plan.getUpdated(), elapsedMillis));
+            } else {
+                System.out.println("Batch complete: " + entries.size() + " commands, "
+                        + plan.getCreated().size() + " files created, "
+                        + plan.getUpdated().size() + " files updated in " + elapsedMillis + " ms");
+            }
+            return 0;
+        } catch (IOException e) {
+            System.err.println("Error writing batch output: " + e.getMessage());
+            return 1;
+        } finally {
+            if (ownPlan) {
+                plan.close();
+            }
+        }
+    }
+
+    /**
+     * Runs one subcommand with its console output captured, so the batch prints a single
+     * summary instead of a line per file.
+     */
+    private int runCaptured(String name, List<String> args, String basePackage, ByteArrayOutputStream captured)
+            throws IOException {
+        // A fresh, parentless instance per entry so no option state leaks between entries
+        CommandLine commandLine = new CommandLine(SpringHexCli.newSubcommand(name));
+        String[] fullArgs = withDefaults(commandLine.getCommandSpec(), args, basePackage);
+
+        // Entries run outside PlannedExecutionStrategy, so apply an entry's --sync/--force here
+        GenerationPlan plan = FileGenerator.currentPlan();
+        RegenerationMode batchMode = plan.getRegenerationMode();
+        GenerationManifest batchManifest = plan.getManifest();
+        RegenerationMode entryMode = args.contains("--force") ? RegenerationMode.FORCE
+                : args.contains("--sync") ? RegenerationMode.SYNC : RegenerationMode.OFF;
+        if (entryMode.compareTo(batchMode) > 0) {
+            plan.regenerate(entryMode, batchManifest != null
+                    ? batchManifest : GenerationManifest.load(Paths.get(mixin.getOutputDir())));
+        }
+
+        PrintStream originalOut = System.out;
+        PrintStream originalErr = System.err;
+        PrintStream capture = new PrintStream(captured, true);
+        System.setOut(capture);
+        System.setErr(capture);
+        try {
+            return commandLine.execute(fullArgs);
+        } finally {
+            System.setOut(originalOut);
+            System.setErr(originalErr);
+            plan.regenerate(batchMode, batchManifest);
+        }
+    }
+
+    private String[] withDefaults(CommandSpec spec, List<String> args, String basePackage) {
+        List<String> result = new ArrayList<>(args);
+        if (spec.findOption("--package") != null && !hasOption(args, "-p", "--package")) {
+            result.add("--package=" + basePackage);
+        }
+        if (spec.findOption("--output") != null && !hasOption(args, "-o", "--output")) {
+            result.add("--output=" + mixin.getOutputDir());
+        }
+        return result.toArray(new String[0]);
+    }
+
+    private static boolean hasOption(List<String> args, String shortName, String longName) {
+        for (String arg : args) {
+            if (arg.equals(shortName) || arg.equals(longName) || arg.startsWith(longName + "=")
+                    || (arg.startsWith(shortName) && !arg.startsWith("--"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the manifest. Accepted forms:
+     * <pre>
+     * commands:
+     *   - make:module Order
+     *   - [make:command, ShipOrder, -a, order]
+     * </pre>
+     * A top-level list without the {@code commands} key is accepted as well.
+     */
+    private static List<List<String>> loadManifest(Path path) throws IOException {
+        Object root;
+        try (InputStream in = Files.newInputStream(path)) {
+            root = new Yaml(new SafeConstructor(new LoaderOptions())).load(in);
+        }
+
+        if (root instanceof Map<?, ?> map) {
+            root = map.get("commands");
+        }
+        if (!(root instanceof List<?> list)) {
+            throw new IOException(path + " must contain a 'commands' list");
+        }
+
+        List<List<String>> entries = new ArrayList<>();
+        for (Object item : list) {
+            if (item instanceof String s) {
+                entries.add(split(s));
+            } else if (item instanceof List<?> parts) {
+                List<String> args = new ArrayList<>();
+                for (Object part : parts) {
+                    args.add(String.valueOf(part));
+                }
+                entries.add(args);
+            } else {
+                throw new IOException("Unsupported manifest entry: " + item);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Splits a command line on whitespace, honouring single and double quotes.
+     */
+    private static List<String> split(String line) {
+        List<String> args = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        char quote = 0;
+        boolean inToken = false;
+        for (char c : line.toCharArray()) {
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+                inToken = true;
+            } else if (Character.isWhitespace(c)) {
+                if (inToken) {
+                    args.add(current.toString());
+                    current.setLength(0);
+                    inToken = false;
+                }
+            } else {
+                current.append(c);
+                inToken = true;
+            }
+        }
+        if (inToken) {
+            args.add(current.toString());
+        }
+        return args;
+    }
+
+    private static String toJson(int commands, List<Path> created, List<Path> updated, long elapsedMillis) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"commands\":").append(commands);
+        sb.append(",\"created\":");
+        appendPaths(sb, created);
+        sb.append(",\"updated\":");
+        appendPaths(sb, updated);
+        sb.append(",\"durationMs\":").append(elapsedMillis).append('}');
+        return sb.toString();
+    }
+
+    private static void appendPaths(StringBuilder sb, List<Path> paths) {
+        sb.append('[');
+        for (int i = 0; i < paths.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append('"');
+            for (char c : paths.get(i).toString().toCharArray()) {
+                switch (c) {
+                    case '"' -> sb.append("\\\"");
+                    case '\\' -> sb.append("\\\\");
+                    default -> {
+                        if (c < 0x20) {
+                            sb.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            sb.append(c);
+                        }
+                    }
+                }
+            }
+            sb.append('"');
+        }
+        sb.append(']');
+    }
+}
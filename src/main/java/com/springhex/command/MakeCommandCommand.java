@@ -77,7 +77,6 @@ public class MakeCommandCommand implements Callable<Integer> {
             String commandContent = stubProcessor.process("domain/command", replacements);
             Path commandPath = packageResolver.resolveOutputPath(mixin.getOutputDir(), className, commandPackage);
             fileGenerator.generate(commandPath, commandContent);
-            System.out.println("Created: " + commandPath);
 
             // Generate CommandHandler class if requested
             if (!noHandler) {
@@ -85,7 +84,6 @@ public class MakeCommandCommand implements Callable<Integer> {
                 String handlerContent = stubProcessor.process("domain/command-handler", replacements);
                 Path handlerPath = packageResolver.resolveOutputPath(mixin.getOutputDir(), handlerClassName, commandPackage);
                 fileGenerator.generate(handlerPath, handlerContent);
-                System.out.println("Created: " + handlerPath);
 
                 // Ensure DomainConfig exists and append @Bean method
                 String configPackage = pathResolver.resolveStatic("config");
@@ -103,12 +101,16 @@ public class MakeCommandCommand implements Callable<Integer> {
                     "org.springframework.context.annotation.Bean"
                 );
 
-                configAppender.appendBean(mixin.getOutputDir(), configPackage,
+                boolean beanAdded = configAppender.appendBean(mixin.getOutputDir(), configPackage,
                         "infrastructure/bean-method-handler", beanReplacements, imports);
-                System.out.println("Updated: DomainConfig.java with @Bean for " + handlerClassName);
+                if (beanAdded) {
+                    FileGenerator.reportUpdated("DomainConfig.java with @Bean for " + handlerClassName);
+                }
             }
 
-            System.out.println("\nCommand generated successfully!");
+            if (!FileGenerator.isDryRun()) {
+                System.out.println("\nCommand generated successfully!");
+            }
             return 0;
         } catch (ConfigurationException e) {
             System.err.println("Error: " + e.getMessage());
@@ -68,9 +68,10 @@ public class MakeControllerCommand implements Callable<Integer> {
             String content = stubProcessor.process("infrastructure/controller", replacements);
             Path outputPath = packageResolver.resolveOutputPath(mixin.getOutputDir(), aggregateCapitalized + "Controller", controllerPackage);
             fileGenerator.generate(outputPath, content);
-            System.out.println("Created: " + outputPath);
 
-            System.out.println("\nController generated successfully!");
+            if (!FileGenerator.isDryRun()) {
+                System.out.println("\nController generated successfully!");
+            }
             return 0;
         } catch (ConfigurationException e) {
             System.err.println("Error: " + e.getMessage());
@@ -107,8 +107,10 @@ public class MakeCrudCommand implements Callable<Integer> {
             generateFile(controllerStub, capitalized + "Controller", controllerPackage, replacements);
             fileCount++;
 
-            System.out.println("\nCRUD resource generated successfully!");
-            System.out.println("Generated " + fileCount + " files for " + capitalized);
+            if (!FileGenerator.isDryRun()) {
+                System.out.println("\nCRUD resource generated successfully!");
+                System.out.println("Generated " + fileCount + " files for " + capitalized);
+            }
             return 0;
         } catch (ConfigurationException e) {
             System.err.println("Error: " + e.getMessage());
@@ -126,6 +128,5 @@ public class MakeCrudCommand implements Callable<Integer> {
         String content = stubProcessor.process(stubName, fileReplacements);
         Path outputPath = packageResolver.resolveOutputPath(mixin.getOutputDir(), className, packageName);
         fileGenerator.generate(outputPath, content);
-        System.out.println("Created: " + outputPath);
     }
 }
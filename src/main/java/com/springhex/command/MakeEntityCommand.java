@@ -92,10 +92,12 @@ public class MakeEntityCommand implements Callable<Integer> {
             boolean beanAdded = configAppender.appendBeanIfAbsent(mixin.getOutputDir(), configPackage,
                 "infrastructure/bean-method-model", beanReplacements, imports, beanName);
             if (beanAdded) {
-                System.out.println("Updated: DomainConfig.java with @Bean for " + entity);
+                FileGenerator.reportUpdated("DomainConfig.java with @Bean for " + entity);
             }
 
-            System.out.println("\nEntities generated successfully!");
+            if (!FileGenerator.isDryRun()) {
+                System.out.println("\nEntities generated successfully!");
+            }
             return 0;
         } catch (ConfigurationException e) {
             System.err.println("Error: " + e.getMessage());
@@ -112,6 +114,5 @@ public class MakeEntityCommand implements Callable<Integer> {
         String content = stubProcessor.process(stubName, fileReplacements);
         Path outputPath = packageResolver.resolveOutputPath(mixin.getOutputDir(), className, packageName);
         fileGenerator.generate(outputPath, content);
-        System.out.println("Created: " + outputPath);
     }
 }
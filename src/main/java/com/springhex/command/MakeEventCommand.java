@@ -71,7 +71,6 @@ public class MakeEventCommand implements Callable<Integer> {
             String eventContent = stubProcessor.process("domain/domain-event", replacements);
             Path eventPath = packageResolver.resolveOutputPath(mixin.getOutputDir(), className, eventPackage);
             fileGenerator.generate(eventPath, eventContent);
-            System.out.println("Created: " + eventPath);
 
             // Generate event listener unless --no-listener
             if (!noListener) {
@@ -82,10 +81,11 @@ public class MakeEventCommand implements Callable<Integer> {
                 String listenerContent = stubProcessor.process("infrastructure/event-listener", replacements);
                 Path listenerPath = packageResolver.resolveOutputPath(mixin.getOutputDir(), listenerClassName, listenerPackage);
                 fileGenerator.generate(listenerPath, listenerContent);
-                System.out.println("Created: " + listenerPath);
             }
 
-            System.out.println("\nEvent generated successfully!");
+            if (!FileGenerator.isDryRun()) {
+                System.out.println("\nEvent generated successfully!");
+            }
             return 0;
         } catch (ConfigurationException e) {
             System.err.println("Error: " + e.getMessage());
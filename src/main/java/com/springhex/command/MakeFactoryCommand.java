@@ -88,7 +88,6 @@ public class MakeFactoryCommand implements Callable<Integer> {
             String content = stubProcessor.process("data/factory", replacements);
             Path outputPath = packageResolver.resolveOutputPath(mixin.getOutputDir(), capitalized + "Factory", factoryPackage);
             fileGenerator.generate(outputPath, content);
-            System.out.println("Created: " + outputPath);
 
             // Auto-generate repository if it doesn't exist
             Path repoPath = packageResolver.resolveOutputPath(mixin.getOutputDir(), capitalized + "Repository", repositoryPackage);
@@ -99,10 +98,11 @@ public class MakeFactoryCommand implements Callable<Integer> {
 
                 String repoContent = stubProcessor.process("data/repository", repoReplacements);
                 fileGenerator.generate(repoPath, repoContent);
-                System.out.println("Created: " + repoPath);
             }
 
-            System.out.println("\nFactory generated successfully!");
+            if (!FileGenerator.isDryRun()) {
+                System.out.println("\nFactory generated successfully!");
+            }
             return 0;
         } catch (ConfigurationException e) {
             System.err.println("Error: " + e.getMessage());
@@ -69,9 +69,10 @@ public class MakeMapperCommand implements Callable<Integer> {
             String content = stubProcessor.process("infrastructure/mapper", replacements);
             Path outputPath = packageResolver.resolveOutputPath(mixin.getOutputDir(), entity + "Mapper", mapperPackage);
             fileGenerator.generate(outputPath, content);
-            System.out.println("Created: " + outputPath);
 
-            System.out.println("\nMapper generated successfully!");
+            if (!FileGenerator.isDryRun()) {
+                System.out.println("\nMapper generated successfully!");
+            }
             return 0;
         } catch (ConfigurationException e) {
             System.err.println("Error: " + e.getMessage());
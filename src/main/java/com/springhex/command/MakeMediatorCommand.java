@@ -2,6 +2,8 @@ package com.springhex.command;
 
 import com.springhex.generator.FileGenerator;
 import com.springhex.generator.StubProcessor;
+import com.springhex.util.BuildToolDetector;
+import com.springhex.util.BuildToolDetector.BuildTool;
 import com.springhex.util.PackageResolver;
 import com.springhex.config.HexPathResolver;
 import com.springhex.config.ConfigResolver;
@@ -9,12 +11,17 @@ import com.springhex.config.ResolvedConfig;
 import com.springhex.config.ConfigurationException;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Option;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Command(
     name = "make:mediator",
@@ -23,12 +30,35 @@ import java.util.concurrent.Callable;
 )
 public class MakeMediatorCommand implements Callable<Integer> {
 
+    private static final String PROCESSOR_MODULE = "mediator-processor";
+    // Artifacts that bring spring-tx onto the classpath
+    private static final String[] TRANSACTION_ARTIFACTS = {"spring-tx", "spring-jdbc", "spring-orm", "spring-data-",
+        "spring-boot-starter-data-", "spring-boot-starter-jdbc", "spring-boot-starter-jooq", "spring-boot-starter-batch",
+        "mybatis-spring"};
+    // The Boot parent, BOM or Gradle plugin version, and a Spring Framework BOM or dependency version
+    private static final Pattern BOOT_VERSION = Pattern.compile(
+        "(?:spring-boot-starter-parent|spring-boot-dependencies)</artifactId>\\s*<version>(\\d+)\\.(\\d+)"
+            + "|org\\.springframework\\.boot['\"]\\)?\\s+version\\s+['\"](\\d+)\\.(\\d+)");
+    private static final Pattern FRAMEWORK_VERSION = Pattern.compile(
+        "(?:spring-framework-bom|spring-context)</artifactId>\\s*<version>(\\d+)\\.(\\d+)"
+            + "|org\\.springframework:spring-(?:framework-bom|context):(\\d+)\\.(\\d+)");
+
     @Mixin
     private GeneratorMixin mixin;
 
+    @Option(names = "--compile-time", description = "Resolve handler types with an annotation processor instead of reflection (for Spring AOT and native images)")
+    private boolean compileTime;
+
+    @Option(names = "--async", description = "Also generate dispatchAsync methods that run on a configurable executor (virtual threads on Java 21+ with Spring Boot 3.2+)")
+    private boolean async;
+
+    @Option(names = "--metrics", description = "Also generate a pipeline behavior that records Micrometer timers, error counters and an in-flight gauge per command and query type")
+    private boolean metrics;
+
     private final StubProcessor stubProcessor;
     private final FileGenerator fileGenerator;
     private final PackageResolver packageResolver;
+    private int generatedCount;
 
     public MakeMediatorCommand() {
         this.stubProcessor = new StubProcessor();
@@ -38,6 +68,11 @@ public class MakeMediatorCommand implements Callable<Integer> {
 
     @Override
     public Integer call() {
+        if (compileTime && mixin.isVerify()) {
+            System.err.println("Error: --verify cannot be combined with --compile-time: the buses use a dispatch table"
+                + " that only exists once your build runs mediator-processor.");
+            return 1;
+        }
         try {
             ResolvedConfig config = ConfigResolver.resolve(mixin.getOutputDir(), mixin.getBasePackage());
             String resolvedPackage = config.getBasePackage();
@@ -52,20 +87,53 @@ public class MakeMediatorCommand implements Callable<Integer> {
             String configPackage = pathResolver.resolveStatic("config");
             String cqrsPackage = pathResolver.resolveStatic("cqrs");
 
+            String busStubs = async ? "mediator/async/" : "mediator/";
+
             // Generate CommandBus interface
-            generateFile("mediator/CommandBus", "CommandBus", mediatorPackage, replacements);
+            generateFile(busStubs + "CommandBus", "CommandBus", mediatorPackage, replacements);
 
             // Generate SimpleCommandBus implementation
-            generateFile("mediator/SimpleCommandBus", "SimpleCommandBus", mediatorPackage, replacements);
+            generateFile(busStubs + "SimpleCommandBus", "SimpleCommandBus", mediatorPackage, replacements);
 
             // Generate QueryBus interface
-            generateFile("mediator/QueryBus", "QueryBus", mediatorPackage, replacements);
+            generateFile(busStubs + "QueryBus", "QueryBus", mediatorPackage, replacements);
 
             // Generate SimpleQueryBus implementation
-            generateFile("mediator/SimpleQueryBus", "SimpleQueryBus", mediatorPackage, replacements);
+            generateFile(busStubs + "SimpleQueryBus", "SimpleQueryBus", mediatorPackage, replacements);
+
+            // Generate PipelineBehavior and the chain builder the buses use
+            generateFile("mediator/PipelineBehavior", "PipelineBehavior", mediatorPackage, replacements);
+            generateFile("mediator/Pipelines", "Pipelines", mediatorPackage, replacements);
+
+            if (metrics) {
+                // Generate the Micrometer behavior
+                generateFile("mediator/MediatorMetricsBehavior", "MediatorMetricsBehavior", mediatorPackage, replacements);
+            }
+
+            // Generate HandlerTypes (resolves the message type of each handler bean)
+            generateFile(compileTime ? "mediator/compile-time/HandlerTypes" : "mediator/HandlerTypes",
+                "HandlerTypes", mediatorPackage, replacements);
 
             // Generate MediatorConfig
-            generateFile("mediator/MediatorConfig", "MediatorConfig", configPackage, replacements);
+            generateFile(compileTime ? "mediator/compile-time/MediatorConfig" : "mediator/MediatorConfig",
+                "MediatorConfig", configPackage, replacements);
+
+            boolean securityContext = false;
+            boolean transactions = false;
+            boolean virtualThreads = false;
+            if (async) {
+                // Generate the executor, its context propagation and the submit, each matched to what the build has
+                String baseDir = mixin.getOutputDir();
+                securityContext = buildFileMentions(baseDir, "spring-security", "spring-boot-starter-security");
+                transactions = buildFileMentions(baseDir, TRANSACTION_ARTIFACTS);
+                virtualThreads = supportsVirtualThreads(baseDir);
+                generateFile(transactions ? "mediator/async/AsyncDispatch" : "mediator/async/without-tx/AsyncDispatch",
+                    "AsyncDispatch", mediatorPackage, replacements);
+                generateFile(securityContext ? "mediator/async/security/MediatorTaskDecorator" : "mediator/async/MediatorTaskDecorator",
+                    "MediatorTaskDecorator", mediatorPackage, replacements);
+                generateFile(virtualThreads ? "mediator/async/MediatorAsyncConfig" : "mediator/async/without-virtual-threads/MediatorAsyncConfig",
+                    "MediatorAsyncConfig", configPackage, replacements);
+            }
 
             // Generate CommandHandler interface in domain.cqrs
             generateFile("domain/command-handler-interface", "CommandHandler", cqrsPackage, replacements);
@@ -80,8 +148,30 @@ public class MakeMediatorCommand implements Callable<Integer> {
             String domainPackage = pathResolver.resolveStatic("domain-root");
             generateFile("domain/aggregate-root", "AggregateRoot", domainPackage, replacements);
 
-            System.out.println("\nMediator infrastructure generated successfully!");
-            System.out.println("Generated 9 files in " + resolvedPackage);
+            BuildTool buildTool = null;
+            if (compileTime) {
+                buildTool = new BuildToolDetector().detect(mixin.getOutputDir());
+                generateProcessorModule(buildTool, mediatorPackage + ".processor", replacements);
+            }
+
+            if (!FileGenerator.isDryRun()) {
+                System.out.println("\nMediator infrastructure generated successfully!");
+                System.out.println("Generated " + generatedCount + " files in " + resolvedPackage);
+            }
+            if (async) {
+                System.out.println("\ndispatchAsync propagates the MDC" + (securityContext ? " and the SecurityContext" : "")
+                    + (transactions ? "; CommandBus.dispatchAfterCommit waits for the sender's transaction to commit." : "."));
+                if (!virtualThreads) {
+                    System.out.println("It runs on a thread pool: virtual threads need Spring Boot 3.2 (Spring Framework 6.1),"
+                        + " which the build file does not declare.");
+                }
+            }
+            if (metrics && !buildFileMentions(mixin.getOutputDir(), "micrometer", "spring-boot-starter-actuator")) {
+                System.out.println("\nMediatorMetricsBehavior needs a MeterRegistry: add spring-boot-starter-actuator to your build.");
+            }
+            if (compileTime) {
+                printProcessorSetup(buildTool, resolvedPackage);
+            }
             return 0;
         } catch (ConfigurationException e) {
             System.err.println("Error: " + e.getMessage());
@@ -93,12 +183,96 @@ public class MakeMediatorCommand implements Callable<Integer> {
     }
 
     private void generateFile(String stubName, String className, String packageName, Map<String, String> replacements) throws IOException {
+        Path outputPath = packageResolver.resolveOutputPath(mixin.getOutputDir(), className, packageName);
+        generateFile(stubName, outputPath, packageName, replacements);
+    }
+
+    private void generateFile(String stubName, Path outputPath, String packageName, Map<String, String> replacements) throws IOException {
         Map<String, String> fileReplacements = new HashMap<>(replacements);
         fileReplacements.put("{{PACKAGE}}", packageName);
 
         String content = stubProcessor.process(stubName, fileReplacements);
-        Path outputPath = packageResolver.resolveOutputPath(mixin.getOutputDir(), className, packageName);
         fileGenerator.generate(outputPath, content);
-        System.out.println("Created: " + outputPath);
+        generatedCount++;
+    }
+
+    /**
+     * Whether the build declares Spring Boot 3.2+ or Spring Framework 6.1+, where
+     * SimpleAsyncTaskExecutor gained setVirtualThreads. An undeclared version counts as older.
+     */
+    private static boolean supportsVirtualThreads(String baseDir) {
+        for (String buildFile : new String[]{"pom.xml", "build.gradle", "build.gradle.kts"}) {
+            try {
+                String content = Files.readString(Paths.get(baseDir, buildFile));
+                int[] boot = version(BOOT_VERSION, content);
+                if (boot != null) {
+                    return boot[0] > 3 || (boot[0] == 3 && boot[1] >= 2);
+                }
+                int[] framework = version(FRAMEWORK_VERSION, content);
+                if (framework != null) {
+                    return framework[0] > 6 || (framework[0] == 6 && framework[1] >= 1);
+                }
+            } catch (IOException ignored) {}
+        }
+        return false;
+    }
+
+    private static int[] version(Pattern pattern, String content) {
+        Matcher m = pattern.matcher(content);
+        if (!m.find()) {
+            return null;
+        }
+        // Maven's alternative fills groups 1-2, Gradle's 3-4
+        int group = m.group(1) != null ? 1 : 3;
+        return new int[]{Integer.parseInt(m.group(group)), Integer.parseInt(m.group(group + 1))};
+    }
+
+    private static boolean buildFileMentions(String baseDir, String... artifacts) {
+        for (String buildFile : new String[]{"pom.xml", "build.gradle", "build.gradle.kts"}) {
+            Path path = Paths.get(baseDir, buildFile);
+            if (Files.exists(path)) {
+                try {
+                    String content = Files.readString(path);
+                    for (String artifact : artifacts) {
+                        if (content.contains(artifact)) {
+                            return true;
+                        }
+                    }
+                } catch (IOException ignored) {}
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes mediator-processor, a standalone module holding the annotation processor that
+     * generates MediatorDispatchTable and MediatorRuntimeHints in this project.
+     */
+    private void generateProcessorModule(BuildTool buildTool, String processorPackage, Map<String, String> replacements) throws IOException {
+        Path moduleDir = Paths.get(mixin.getOutputDir(), PROCESSOR_MODULE);
+        generateFile("mediator/processor/MediatorProcessor",
+            moduleDir.resolve("src/main/java").resolve(processorPackage.replace('.', '/')).resolve("MediatorProcessor.java"),
+            processorPackage, replacements);
+        generateFile("mediator/processor/services",
+            moduleDir.resolve("src/main/resources/META-INF/services/javax.annotation.processing.Processor"),
+            processorPackage, replacements);
+        if (buildTool == BuildTool.GRADLE) {
+            generateFile("mediator/processor/build-gradle", moduleDir.resolve("build.gradle"), processorPackage, replacements);
+        } else {
+            generateFile("mediator/processor/pom", moduleDir.resolve("pom.xml"), processorPackage, replacements);
+        }
+    }
+
+    private static void printProcessorSetup(BuildTool buildTool, String basePackage) {
+        System.out.println("\nTo run the processor in your build:");
+        if (buildTool == BuildTool.GRADLE) {
+            System.out.println("  settings.gradle:  include '" + PROCESSOR_MODULE + "'");
+            System.out.println("  build.gradle:     annotationProcessor project(':" + PROCESSOR_MODULE + "')");
+        } else {
+            System.out.println("  1. Install it:  mvn -f " + PROCESSOR_MODULE + "/pom.xml install");
+            System.out.println("  2. Add it to maven-compiler-plugin <annotationProcessorPaths>, next to Lombok:");
+            System.out.println("     <path><groupId>" + basePackage + "</groupId><artifactId>" + PROCESSOR_MODULE
+                + "</artifactId><version>1.0.0</version></path>");
+        }
     }
 }
@@ -43,6 +43,9 @@ public class MakeMigrationCommand implements Callable<Integer> {
     @Option(names = {"-o", "--output"}, description = "Output directory (defaults to current directory)", defaultValue = ".")
     private String outputDir;
 
+    @Option(names = "--dry-run", description = "Show what would be generated without writing anything")
+    private boolean dryRun;
+
     private final MigrationToolDetector migrationToolDetector;
     private final MigrationFileNameGenerator fileNameGenerator;
     private final StubProcessor stubProcessor;
@@ -104,7 +107,6 @@ public class MakeMigrationCommand implements Callable<Integer> {
 
         String content = stubProcessor.process("migration/flyway-sql", replacements);
         fileGenerator.generate(outputPath, content);
-        System.out.println("Created: " + outputPath);
 
         if (isFirstMigration && migrationToolDetector.shouldWarnFlywayOutOfOrder(outputDir)) {
             System.out.println();
@@ -134,7 +136,6 @@ public class MakeMigrationCommand implements Callable<Integer> {
         String stubName = "migration/liquibase-changeset-" + fmt;
         String content = stubProcessor.process(stubName, replacements);
         fileGenerator.generate(outputPath, content);
-        System.out.println("Created: " + outputPath);
 
         // Ensure master changelog exists and add include
         ensureMasterChangelog(fmt, fileName);
@@ -150,10 +151,9 @@ public class MakeMigrationCommand implements Callable<Integer> {
         Path changelogDir = Paths.get(outputDir, "src/main/resources/db/changelog");
         Path masterPath = changelogDir.resolve(masterFileName);
 
-        if (!Files.exists(masterPath)) {
+        if (!fileGenerator.exists(masterPath)) {
             String masterContent = stubProcessor.process(masterStub, Map.of());
             fileGenerator.generate(masterPath, masterContent);
-            System.out.println("Created: " + masterPath);
         }
 
         String relativePath = "changes/" + changesetFileName;
@@ -163,7 +163,7 @@ public class MakeMigrationCommand implements Callable<Integer> {
         } else {
             changelogUpdater.addIncludeToXmlChangelog(masterPath, relativePath);
         }
-        System.out.println("Updated: " + masterPath + " (added include for " + changesetFileName + ")");
+        FileGenerator.reportUpdated(masterPath + " (added include for " + changesetFileName + ")");
     }
 
     private boolean isDirectoryEmpty(Path dir) throws IOException {
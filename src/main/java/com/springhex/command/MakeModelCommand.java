@@ -82,10 +82,12 @@ public class MakeModelCommand implements Callable<Integer> {
             boolean beanAdded = configAppender.appendBeanIfAbsent(mixin.getOutputDir(), configPackage,
                 "infrastructure/bean-method-model", beanReplacements, imports, beanName);
             if (beanAdded) {
-                System.out.println("Updated: DomainConfig.java with @Bean for " + model);
+                FileGenerator.reportUpdated("DomainConfig.java with @Bean for " + model);
             }
 
-            System.out.println("\nDomain model generated successfully!");
+            if (!FileGenerator.isDryRun()) {
+                System.out.println("\nDomain model generated successfully!");
+            }
             return 0;
         } catch (ConfigurationException e) {
             System.err.println("Error: " + e.getMessage());
@@ -102,6 +104,5 @@ public class MakeModelCommand implements Callable<Integer> {
         String content = stubProcessor.process(stubName, fileReplacements);
         Path outputPath = packageResolver.resolveOutputPath(mixin.getOutputDir(), className, packageName);
         fileGenerator.generate(outputPath, content);
-        System.out.println("Created: " + outputPath);
     }
 }
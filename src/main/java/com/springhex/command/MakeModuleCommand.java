@@ -1,11 +1,13 @@
 package com.springhex.command;
 
 import com.springhex.generator.ConfigAppender;
+import com.springhex.generator.DomainConfigEditor;
 import com.springhex.config.HexPathResolver;
 import com.springhex.config.ConfigResolver;
 import com.springhex.config.ResolvedConfig;
 import com.springhex.config.ConfigurationException;
 import com.springhex.generator.FileGenerator;
+import com.springhex.generator.GeneratedFile;
 import com.springhex.generator.StubProcessor;
 import com.springhex.util.PackageResolver;
 import com.springhex.util.StringUtils;
@@ -15,6 +17,7 @@ import picocli.CommandLine.Parameters;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -56,6 +59,7 @@ public class MakeModuleCommand implements Callable<Integer> {
             String aggregateLower = moduleName.toLowerCase();
             String aggregatePlural = StringUtils.pluralize(aggregateLower);
             int fileCount = 0;
+            List<GeneratedFile> files = new ArrayList<>();
 
             Map<String, String> replacements = new HashMap<>();
             replacements.put("{{BASE_PACKAGE}}", resolvedPackage);
@@ -68,13 +72,13 @@ public class MakeModuleCommand implements Callable<Integer> {
 
             // 1. Aggregate root
             String modelPackage = pathResolver.resolve("model", aggregateLower);
-            generateFile("domain/aggregate", aggregateCapitalized, modelPackage, replacements);
+            addFile(files, "domain/aggregate", aggregateCapitalized, modelPackage, replacements);
             fileCount++;
 
             // 2. Aggregate ID value object
             Map<String, String> idReplacements = new HashMap<>(replacements);
             idReplacements.put("{{VALUE_OBJECT_NAME}}", aggregateCapitalized + "Id");
-            generateFile("domain/value-object-id", aggregateCapitalized + "Id", modelPackage, idReplacements);
+            addFile(files, "domain/value-object-id", aggregateCapitalized + "Id", modelPackage, idReplacements);
             fileCount++;
 
             // 3. Create command
@@ -82,12 +86,12 @@ public class MakeModuleCommand implements Callable<Integer> {
             String createCommandName = "Create" + aggregateCapitalized + "Command";
             Map<String, String> cmdReplacements = new HashMap<>(replacements);
             cmdReplacements.put("{{COMMAND_NAME}}", createCommandName);
-            generateFile("domain/command", createCommandName, commandPackage, cmdReplacements);
+            addFile(files, "domain/command", createCommandName, commandPackage, cmdReplacements);
             fileCount++;
 
             // 4. Create command handler
             String createHandlerName = createCommandName + "Handler";
-            generateFile("domain/command-handler", createHandlerName, commandPackage, cmdReplacements);
+            addFile(files, "domain/command-handler", createHandlerName, commandPackage, cmdReplacements);
             fileCount++;
 
             // 5. Get query
@@ -96,61 +100,64 @@ public class MakeModuleCommand implements Callable<Integer> {
             Map<String, String> queryReplacements = new HashMap<>(replacements);
             queryReplacements.put("{{QUERY_NAME}}", getQueryName);
             queryReplacements.put("{{RETURN_TYPE}}", "Object");
-            generateFile("domain/query", getQueryName, queryPackage, queryReplacements);
+            addFile(files, "domain/query", getQueryName, queryPackage, queryReplacements);
             fileCount++;
 
             // 6. Get query handler
             String getHandlerName = getQueryName + "Handler";
-            generateFile("domain/query-handler", getHandlerName, queryPackage, queryReplacements);
+            addFile(files, "domain/query-handler", getHandlerName, queryPackage, queryReplacements);
             fileCount++;
 
             // 7. Repository port
             String portPackage = pathResolver.resolve("port-out", aggregateLower);
-            generateFile("domain/repository-port", aggregateCapitalized + "Repository", portPackage, replacements);
+            addFile(files, "domain/repository-port", aggregateCapitalized + "Repository", portPackage, replacements);
             fileCount++;
 
             // 8. Input port (use case)
             String inputPortPackage = pathResolver.resolve("port-in", aggregateLower);
             Map<String, String> inputPortReplacements = new HashMap<>(replacements);
             inputPortReplacements.put("{{PORT_NAME}}", aggregateCapitalized + "UseCase");
-            generateFile("domain/input-port", aggregateCapitalized + "UseCase", inputPortPackage, inputPortReplacements);
+            addFile(files, "domain/input-port", aggregateCapitalized + "UseCase", inputPortPackage, inputPortReplacements);
             fileCount++;
 
             // 9. Request DTO
             String dtoPackage = pathResolver.resolve("dto", aggregateLower);
             Map<String, String> requestReplacements = new HashMap<>(replacements);
             requestReplacements.put("{{REQUEST_NAME}}", "Create" + aggregateCapitalized + "Request");
-            generateFile("domain/request", "Create" + aggregateCapitalized + "Request", dtoPackage, requestReplacements);
+            addFile(files, "domain/request", "Create" + aggregateCapitalized + "Request", dtoPackage, requestReplacements);
             fileCount++;
 
             // 10. Response DTO
             Map<String, String> responseReplacements = new HashMap<>(replacements);
             responseReplacements.put("{{RESPONSE_NAME}}", aggregateCapitalized + "Response");
-            generateFile("domain/response", aggregateCapitalized + "Response", dtoPackage, responseReplacements);
+            addFile(files, "domain/response", aggregateCapitalized + "Response", dtoPackage, responseReplacements);
             fileCount++;
 
             // 11. JPA Entity
             String persistencePackage = pathResolver.resolve("persistence", aggregateLower);
-            generateFile("infrastructure/jpa-entity", aggregateCapitalized + "JpaEntity", persistencePackage, replacements);
+            addFile(files, "infrastructure/jpa-entity", aggregateCapitalized + "JpaEntity", persistencePackage, replacements);
             fileCount++;
 
             // 12. Spring Data Repository
-            generateFile("infrastructure/spring-data-repository", aggregateCapitalized + "JpaRepository", persistencePackage, replacements);
+            addFile(files, "infrastructure/spring-data-repository", aggregateCapitalized + "JpaRepository", persistencePackage, replacements);
             fileCount++;
 
             // 13. Repository Adapter
-            generateFile("infrastructure/repository-adapter", aggregateCapitalized + "RepositoryAdapter", persistencePackage, replacements);
+            addFile(files, "infrastructure/repository-adapter", aggregateCapitalized + "RepositoryAdapter", persistencePackage, replacements);
             fileCount++;
 
             // 14. Mapper
-            generateFile("infrastructure/mapper", aggregateCapitalized + "Mapper", persistencePackage, replacements);
+            addFile(files, "infrastructure/mapper", aggregateCapitalized + "Mapper", persistencePackage, replacements);
             fileCount++;
 
             // 15. Controller
             String controllerPackage = pathResolver.resolve("controller", aggregateLower);
-            generateFile("infrastructure/controller", aggregateCapitalized + "Controller", controllerPackage, replacements);
+            addFile(files, "infrastructure/controller", aggregateCapitalized + "Controller", controllerPackage, replacements);
             fileCount++;
 
+            // Write all module files together; a collision aborts before anything is written
+            fileGenerator.generateAll(files);
+
             // Ensure DomainConfig exists and append @Bean methods for handlers
             String configPackage = pathResolver.resolveStatic("config");
             configAppender.ensureConfigExists(mixin.getOutputDir(), configPackage);
@@ -168,9 +175,8 @@ public class MakeModuleCommand implements Callable<Integer> {
                 "org.springframework.context.annotation.Bean"
             );
 
-            configAppender.appendBean(mixin.getOutputDir(), configPackage,
-                    "infrastructure/bean-method-handler", createBeanReplacements, createImports);
-            System.out.println("Updated: DomainConfig.java with @Bean for " + createHandlerName);
+            DomainConfigEditor domainConfig = configAppender.open(mixin.getOutputDir(), configPackage);
+            boolean createBeanAdded = configAppender.appendBean(domainConfig, "infrastructure/bean-method-handler", createBeanReplacements, createImports);
 
             // Bean for Get query handler
             String getHandlerBean = Character.toLowerCase(getHandlerName.charAt(0)) + getHandlerName.substring(1);
@@ -183,12 +189,21 @@ public class MakeModuleCommand implements Callable<Integer> {
                 pathResolver.resolve("query", aggregateLower) + "." + getHandlerName
             );
 
-            configAppender.appendBean(mixin.getOutputDir(), configPackage,
-                    "infrastructure/bean-method-handler", getBeanReplacements, getImports);
-            System.out.println("Updated: DomainConfig.java with @Bean for " + getHandlerName);
-
-            System.out.println("\nModule generated successfully!");
-            System.out.println("Generated " + fileCount + " files + DomainConfig update for " + aggregateCapitalized);
+            boolean getBeanAdded = configAppender.appendBean(domainConfig, "infrastructure/bean-method-handler", getBeanReplacements, getImports);
+
+            // Both beans and their imports go in with a single rewrite of DomainConfig
+            configAppender.save(domainConfig);
+            if (createBeanAdded) {
+                FileGenerator.reportUpdated("DomainConfig.java with @Bean for " + createHandlerName);
+            }
+            if (getBeanAdded) {
+                FileGenerator.reportUpdated("DomainConfig.java with @Bean for " + getHandlerName);
+            }
+
+            if (!FileGenerator.isDryRun()) {
+                System.out.println("\nModule generated successfully!");
+                System.out.println("Generated " + fileCount + " files + DomainConfig update for " + aggregateCapitalized);
+            }
             return 0;
         } catch (ConfigurationException e) {
             System.err.println("Error: " + e.getMessage());
@@ -199,13 +214,13 @@ public class MakeModuleCommand implements Callable<Integer> {
         }
     }
 
-    private void generateFile(String stubName, String className, String packageName, Map<String, String> replacements) throws IOException {
+    private void addFile(List<GeneratedFile> files, String stubName, String className, String packageName,
+                         Map<String, String> replacements) throws IOException {
         Map<String, String> fileReplacements = new HashMap<>(replacements);
         fileReplacements.put("{{PACKAGE}}", packageName);
 
         String content = stubProcessor.process(stubName, fileReplacements);
         Path outputPath = packageResolver.resolveOutputPath(mixin.getOutputDir(), className, packageName);
-        fileGenerator.generate(outputPath, content);
-        System.out.println("Created: " + outputPath);
+        files.add(new GeneratedFile(outputPath, content));
     }
 }
@@ -79,10 +79,11 @@ public class MakePortCommand implements Callable<Integer> {
             String content = stubProcessor.process(stubName, replacements);
             Path outputPath = packageResolver.resolveOutputPath(mixin.getOutputDir(), className, portPackage);
             fileGenerator.generate(outputPath, content);
-            System.out.println("Created: " + outputPath);
 
             String portType = inputPort ? "input" : "output";
-            System.out.println("\n" + StringUtils.capitalize(portType) + " port generated successfully!");
+            if (!FileGenerator.isDryRun()) {
+                System.out.println("\n" + StringUtils.capitalize(portType) + " port generated successfully!");
+            }
             return 0;
         } catch (ConfigurationException e) {
             System.err.println("Error: " + e.getMessage());
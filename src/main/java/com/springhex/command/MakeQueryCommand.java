@@ -81,7 +81,6 @@ public class MakeQueryCommand implements Callable<Integer> {
             String queryContent = stubProcessor.process("domain/query", replacements);
             Path queryPath = packageResolver.resolveOutputPath(mixin.getOutputDir(), className, queryPackage);
             fileGenerator.generate(queryPath, queryContent);
-            System.out.println("Created: " + queryPath);
 
             // Generate QueryHandler class if requested
             if (!noHandler) {
@@ -89,7 +88,6 @@ public class MakeQueryCommand implements Callable<Integer> {
                 String handlerContent = stubProcessor.process("domain/query-handler", replacements);
                 Path handlerPath = packageResolver.resolveOutputPath(mixin.getOutputDir(), handlerClassName, queryPackage);
                 fileGenerator.generate(handlerPath, handlerContent);
-                System.out.println("Created: " + handlerPath);
 
                 // Ensure DomainConfig exists and append @Bean method
                 String configPackage = pathResolver.resolveStatic("config");
@@ -107,12 +105,16 @@ public class MakeQueryCommand implements Callable<Integer> {
                     "org.springframework.context.annotation.Bean"
                 );
 
-                configAppender.appendBean(mixin.getOutputDir(), configPackage,
+                boolean beanAdded = configAppender.appendBean(mixin.getOutputDir(), configPackage,
                         "infrastructure/bean-method-handler", beanReplacements, imports);
-                System.out.println("Updated: DomainConfig.java with @Bean for " + handlerClassName);
+                if (beanAdded) {
+                    FileGenerator.reportUpdated("DomainConfig.java with @Bean for " + handlerClassName);
+                }
             }
 
-            System.out.println("\nQuery generated successfully!");
+            if (!FileGenerator.isDryRun()) {
+                System.out.println("\nQuery generated successfully!");
+            }
             return 0;
         } catch (ConfigurationException e) {
             System.err.println("Error: " + e.getMessage());
@@ -95,7 +95,9 @@ public class MakeRepositoryCommand implements Callable<Integer> {
                 }
             }
 
-            System.out.println("\nRepository layer generated successfully! (store: " + storeLower + ")");
+            if (!FileGenerator.isDryRun()) {
+                System.out.println("\nRepository layer generated successfully! (store: " + storeLower + ")");
+            }
             return 0;
         } catch (ConfigurationException e) {
             System.err.println("Error: " + e.getMessage());
@@ -112,6 +114,5 @@ public class MakeRepositoryCommand implements Callable<Integer> {
         String content = stubProcessor.process(stubName, fileReplacements);
         Path outputPath = packageResolver.resolveOutputPath(mixin.getOutputDir(), className, packageName);
         fileGenerator.generate(outputPath, content);
-        System.out.println("Created: " + outputPath);
     }
 }
@@ -67,9 +67,10 @@ public class MakeRequestCommand implements Callable<Integer> {
             String content = stubProcessor.process("domain/request", replacements);
             Path outputPath = packageResolver.resolveOutputPath(mixin.getOutputDir(), className, requestPackage);
             fileGenerator.generate(outputPath, content);
-            System.out.println("Created: " + outputPath);
 
-            System.out.println("\nRequest DTO generated successfully!");
+            if (!FileGenerator.isDryRun()) {
+                System.out.println("\nRequest DTO generated successfully!");
+            }
             return 0;
         } catch (ConfigurationException e) {
             System.err.println("Error: " + e.getMessage());
@@ -67,9 +67,10 @@ public class MakeResponseCommand implements Callable<Integer> {
             String content = stubProcessor.process("domain/response", replacements);
             Path outputPath = packageResolver.resolveOutputPath(mixin.getOutputDir(), className, responsePackage);
             fileGenerator.generate(outputPath, content);
-            System.out.println("Created: " + outputPath);
 
-            System.out.println("\nResponse DTO generated successfully!");
+            if (!FileGenerator.isDryRun()) {
+                System.out.println("\nResponse DTO generated successfully!");
+            }
             return 0;
         } catch (ConfigurationException e) {
             System.err.println("Error: " + e.getMessage());
@@ -78,7 +78,6 @@ public class MakeSeederCommand implements Callable<Integer> {
             String content = stubProcessor.process("data/seeder", replacements);
             Path outputPath = packageResolver.resolveOutputPath(mixin.getOutputDir(), className, seederPackage);
             fileGenerator.generate(outputPath, content);
-            System.out.println("Created: " + outputPath);
 
             // Auto-generate Seeder interface if it doesn't exist
             Path seederInterfacePath = packageResolver.resolveOutputPath(mixin.getOutputDir(), "Seeder", seederPackage);
@@ -88,7 +87,6 @@ public class MakeSeederCommand implements Callable<Integer> {
 
                 String interfaceContent = stubProcessor.process("data/seeder-interface", interfaceReplacements);
                 fileGenerator.generate(seederInterfacePath, interfaceContent);
-                System.out.println("Created: " + seederInterfacePath);
             }
 
             // Auto-generate SeedRunner if it doesn't exist
@@ -99,10 +97,11 @@ public class MakeSeederCommand implements Callable<Integer> {
 
                 String runnerContent = stubProcessor.process("data/seed-runner", runnerReplacements);
                 fileGenerator.generate(seedRunnerPath, runnerContent);
-                System.out.println("Created: " + seedRunnerPath);
             }
 
-            System.out.println("\nSeeder generated successfully!");
+            if (!FileGenerator.isDryRun()) {
+                System.out.println("\nSeeder generated successfully!");
+            }
             return 0;
         } catch (ConfigurationException e) {
             System.err.println("Error: " + e.getMessage());
@@ -61,10 +61,11 @@ public class MakeTestCommand implements Callable<Integer> {
             String content = stubProcessor.process(stubName, replacements);
             Path outputPath = packageResolver.resolveTestOutputPath(mixin.getOutputDir(), testName, testPackage);
             fileGenerator.generate(outputPath, content);
-            System.out.println("Created: " + outputPath);
 
             String testType = unit ? "Unit" : "Feature";
-            System.out.println("\n" + testType + " test generated successfully!");
+            if (!FileGenerator.isDryRun()) {
+                System.out.println("\n" + testType + " test generated successfully!");
+            }
             return 0;
         } catch (ConfigurationException e) {
             System.err.println("Error: " + e.getMessage());
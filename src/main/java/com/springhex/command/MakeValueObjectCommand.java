@@ -70,9 +70,10 @@ public class MakeValueObjectCommand implements Callable<Integer> {
             String content = stubProcessor.process(stubName, replacements);
             Path outputPath = packageResolver.resolveOutputPath(mixin.getOutputDir(), className, modelPackage);
             fileGenerator.generate(outputPath, content);
-            System.out.println("Created: " + outputPath);
 
-            System.out.println("\nValue object generated successfully!");
+            if (!FileGenerator.isDryRun()) {
+                System.out.println("\nValue object generated successfully!");
+            }
             return 0;
         } catch (ConfigurationException e) {
             System.err.println("Error: " + e.getMessage());
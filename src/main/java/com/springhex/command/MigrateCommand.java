@@ -2,12 +2,15 @@ package com.springhex.command;
 
 import com.springhex.util.BuildToolDetector;
 import com.springhex.util.BuildToolDetector.BuildTool;
+import com.springhex.util.MigrationLock;
 import com.springhex.util.MigrationToolDetector;
 import com.springhex.util.MigrationToolDetector.MigrationTool;
+import com.springhex.migration.DataSourceSettings;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
@@ -19,6 +22,9 @@ import java.util.concurrent.Callable;
 )
 public class MigrateCommand implements Callable<Integer> {
 
+    @Option(names = "--build-tool", description = "Run the migrations through Maven or Gradle instead of in-process")
+    private boolean viaBuildTool;
+
     private final BuildToolDetector buildToolDetector;
     private final MigrationToolDetector migrationToolDetector;
 
@@ -31,30 +37,38 @@ public class MigrateCommand implements Callable<Integer> {
     public Integer call() {
         String baseDir = System.getProperty("user.dir");
 
-        BuildTool buildTool = buildToolDetector.detect(baseDir);
-        if (buildTool == null) {
-            System.err.println("Error: No build tool detected. Ensure you are in a Maven or Gradle project directory.");
-            return 1;
-        }
-
         MigrationTool migrationTool = migrationToolDetector.detect(baseDir);
         if (migrationTool == null) {
             System.err.println("Error: No migration tool detected. Ensure Flyway or Liquibase is configured.");
             return 1;
         }
 
+        if (migrationTool == MigrationTool.FLYWAY && !viaBuildTool) {
+            DataSourceSettings settings = InProcessMigration.settings(Paths.get(baseDir));
+            if (settings != null) {
+                return InProcessMigration.run(Paths.get(baseDir), settings, false);
+            }
+        }
+
+        BuildTool buildTool = buildToolDetector.detect(baseDir);
+        if (buildTool == null) {
+            System.err.println("Error: No build tool detected. Ensure you are in a Maven or Gradle project directory.");
+            return 1;
+        }
+
         String executable = buildToolDetector.resolveExecutable(baseDir, buildTool);
-        List<String> command = buildCommand(executable, buildTool, migrationTool);
+        List<String> command = buildToolDetector.prepare(baseDir, buildTool, buildCommand(executable, buildTool, migrationTool));
 
         System.out.println("Detected: " + buildTool + " + " + migrationTool);
         System.out.println("Running: " + String.join(" ", command));
 
         try {
-            ProcessBuilder pb = new ProcessBuilder(command);
-            pb.directory(new File(baseDir));
-            pb.inheritIO();
-            Process process = pb.start();
-            return process.waitFor();
+            int exitCode = buildToolDetector.execute(baseDir, buildTool, command);
+            if (exitCode == 0) {
+                // What was just applied must not change any more; keep the lock in step
+                MigrationLock.refreshIfPresent(Paths.get(baseDir));
+            }
+            return exitCode;
         } catch (IOException e) {
             System.err.println("Error executing migration: " + e.getMessage());
             return 1;
@@ -4,12 +4,13 @@ import com.springhex.util.BuildToolDetector;
 import com.springhex.util.BuildToolDetector.BuildTool;
 import com.springhex.util.MigrationToolDetector;
 import com.springhex.util.MigrationToolDetector.MigrationTool;
+import com.springhex.migration.DataSourceSettings;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 
-import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.concurrent.Callable;
 
@@ -23,6 +24,9 @@ public class MigrateFreshCommand implements Callable<Integer> {
     @Option(names = "--force", required = true, description = "Required flag to confirm destructive operation")
     private boolean force;
 
+    @Option(names = "--build-tool", description = "Clean and migrate through Maven or Gradle instead of in-process")
+    private boolean viaBuildTool;
+
     private final BuildToolDetector buildToolDetector;
     private final MigrationToolDetector migrationToolDetector;
 
@@ -35,37 +39,44 @@ public class MigrateFreshCommand implements Callable<Integer> {
     public Integer call() {
         String baseDir = System.getProperty("user.dir");
 
-        BuildTool buildTool = buildToolDetector.detect(baseDir);
-        if (buildTool == null) {
-            System.err.println("Error: No build tool detected. Ensure you are in a Maven or Gradle project directory.");
-            return 1;
-        }
-
         MigrationTool migrationTool = migrationToolDetector.detect(baseDir);
         if (migrationTool == null) {
             System.err.println("Error: No migration tool detected. Ensure Flyway or Liquibase is configured.");
             return 1;
         }
 
+        if (migrationTool == MigrationTool.FLYWAY && !viaBuildTool) {
+            DataSourceSettings settings = InProcessMigration.settings(Paths.get(baseDir));
+            if (settings != null) {
+                return InProcessMigration.run(Paths.get(baseDir), settings, true);
+            }
+        }
+
+        BuildTool buildTool = buildToolDetector.detect(baseDir);
+        if (buildTool == null) {
+            System.err.println("Error: No build tool detected. Ensure you are in a Maven or Gradle project directory.");
+            return 1;
+        }
+
         String executable = buildToolDetector.resolveExecutable(baseDir, buildTool);
 
         System.out.println("Detected: " + buildTool + " + " + migrationTool);
 
         // Step 1: Clean/Drop all
-        List<String> cleanCommand = buildCleanCommand(executable, buildTool, migrationTool);
+        List<String> cleanCommand = buildToolDetector.prepare(baseDir, buildTool, buildCleanCommand(executable, buildTool, migrationTool));
         System.out.println("Step 1 - Cleaning: " + String.join(" ", cleanCommand));
 
-        int cleanResult = executeCommand(cleanCommand, baseDir);
+        int cleanResult = executeCommand(cleanCommand, baseDir, buildTool);
         if (cleanResult != 0) {
             System.err.println("Error: Clean step failed with exit code " + cleanResult + ". Aborting.");
             return cleanResult;
         }
 
         // Step 2: Migrate
-        List<String> migrateCommand = buildMigrateCommand(executable, buildTool, migrationTool);
+        List<String> migrateCommand = buildToolDetector.prepare(baseDir, buildTool, buildMigrateCommand(executable, buildTool, migrationTool));
         System.out.println("Step 2 - Migrating: " + String.join(" ", migrateCommand));
 
-        int migrateResult = executeCommand(migrateCommand, baseDir);
+        int migrateResult = executeCommand(migrateCommand, baseDir, buildTool);
         if (migrateResult != 0) {
             System.err.println("Error: Migrate step failed with exit code " + migrateResult);
             return migrateResult;
@@ -75,13 +86,9 @@ public class MigrateFreshCommand implements Callable<Integer> {
         return 0;
     }
 
-    private int executeCommand(List<String> command, String baseDir) {
+    private int executeCommand(List<String> command, String baseDir, BuildTool buildTool) {
         try {
-            ProcessBuilder pb = new ProcessBuilder(command);
-            pb.directory(new File(baseDir));
-            pb.inheritIO();
-            Process process = pb.start();
-            return process.waitFor();
+            return buildToolDetector.execute(baseDir, buildTool, command);
         } catch (IOException e) {
             System.err.println("Error executing command: " + e.getMessage());
             return 1;
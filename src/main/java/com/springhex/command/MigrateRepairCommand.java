@@ -6,7 +6,6 @@ import com.springhex.util.MigrationToolDetector;
 import com.springhex.util.MigrationToolDetector.MigrationTool;
 import picocli.CommandLine.Command;
 
-import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -44,17 +43,13 @@ public class MigrateRepairCommand implements Callable<Integer> {
         }
 
         String executable = buildToolDetector.resolveExecutable(baseDir, buildTool);
-        List<String> command = buildCommand(executable, buildTool, migrationTool);
+        List<String> command = buildToolDetector.prepare(baseDir, buildTool, buildCommand(executable, buildTool, migrationTool));
 
         System.out.println("Detected: " + buildTool + " + " + migrationTool);
         System.out.println("Running: " + String.join(" ", command));
 
         try {
-            ProcessBuilder pb = new ProcessBuilder(command);
-            pb.directory(new File(baseDir));
-            pb.inheritIO();
-            Process process = pb.start();
-            return process.waitFor();
+            return buildToolDetector.execute(baseDir, buildTool, command);
         } catch (IOException e) {
             System.err.println("Error repairing migrations: " + e.getMessage());
             return 1;
@@ -10,7 +10,6 @@ import com.springhex.util.MigrationToolDetector.MigrationTool;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -87,7 +86,6 @@ public class MigrateRollbackCommand implements Callable<Integer> {
             String content = stubProcessor.process("migration/flyway-revert-sql", replacements);
             fileGenerator.generate(revertPath, content);
 
-            System.out.println("Created: " + revertPath);
             System.out.println();
             System.out.println("Flyway Community Edition doesn't support undo migrations.");
             System.out.println("A revert migration has been created. Edit it with the appropriate rollback SQL,");
@@ -108,17 +106,13 @@ public class MigrateRollbackCommand implements Callable<Integer> {
         }
 
         String executable = buildToolDetector.resolveExecutable(baseDir, buildTool);
-        List<String> command = buildLiquibaseRollbackCommand(executable, buildTool);
+        List<String> command = buildToolDetector.prepare(baseDir, buildTool, buildLiquibaseRollbackCommand(executable, buildTool));
 
         System.out.println("Detected: " + buildTool + " + LIQUIBASE");
         System.out.println("Running: " + String.join(" ", command));
 
         try {
-            ProcessBuilder pb = new ProcessBuilder(command);
-            pb.directory(new File(baseDir));
-            pb.inheritIO();
-            Process process = pb.start();
-            return process.waitFor();
+            return buildToolDetector.execute(baseDir, buildTool, command);
         } catch (IOException e) {
             System.err.println("Error executing rollback: " + e.getMessage());
             return 1;
@@ -2,12 +2,15 @@ package com.springhex.command;
 
 import com.springhex.util.BuildToolDetector;
 import com.springhex.util.BuildToolDetector.BuildTool;
+import com.springhex.util.MigrationLock;
 import com.springhex.util.MigrationToolDetector;
 import com.springhex.util.MigrationToolDetector.MigrationTool;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
@@ -19,6 +22,12 @@ import java.util.concurrent.Callable;
 )
 public class MigrateValidateCommand implements Callable<Integer> {
 
+    @Option(names = "--offline", description = "Check migration files against " + MigrationLock.LOCK_FILE + " without a database or build")
+    private boolean offline;
+
+    @Option(names = "--lock", description = "With --offline, pin the current migrations in the lockfile after checking them")
+    private boolean lock;
+
     private final BuildToolDetector buildToolDetector;
     private final MigrationToolDetector migrationToolDetector;
 
@@ -31,6 +40,14 @@ public class MigrateValidateCommand implements Callable<Integer> {
     public Integer call() {
         String baseDir = System.getProperty("user.dir");
 
+        if (offline) {
+            return validateOffline(baseDir);
+        }
+        if (lock) {
+            System.err.println("Error: --lock requires --offline.");
+            return 1;
+        }
+
         BuildTool buildTool = buildToolDetector.detect(baseDir);
         if (buildTool == null) {
             System.err.println("Error: No build tool detected. Ensure you are in a Maven or Gradle project directory.");
@@ -44,17 +61,13 @@ public class MigrateValidateCommand implements Callable<Integer> {
         }
 
         String executable = buildToolDetector.resolveExecutable(baseDir, buildTool);
-        List<String> command = buildCommand(executable, buildTool, migrationTool);
+        List<String> command = buildToolDetector.prepare(baseDir, buildTool, buildCommand(executable, buildTool, migrationTool));
 
         System.out.println("Detected: " + buildTool + " + " + migrationTool);
         System.out.println("Running: " + String.join(" ", command));
 
         try {
-            ProcessBuilder pb = new ProcessBuilder(command);
-            pb.directory(new File(baseDir));
-            pb.inheritIO();
-            Process process = pb.start();
-            return process.waitFor();
+            return buildToolDetector.execute(baseDir, buildTool, command);
         } catch (IOException e) {
             System.err.println("Error validating migrations: " + e.getMessage());
             return 1;
@@ -65,6 +78,58 @@ public class MigrateValidateCommand implements Callable<Integer> {
         }
     }
 
+    private int validateOffline(String baseDir) {
+        long start = System.nanoTime();
+        Path root = Paths.get(baseDir);
+        MigrationLock current;
+        MigrationLock locked;
+        try {
+            current = MigrationLock.scan(root);
+            locked = MigrationLock.load(root);
+        } catch (IOException e) {
+            System.err.println("Error reading migrations: " + e.getMessage());
+            return 1;
+        }
+        if (current.getChecksums().isEmpty()) {
+            System.err.println("Error: No migrations found under src/main/resources/db.");
+            return 1;
+        }
+
+        boolean outOfOrder = !migrationToolDetector.shouldWarnFlywayOutOfOrder(baseDir);
+        List<String> problems = current.validate(locked, outOfOrder);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("Checked " + current.getChecksums().size() + " migration file(s) in " + elapsedMillis + " ms");
+        if (locked == null) {
+            System.out.println("No " + MigrationLock.LOCK_FILE + " yet; only duplicate versions were checked.");
+        } else {
+            for (String pending : current.getPending(locked)) {
+                System.out.println("  New: " + pending);
+            }
+        }
+
+        if (!problems.isEmpty()) {
+            System.err.println("Error: " + problems.size() + " migration problem(s):");
+            for (String problem : problems) {
+                System.err.println("  " + problem);
+            }
+            return 1;
+        }
+
+        if (lock) {
+            try {
+                current.save(root);
+            } catch (IOException e) {
+                System.err.println("Error writing " + MigrationLock.LOCK_FILE + ": " + e.getMessage());
+                return 1;
+            }
+            System.out.println("Locked " + current.getChecksums().size() + " migration file(s) in " + MigrationLock.LOCK_FILE);
+        } else if (locked == null) {
+            System.out.println("Run 'spring-hex migrate:validate --offline --lock' to create it.");
+        }
+        return 0;
+    }
+
     private List<String> buildCommand(String executable, BuildTool buildTool, MigrationTool migrationTool) {
         List<String> command = new ArrayList<>();
         command.add(executable);
@@ -0,0 +1,185 @@
+package com.springhex.command;
+
+import com.springhex.generator.CompileVerifier;
+import com.springhex.generator.FileGenerator;
+import com.springhex.generator.GenerationManifest;
+import com.springhex.generator.GenerationPlan;
+import com.springhex.generator.RegenerationMode;
+import com.springhex.util.ProjectClasspath;
+import picocli.CommandLine.IExecutionStrategy;
+import picocli.CommandLine.Model.OptionSpec;
+import picocli.CommandLine.ParseResult;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs commands that accept {@code --dry-run} inside a {@link GenerationPlan}.
+ *
+ * The command records its creates and edits in the plan; only when it exits with 0
+ * is the plan committed, so a command that fails halfway leaves the project untouched.
+ * With {@code --dry-run} the plan is discarded after a short summary. Commands without
+ * the option (migrate, run:test, ...) run unchanged.
+ *
+ * {@code --sync} and {@code --force} switch the plan into regeneration against
+ * {@code .hex/manifest}, and every committed plan records the hashes of what it
+ * generated there for the next regeneration.
+ *
+ * {@code --verify} compiles what was written with {@link CompileVerifier} once it is on disk.
+ */
+public class PlannedExecutionStrategy implements IExecutionStrategy {
+
+    private final IExecutionStrategy delegate;
+
+    public PlannedExecutionStrategy(IExecutionStrategy delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public int execute(ParseResult parseResult) {
+        ParseResult leaf = parseResult;
+        while (leaf.hasSubcommand()) {
+            leaf = leaf.subcommand();
+        }
+
+        OptionSpec dryRunOption = leaf.commandSpec().findOption("--dry-run");
+        if (dryRunOption == null || leaf.isUsageHelpRequested() || leaf.isVersionHelpRequested()) {
+            return delegate.execute(parseResult);
+        }
+        boolean dryRun = Boolean.TRUE.equals(dryRunOption.getValue());
+        OptionSpec verifyOption = leaf.commandSpec().findOption("--verify");
+        boolean verify = verifyOption != null && Boolean.TRUE.equals(verifyOption.getValue());
+        OptionSpec outputOption = leaf.commandSpec().findOption("--output");
+        Path projectRoot = Path.of(outputOption != null ? (String) outputOption.getValue() : ".");
+
+        try (GenerationPlan plan = FileGenerator.plan()) {
+            plan.setDryRun(dryRun);
+            RegenerationMode mode = regenerationMode(leaf);
+            if (mode != RegenerationMode.OFF) {
+                try {
+                    plan.regenerate(mode, GenerationManifest.load(projectRoot));
+                } catch (IOException e) {
+                    System.err.println("Error reading " + GenerationManifest.MANIFEST_FILE + ": " + e.getMessage());
+                    return 1;
+                }
+            }
+
+            int exitCode = delegate.execute(parseResult);
+            if (exitCode != 0) {
+                if (!plan.isEmpty() && !plan.isCommitted()) {
+                    System.err.println("No files were written.");
+                }
+                return exitCode;
+            }
+
+            // make:batch entries may regenerate on their own flags, so check the plan too
+            if (mode != RegenerationMode.OFF || !plan.getUnchanged().isEmpty() || !plan.getSkipped().isEmpty()) {
+                printRegenerationSummary(plan, projectRoot);
+            }
+
+            if (dryRun) {
+                System.out.println();
+                System.out.println("Dry run: " + plan.getCreated().size() + " file(s) would be created and "
+                        + plan.getUpdated().size() + " updated. Nothing was written.");
+                if (verify) {
+                    System.out.println("--verify compiles files on disk, so it was skipped.");
+                }
+                return 0;
+            }
+
+            // Commands such as make:batch may already have committed to report on the result
+            if (!plan.isCommitted()) {
+                plan.commit();
+            }
+
+            // The files are in place from here on; a bookkeeping failure must not report a rollback
+            if (outputOption != null && !plan.getGeneratedHashes().isEmpty()) {
+                try {
+                    GenerationManifest.record(projectRoot, plan.getGeneratedHashes());
+                } catch (IOException e) {
+                    System.err.println("Warning: the files were written, but " + GenerationManifest.MANIFEST_FILE
+                            + " could not be updated: " + e.getMessage());
+                }
+            }
+            return verify ? verify(plan, projectRoot, leaf.commandSpec().name()) : 0;
+        } catch (IOException e) {
+            System.err.println("Error writing generated files: " + e.getMessage());
+            System.err.println("All changes were rolled back.");
+            return 1;
+        }
+    }
+
+    private static int verify(GenerationPlan plan, Path projectRoot, String commandName) {
+        Map<String, List<Path>> groups = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Path>> group : plan.getFilesByGroup().entrySet()) {
+            String label = group.getKey() != null ? group.getKey() : commandName;
+            groups.computeIfAbsent(label, g -> new ArrayList<>()).addAll(group.getValue());
+        }
+
+        CompileVerifier verifier;
+        try {
+            verifier = CompileVerifier.create(projectRoot, ProjectClasspath.resolve(projectRoot));
+        } catch (IOException e) {
+            System.err.println("Error: could not resolve the project classpath for --verify: " + e.getMessage());
+            return 1;
+        }
+        if (verifier == null) {
+            System.err.println("Error: --verify needs a JDK; this runtime has no Java compiler.");
+            return 1;
+        }
+
+        List<CompileVerifier.Result> results;
+        try {
+            results = verifier.verify(groups);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Error: verification was interrupted.");
+            return 1;
+        }
+
+        int errors = 0;
+        System.out.println();
+        for (CompileVerifier.Result result : results) {
+            errors += result.getErrors().size();
+            String status = result.getErrors().isEmpty() ? "OK" : result.getErrors().size() + " error(s)";
+            System.out.println("Verified " + result.getGroup() + ": " + result.getFileCount() + " file(s), "
+                    + status + " in " + result.getElapsedMillis() + " ms");
+            for (String error : result.getErrors()) {
+                System.err.println("  " + error);
+            }
+        }
+        if (errors > 0) {
+            System.err.println("Error: generated code does not compile (" + errors + " error(s)). The files were kept.");
+            return 1;
+        }
+        return 0;
+    }
+
+    private static RegenerationMode regenerationMode(ParseResult leaf) {
+        // Only generator commands have --sync; init's --force means something else
+        OptionSpec sync = leaf.commandSpec().findOption("--sync");
+        if (sync == null) {
+            return RegenerationMode.OFF;
+        }
+        OptionSpec force = leaf.commandSpec().findOption("--force");
+        if (force != null && Boolean.TRUE.equals(force.getValue())) {
+            return RegenerationMode.FORCE;
+        }
+        return Boolean.TRUE.equals(sync.getValue()) ? RegenerationMode.SYNC : RegenerationMode.OFF;
+    }
+
+    private static void printRegenerationSummary(GenerationPlan plan, Path projectRoot) {
+        Path root = projectRoot.toAbsolutePath().normalize();
+        System.out.println();
+        System.out.println("Regenerated: " + plan.getUpdated().size() + " updated, "
+                + plan.getUnchanged().size() + " unchanged, " + plan.getSkipped().size() + " skipped.");
+        for (Map.Entry<Path, String> skipped : plan.getSkipped().entrySet()) {
+            Path path = skipped.getKey().startsWith(root) ? root.relativize(skipped.getKey()) : skipped.getKey();
+            System.out.println("  Skipped " + path + " (" + skipped.getValue() + ")");
+        }
+    }
+}
@@ -1,15 +1,25 @@
 package com.springhex.command;
 
+import com.springhex.util.BuildTestFilter;
 import com.springhex.util.BuildToolDetector;
 import com.springhex.util.BuildToolDetector.BuildTool;
+import com.springhex.util.ClientEnvironment;
+import com.springhex.util.TestImpactIndex;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 @Command(
     name = "run:test",
@@ -24,6 +34,14 @@ public class RunTestCommand implements Callable<Integer> {
     @Option(names = "--feature", description = "Run only feature tests")
     private boolean feature;
 
+    @Option(names = "--changed", arity = "0..1", fallbackValue = "HEAD", paramLabel = "<ref>",
+            description = "Run only tests affected by changes since a git ref (default: HEAD, i.e. uncommitted changes)")
+    private String changedSince;
+
+    @Option(names = "--shards", paramLabel = "<n>",
+            description = "Split the test classes into n groups of similar duration and run them in parallel")
+    private Integer shards;
+
     private final BuildToolDetector buildToolDetector;
 
     public RunTestCommand() {
@@ -40,18 +58,57 @@ public class RunTestCommand implements Callable<Integer> {
             return 1;
         }
 
+        if (shards != null && shards < 1) {
+            System.err.println("Error: --shards must be at least 1.");
+            return 1;
+        }
+        boolean sharded = shards != null && shards > 1;
+
+        Collection<String> selectedTests = null;
+        if (changedSince != null || sharded) {
+            try {
+                TestImpactIndex index = TestImpactIndex.open(Path.of(baseDir));
+                Predicate<String> runByBuild = BuildTestFilter.load(Path.of(baseDir), tool);
+                TestImpactIndex.Selection selection = changedSince != null
+                    ? index.select(changedFiles(baseDir, changedSince))
+                    : null;
+                if (selection != null && selection.isFullSuite()) {
+                    System.out.println("Running the full suite: " + selection.getFullSuiteReason() + ".");
+                } else if (selection != null) {
+                    selectedTests = narrow(selection.getTests(), runByBuild);
+                    System.out.println(selection.getChangedClassCount() + " class(es) changed since " + changedSince
+                        + "; " + selectedTests.size() + " test class(es) affected.");
+                    if (selectedTests.isEmpty()) {
+                        return 0;
+                    }
+                }
+
+                if (sharded) {
+                    Collection<String> tests = selectedTests != null ? selectedTests : narrow(index.getTests(), runByBuild);
+                    if (!tests.isEmpty()) {
+                        System.out.println("Detected build tool: " + tool);
+                        return ShardedTestRun.run(baseDir, tool, buildToolDetector, tests, shards);
+                    }
+                    System.out.println("No test classes found under src/test/java; running without shards.");
+                }
+            } catch (IOException e) {
+                System.err.println("Error: " + e.getMessage());
+                return 1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                System.err.println("Test execution interrupted.");
+                return 1;
+            }
+        }
+
         String executable = buildToolDetector.resolveExecutable(baseDir, tool);
-        List<String> command = buildCommand(executable, tool);
+        List<String> command = buildToolDetector.prepare(baseDir, tool, buildCommand(executable, tool, selectedTests));
 
         System.out.println("Detected build tool: " + tool);
         System.out.println("Running: " + String.join(" ", command));
 
         try {
-            ProcessBuilder pb = new ProcessBuilder(command);
-            pb.directory(new File(baseDir));
-            pb.inheritIO();
-            Process process = pb.start();
-            return process.waitFor();
+            return buildToolDetector.execute(baseDir, tool, command);
         } catch (IOException e) {
             System.err.println("Error executing tests: " + e.getMessage());
             return 1;
@@ -62,12 +119,23 @@ public class RunTestCommand implements Callable<Integer> {
         }
     }
 
-    private List<String> buildCommand(String executable, BuildTool tool) {
+    private List<String> buildCommand(String executable, BuildTool tool, Collection<String> selectedTests) {
         List<String> command = new ArrayList<>();
         command.add(executable);
         command.add("test");
 
-        if (unit) {
+        if (selectedTests != null) {
+            if (tool == BuildTool.MAVEN) {
+                command.add("-Dtest=" + String.join(",", selectedTests));
+                // Modules without any of the selected tests must not fail the build
+                command.add("-Dsurefire.failIfNoSpecifiedTests=false");
+            } else {
+                for (String test : selectedTests) {
+                    command.add("--tests");
+                    command.add(test);
+                }
+            }
+        } else if (unit) {
             if (tool == BuildTool.MAVEN) {
                 command.add("-Dtest=**/unit/**");
             } else {
@@ -85,4 +153,44 @@ public class RunTestCommand implements Callable<Integer> {
 
         return command;
     }
+
+    /**
+     * Narrows a selection to the classes the build itself would run, and to the unit or
+     * feature tests when one of those flags is set too.
+     */
+    private Collection<String> narrow(Set<String> tests, Predicate<String> runByBuild) {
+        String segment = unit ? ".unit." : feature ? ".feature." : null;
+        return tests.stream()
+            .filter(t -> runByBuild.test(t) && (segment == null || t.contains(segment)))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Paths relative to {@code baseDir} that differ from {@code ref} in the working tree,
+     * staged or not, plus untracked files.
+     */
+    private static Collection<String> changedFiles(String baseDir, String ref) throws IOException, InterruptedException {
+        Set<String> changed = new LinkedHashSet<>();
+        changed.addAll(git(baseDir, "diff", "--name-only", "--relative", ref, "--"));
+        changed.addAll(git(baseDir, "ls-files", "--others", "--exclude-standard"));
+        return changed;
+    }
+
+    private static List<String> git(String baseDir, String... args) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.addAll(List.of("git", "-c", "core.quotepath=off"));
+        command.addAll(List.of(args));
+        Process process = ClientEnvironment.processBuilder(command)
+            .directory(Path.of(baseDir).toFile())
+            .redirectErrorStream(true)
+            .start();
+        String output;
+        try (InputStream in = process.getInputStream()) {
+            output = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        if (process.waitFor() != 0) {
+            throw new IOException("'" + String.join(" ", command) + "' failed: " + output.trim());
+        }
+        return output.lines().filter(line -> !line.isBlank()).collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,231 @@
+package com.springhex.command;
+
+import com.springhex.util.BuildToolDetector;
+import com.springhex.util.BuildToolDetector.BuildTool;
+import com.springhex.util.ClientEnvironment;
+import com.springhex.util.JUnitReports;
+import com.springhex.util.TestTimings;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The {@code run:test --shards} path: test classes split by past timings and run as
+ * concurrent build-tool processes, whose JUnit reports are then merged.
+ *
+ * The test sources are compiled once up front so the shards do not race on the compiler
+ * output. Maven shards then run {@code surefire:test} alone; Surefire has no command-line
+ * switch for its report directory, but it writes one file per test class and the shards run
+ * disjoint classes. Gradle shards get their own result directories through an init script.
+ * Each shard's console output goes to a log file next to the merged report.
+ */
+final class ShardedTestRun {
+
+    private static final String SHARD_PROPERTY = "springHexShard";
+    private static final String GRADLE_INIT_SCRIPT = String.join("\n",
+        "allprojects {",
+        "    tasks.withType(Test).configureEach {",
+        "        def shard = project.findProperty('" + SHARD_PROPERTY + "')",
+        "        if (shard != null) {",
+        "            filter.failOnNoMatchingTests = false",
+        "            reports.junitXml.outputLocation.set(project.layout.buildDirectory.dir(\"test-results/shard-$shard\"))",
+        "            reports.html.outputLocation.set(project.layout.buildDirectory.dir(\"reports/tests/shard-$shard\"))",
+        "            binaryResultsDirectory.set(project.layout.buildDirectory.dir(\"test-results/shard-$shard/binary\"))",
+        "        }",
+        "    }",
+        "}",
+        "");
+    // Report files may carry an mtime up to this much older than the run that wrote them
+    private static final long MTIME_SLACK_MILLIS = 2_000;
+
+    private ShardedTestRun() {}
+
+    static int run(String baseDir, BuildTool tool, BuildToolDetector detector, Collection<String> tests, int shardCount)
+            throws IOException, InterruptedException {
+        Path root = Path.of(baseDir).toAbsolutePath().normalize();
+        TestTimings timings = TestTimings.load(root);
+        List<TestTimings.Shard> shards = timings.split(tests, shardCount);
+        for (int i = 0; i < shards.size(); i++) {
+            System.out.println(String.format(Locale.ROOT, "Shard %d: %d test class(es), about %.1f s",
+                i + 1, shards.get(i).getTestClasses().size(), shards.get(i).getEstimatedMillis() / 1000.0));
+        }
+
+        String executable = detector.resolveExecutable(baseDir, tool);
+        List<String> compile = detector.prepare(baseDir, tool,
+            List.of(executable, tool == BuildTool.MAVEN ? "test-compile" : "testClasses"));
+        System.out.println("Running: " + String.join(" ", compile));
+        int compileExit = detector.execute(baseDir, tool, compile);
+        if (compileExit != 0) {
+            return compileExit;
+        }
+
+        Path outputDir = root.resolve(tool == BuildTool.MAVEN ? "target/spring-hex-shards" : "build/spring-hex-shards");
+        Files.createDirectories(outputDir);
+        Path initScript = null;
+        if (tool == BuildTool.GRADLE) {
+            initScript = Files.createTempFile("spring-hex-shards", ".gradle");
+            Files.writeString(initScript, GRADLE_INIT_SCRIPT, StandardCharsets.UTF_8);
+        }
+
+        long startMillis = System.currentTimeMillis();
+        long start = System.nanoTime();
+        List<Process> processes = new ArrayList<>();
+        List<CompletableFuture<Long>> finished = new ArrayList<>();
+        try {
+            for (int i = 0; i < shards.size(); i++) {
+                List<String> command = detector.prepare(baseDir, tool,
+                    shardCommand(executable, tool, i + 1, shards.get(i).getTestClasses(), initScript));
+                Process process = ClientEnvironment.processBuilder(command)
+                    .directory(root.toFile())
+                    .redirectErrorStream(true)
+                    .redirectOutput(outputDir.resolve("shard-" + (i + 1) + ".log").toFile())
+                    .start();
+                processes.add(process);
+                finished.add(process.onExit().thenApply(p -> System.nanoTime()));
+            }
+            for (Process process : processes) {
+                process.waitFor();
+            }
+        } finally {
+            // Only reached with live processes when interrupted or a later shard failed to start
+            processes.forEach(Process::destroy);
+            if (initScript != null) {
+                Files.deleteIfExists(initScript);
+            }
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Map<String, Integer> shardOf = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            for (String className : shards.get(i).getTestClasses()) {
+                shardOf.put(className, i);
+            }
+        }
+        List<List<JUnitReports.Suite>> suitesByShard = new ArrayList<>();
+        shards.forEach(s -> suitesByShard.add(new ArrayList<>()));
+        List<JUnitReports.Suite> allSuites = new ArrayList<>();
+        for (Path report : findReports(root, tool, startMillis - MTIME_SLACK_MILLIS)) {
+            JUnitReports.Suite suite = JUnitReports.read(report);
+            // Nested test classes report separately; they ran in their outer class's shard
+            Integer shard = shardOf.get(suite.getName().split("\\$")[0]);
+            if (shard != null) {
+                suitesByShard.get(shard).add(suite);
+                allSuites.add(suite);
+            }
+        }
+
+        int exitCode = 0;
+        long shardMillisSum = 0;
+        for (int i = 0; i < shards.size(); i++) {
+            long shardMillis = (finished.get(i).join() - start) / 1_000_000;
+            shardMillisSum += shardMillis;
+            int shardExit = processes.get(i).exitValue();
+            System.out.println(String.format(Locale.ROOT, "Shard %d finished in %.1f s: %s%s", i + 1, shardMillis / 1000.0,
+                counts(suitesByShard.get(i)),
+                shardExit == 0 ? "" : " (exit code " + shardExit + ", see " + root.relativize(outputDir.resolve("shard-" + (i + 1) + ".log")) + ")"));
+            if (exitCode == 0) {
+                exitCode = shardExit;
+            }
+        }
+        for (JUnitReports.Suite suite : allSuites) {
+            for (String failed : suite.getFailedCases()) {
+                System.out.println("Failed: " + failed);
+            }
+        }
+
+        Path merged = outputDir.resolve("junit-merged.xml");
+        JUnitReports.merge(allSuites, merged);
+        System.out.println(String.format(Locale.ROOT, "%d shard(s) in %.1f s (%.1f s of shard time): %s",
+            shards.size(), elapsedMillis / 1000.0, shardMillisSum / 1000.0, counts(allSuites)));
+        System.out.println("Merged report: " + root.relativize(merged));
+
+        Map<String, Long> latest = new TreeMap<>();
+        for (JUnitReports.Suite suite : allSuites) {
+            latest.merge(suite.getName().split("\\$")[0], suite.getMillis(), Long::sum);
+        }
+        timings.record(latest);
+        try {
+            timings.saveIfPossible(root);
+        } catch (IOException e) {
+            // Only the next split's balance suffers
+        }
+        return exitCode;
+    }
+
+    private static List<String> shardCommand(String executable, BuildTool tool, int shard, List<String> testClasses,
+                                             Path initScript) {
+        List<String> command = new ArrayList<>();
+        command.add(executable);
+        if (tool == BuildTool.MAVEN) {
+            command.add("surefire:test");
+            command.add("-Dtest=" + String.join(",", testClasses));
+            command.add("-Dsurefire.failIfNoSpecifiedTests=false");
+            // Keeps the forked JVMs' booter files apart
+            command.add("-DtempDir=surefire-shard-" + shard);
+        } else {
+            command.add("test");
+            command.add("--init-script");
+            command.add(initScript.toString());
+            command.add("-P" + SHARD_PROPERTY + "=" + shard);
+            for (String testClass : testClasses) {
+                command.add("--tests");
+                command.add(testClass);
+            }
+        }
+        return command;
+    }
+
+    /**
+     * Report files written since {@code sinceMillis}: under {@code surefire-reports} for
+     * Maven, under the per-shard result directories for Gradle.
+     */
+    private static List<Path> findReports(Path root, BuildTool tool, long sinceMillis) throws IOException {
+        List<Path> reports = new ArrayList<>();
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                String name = dir.getFileName() == null ? "" : dir.getFileName().toString();
+                return !dir.equals(root) && (name.startsWith(".") || name.equals("src") || name.equals("node_modules"))
+                    ? FileVisitResult.SKIP_SUBTREE
+                    : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                String name = file.getFileName().toString();
+                String dirName = file.getParent().getFileName().toString();
+                boolean reportDir = tool == BuildTool.MAVEN ? dirName.equals("surefire-reports") : dirName.matches("shard-\\d+");
+                if (reportDir && name.startsWith("TEST-") && name.endsWith(".xml")
+                        && attrs.lastModifiedTime().toMillis() >= sinceMillis) {
+                    reports.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return reports;
+    }
+
+    private static String counts(List<JUnitReports.Suite> suites) {
+        int tests = 0, failures = 0, errors = 0, skipped = 0;
+        for (JUnitReports.Suite suite : suites) {
+            tests += suite.getTests();
+            failures += suite.getFailures();
+            errors += suite.getErrors();
+            skipped += suite.getSkipped();
+        }
+        return tests + " test(s), " + failures + " failure(s), " + errors + " error(s), " + skipped + " skipped";
+    }
+}
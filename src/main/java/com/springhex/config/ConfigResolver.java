@@ -10,7 +10,7 @@ public final class ConfigResolver {
     private ConfigResolver() {}
 
     public static ResolvedConfig resolve(String outputDir, String explicitPackage) {
-        HexConfig hexConfig = HexConfig.load(outputDir);
+        HexConfig hexConfig = ProjectCache.hexConfig(outputDir);
 
         String basePackage = resolveBasePackage(explicitPackage, hexConfig, outputDir);
         if (basePackage == null) {
@@ -32,8 +32,7 @@ public final class ConfigResolver {
             return configPkg;
         }
 
-        PackageDetector detector = new PackageDetector();
-        Optional<String> detected = detector.detect(Path.of(outputDir));
+        Optional<String> detected = new PackageDetector().detect(Path.of(outputDir));
         if (detected.isPresent()) {
             System.out.println("Auto-detected base package: " + detected.get());
             return detected.get();
@@ -0,0 +1,225 @@
+package com.springhex.config;
+
+import com.springhex.util.HexDirectory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * The compiled form of {@code .hex/config.yml}, kept in {@code .hex/config.cache}.
+ *
+ * The snapshot records the config file's mtime, size and checksum next to its parsed
+ * content, with every path pattern already split into tokens. While the stamp matches
+ * the file is not even opened; when only the stamp moved (a touch, a checkout of the
+ * same content) the checksum decides. Only a real edit goes through the YAML parser.
+ * Stamps too close to the snapshot's own write are verified by checksum, so an edit in
+ * the same timestamp tick is never missed.
+ */
+final class ConfigSnapshot {
+
+    static final String CONFIG_FILE = ".hex/config.yml";
+    static final String SNAPSHOT_FILE = ".hex/config.cache";
+
+    private static final int MAGIC = 0x48455843;
+    private static final int VERSION = 1;
+    // Coarsest common mtime granularity (FAT/some network filesystems) plus slack
+    private static final long RACY_WINDOW_MILLIS = 2_000;
+
+    private ConfigSnapshot() {}
+
+    static HexConfig load(Path projectRoot) {
+        Path configPath = projectRoot.resolve(CONFIG_FILE);
+        Path snapshotPath = projectRoot.resolve(SNAPSHOT_FILE);
+
+        long mtime;
+        long size;
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(configPath, BasicFileAttributes.class);
+            mtime = attrs.lastModifiedTime().toMillis();
+            size = attrs.size();
+        } catch (NoSuchFileException e) {
+            return HexConfig.empty();
+        } catch (IOException e) {
+            System.err.println("Error: Could not parse .hex/config.yml: " + e.getMessage());
+            return HexConfig.empty();
+        }
+
+        Snapshot snapshot = read(snapshotPath);
+        if (snapshot != null && snapshot.mtime == mtime && snapshot.size == size
+                && mtime + RACY_WINDOW_MILLIS < snapshot.writtenAt) {
+            return snapshot.config;
+        }
+
+        byte[] content;
+        try {
+            content = Files.readAllBytes(configPath);
+        } catch (NoSuchFileException e) {
+            return HexConfig.empty();
+        } catch (IOException e) {
+            System.err.println("Error: Could not parse .hex/config.yml: " + e.getMessage());
+            return HexConfig.empty();
+        }
+        long checksum = checksum(content);
+
+        HexConfig config;
+        if (snapshot != null && snapshot.size == content.length && snapshot.checksum == checksum) {
+            config = snapshot.config;
+        } else {
+            try {
+                config = YamlConfigParser.parse(content);
+            } catch (ClassCastException e) {
+                System.err.println("Error: Could not parse .hex/config.yml: " + e.getMessage());
+                return HexConfig.empty();
+            }
+        }
+        write(snapshotPath, mtime, content.length, checksum, config);
+        return config;
+    }
+
+    private static long checksum(byte[] content) {
+        CRC32C crc = new CRC32C();
+        crc.update(content);
+        return crc.getValue();
+    }
+
+    // --- binary format -----------------------------------------------------------------
+
+    private static Snapshot read(Path snapshotPath) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            long writtenAt = in.readLong();
+            long mtime = in.readLong();
+            long size = in.readLong();
+            long checksum = in.readLong();
+
+            boolean present = in.readBoolean();
+            String basePackage = in.readBoolean() ? in.readUTF() : null;
+            int warningCount = in.readInt();
+            List<String> warnings = new ArrayList<>(warningCount);
+            for (int i = 0; i < warningCount; i++) {
+                warnings.add(in.readUTF());
+            }
+            Map<String, PathPattern> paths = readPatterns(in);
+            Map<String, PathPattern> crud = readPatterns(in);
+
+            HexConfig config = present
+                ? new HexConfig(basePackage, paths, crud, Collections.unmodifiableList(warnings), true)
+                : HexConfig.empty();
+            return new Snapshot(writtenAt, mtime, size, checksum, config);
+        } catch (IOException | RuntimeException e) {
+            // Missing, corrupt or from another version: parse the YAML instead
+            return null;
+        }
+    }
+
+    private static Map<String, PathPattern> readPatterns(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count == 0) {
+            return Collections.emptyMap();
+        }
+        Map<String, PathPattern> patterns = new LinkedHashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            String key = in.readUTF();
+            int tokenCount = in.readInt();
+            List<String> tokens = new ArrayList<>(tokenCount);
+            List<Boolean> variables = new ArrayList<>(tokenCount);
+            for (int j = 0; j < tokenCount; j++) {
+                variables.add(in.readBoolean());
+                tokens.add(in.readUTF());
+            }
+            patterns.put(key, PathPattern.of(tokens, variables));
+        }
+        return Collections.unmodifiableMap(patterns);
+    }
+
+    private static void write(Path snapshotPath, long mtime, long size, long checksum, HexConfig config) {
+        if (!Files.isDirectory(snapshotPath.getParent())) {
+            return;
+        }
+        HexDirectory.ensureGitignore(snapshotPath.getParent().getParent());
+        long now = System.currentTimeMillis();
+        Path temp = snapshotPath.resolveSibling("config.cache.tmp");
+        try {
+            try (OutputStream raw = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(raw))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(now);
+                out.writeLong(mtime);
+                out.writeLong(size);
+                out.writeLong(checksum);
+
+                out.writeBoolean(config.isPresent());
+                out.writeBoolean(config.getBasePackage() != null);
+                if (config.getBasePackage() != null) {
+                    out.writeUTF(config.getBasePackage());
+                }
+                out.writeInt(config.getWarnings().size());
+                for (String warning : config.getWarnings()) {
+                    out.writeUTF(warning);
+                }
+                writePatterns(out, config.getPathPatterns());
+                writePatterns(out, config.getCrudPatterns());
+            }
+            try {
+                Files.move(temp, snapshotPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException e) {
+            // The snapshot is only a cache; without it the next run parses the YAML again
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // nothing more to do
+            }
+        }
+    }
+
+    private static void writePatterns(DataOutputStream out, Map<String, PathPattern> patterns) throws IOException {
+        out.writeInt(patterns.size());
+        for (Map.Entry<String, PathPattern> entry : patterns.entrySet()) {
+            PathPattern pattern = entry.getValue();
+            out.writeUTF(entry.getKey());
+            out.writeInt(pattern.size());
+            for (int i = 0; i < pattern.size(); i++) {
+                out.writeBoolean(pattern.isVariable(i));
+                out.writeUTF(pattern.getToken(i));
+            }
+        }
+    }
+
+    private static final class Snapshot {
+        private final long writtenAt;
+        private final long mtime;
+        private final long size;
+        private final long checksum;
+        private final HexConfig config;
+
+        Snapshot(long writtenAt, long mtime, long size, long checksum, HexConfig config) {
+            this.writtenAt = writtenAt;
+            this.mtime = mtime;
+            this.size = size;
+            this.checksum = checksum;
+            this.config = config;
+        }
+    }
+}
@@ -1,85 +1,56 @@
 package com.springhex.config;
 
-import org.yaml.snakeyaml.LoaderOptions;
-import org.yaml.snakeyaml.Yaml;
-import org.yaml.snakeyaml.constructor.SafeConstructor;
-
-import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
-import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 public class HexConfig {
 
     private final String basePackage;
+    private final Map<String, PathPattern> pathPatterns;
+    private final Map<String, PathPattern> crudPatterns;
     private final Map<String, String> paths;
     private final Map<String, String> crud;
+    private final List<String> warnings;
     private final boolean present;
 
-    private HexConfig(String basePackage, Map<String, String> paths, Map<String, String> crud, boolean present) {
+    HexConfig(String basePackage, Map<String, PathPattern> pathPatterns, Map<String, PathPattern> crudPatterns,
+              List<String> warnings, boolean present) {
         this.basePackage = basePackage;
-        this.paths = paths;
-        this.crud = crud;
+        this.pathPatterns = pathPatterns;
+        this.crudPatterns = crudPatterns;
+        this.paths = sources(pathPatterns);
+        this.crud = sources(crudPatterns);
+        this.warnings = warnings;
         this.present = present;
     }
 
+    /**
+     * Loads {@code .hex/config.yml}, from its compiled snapshot when the file is unchanged.
+     */
     public static HexConfig load(String outputDir) {
-        Path configPath = Paths.get(outputDir, ".hex", "config.yml");
-
-        try (InputStream in = Files.newInputStream(configPath)) {
-            Yaml yaml = new Yaml(new SafeConstructor(new LoaderOptions()));
-            @SuppressWarnings("unchecked")
-            Map<String, Object> root = yaml.load(in);
-            if (root == null) {
-                return empty();
-            }
-
-            Object basePkgValue = root.get("base-package");
-            String basePackage = null;
-            if (basePkgValue instanceof String s) {
-                basePackage = s;
-            } else if (basePkgValue != null) {
-                System.err.println("Warning: 'base-package' in .hex/config.yml must be a string, got: " + basePkgValue.getClass().getSimpleName());
-            }
-
-            Map<String, String> paths = toStringMap(root.get("paths"), "paths");
-            Map<String, String> crud = toStringMap(root.get("crud"), "crud");
-
-            return new HexConfig(basePackage, paths, crud, true);
-        } catch (NoSuchFileException e) {
-            return empty();
-        } catch (IOException | ClassCastException e) {
-            System.err.println("Error: Could not parse .hex/config.yml: " + e.getMessage());
-            return empty();
+        Path projectRoot = Paths.get(outputDir);
+        HexConfig config = ConfigSnapshot.load(projectRoot);
+        for (String warning : config.warnings) {
+            System.err.println(warning);
         }
+        return config;
     }
 
-    private static HexConfig empty() {
-        return new HexConfig(null, Collections.emptyMap(), Collections.emptyMap(), false);
+    static HexConfig empty() {
+        return new HexConfig(null, Collections.emptyMap(), Collections.emptyMap(), List.of(), false);
     }
 
-    @SuppressWarnings("unchecked")
-    private static Map<String, String> toStringMap(Object obj, String sectionName) {
-        if (obj == null) {
+    private static Map<String, String> sources(Map<String, PathPattern> patterns) {
+        if (patterns.isEmpty()) {
             return Collections.emptyMap();
         }
-        if (!(obj instanceof Map)) {
-            System.err.println("Warning: '" + sectionName + "' in .hex/config.yml must be a map, got: " + obj.getClass().getSimpleName());
-            return Collections.emptyMap();
-        }
-        Map<String, Object> raw = (Map<String, Object>) obj;
-        Map<String, String> result = new HashMap<>();
-        for (var entry : raw.entrySet()) {
-            if (entry.getValue() instanceof String s) {
-                result.put(entry.getKey(), s);
-            } else if (entry.getValue() != null) {
-                System.err.println("Warning: '" + sectionName + "." + entry.getKey() + "' must be a string, got: " + entry.getValue().getClass().getSimpleName());
-            }
+        Map<String, String> result = new LinkedHashMap<>();
+        for (var entry : patterns.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().getSource());
         }
         return Collections.unmodifiableMap(result);
     }
@@ -99,4 +70,27 @@ public class HexConfig {
     public boolean isPresent() {
         return present;
     }
+
+    PathPattern getPathPattern(String key) {
+        return pathPatterns.get(key);
+    }
+
+    PathPattern getCrudPattern(String key) {
+        return crudPatterns.get(key);
+    }
+
+    Map<String, PathPattern> getPathPatterns() {
+        return pathPatterns;
+    }
+
+    Map<String, PathPattern> getCrudPatterns() {
+        return crudPatterns;
+    }
+
+    /**
+     * Problems found in the file that did not stop it from loading, replayed on every load.
+     */
+    List<String> getWarnings() {
+        return warnings;
+    }
 }
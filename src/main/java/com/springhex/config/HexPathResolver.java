@@ -37,8 +37,13 @@ public class HexPathResolver {
             "controller", "{name}.web"
     );
 
+    private static final Map<String, PathPattern> HEX_DEFAULT_PATTERNS = compileAll(HEX_DEFAULTS);
+    private static final Map<String, PathPattern> CRUD_DEFAULT_PATTERNS = compileAll(CRUD_DEFAULTS);
+
     private final String basePackage;
     private final HexConfig config;
+    // Resolved packages by key and variable value; generators ask for the same few repeatedly
+    private final Map<String, String> resolved = new HashMap<>();
 
     public HexPathResolver(String basePackage, HexConfig config) {
         this.basePackage = basePackage;
@@ -46,29 +51,22 @@ public class HexPathResolver {
     }
 
     public String resolve(String key, String aggregate) {
-        String pattern = getHexPattern(key);
-        String resolved = pattern.replace("{aggregate}", aggregate);
-        return basePackage + "." + resolved;
+        return resolved.computeIfAbsent("hex:" + key + ":" + aggregate,
+            k -> basePackage + "." + getHexPattern(key).render("aggregate", aggregate));
     }
 
     public String resolve(String key, Map<String, String> vars) {
-        String pattern = getHexPattern(key);
-        String resolved = pattern;
-        for (var entry : vars.entrySet()) {
-            resolved = resolved.replace("{" + entry.getKey() + "}", entry.getValue());
-        }
-        return basePackage + "." + resolved;
+        return basePackage + "." + getHexPattern(key).render(vars);
     }
 
     public String resolveStatic(String key) {
-        String pattern = getHexPattern(key);
-        return basePackage + "." + pattern;
+        return resolved.computeIfAbsent("static:" + key,
+            k -> basePackage + "." + getHexPattern(key).getSource());
     }
 
     public String resolveCrud(String key, String name) {
-        String pattern = getCrudPattern(key);
-        String resolved = pattern.replace("{name}", name);
-        return basePackage + "." + resolved;
+        return resolved.computeIfAbsent("crud:" + key + ":" + name,
+            k -> basePackage + "." + getCrudPattern(key).render("name", name));
     }
 
     public void populatePackagePlaceholders(String aggregate, Map<String, String> replacements) {
@@ -89,19 +87,29 @@ public class HexPathResolver {
         replacements.put("{{PACKAGE_CRUD_MAPPER}}", resolveCrud("mapper", name));
     }
 
-    private String getHexPattern(String key) {
-        Map<String, String> configPaths = config.getPaths();
-        if (configPaths.containsKey(key)) {
-            return configPaths.get(key);
+    private PathPattern getHexPattern(String key) {
+        PathPattern configured = config.getPathPattern(key);
+        if (configured != null) {
+            return configured;
+        }
+        PathPattern pattern = HEX_DEFAULT_PATTERNS.get(key);
+        return pattern != null ? pattern : PathPattern.compile(key);
+    }
+
+    private PathPattern getCrudPattern(String key) {
+        PathPattern configured = config.getCrudPattern(key);
+        if (configured != null) {
+            return configured;
         }
-        return HEX_DEFAULTS.getOrDefault(key, key);
+        PathPattern pattern = CRUD_DEFAULT_PATTERNS.get(key);
+        return pattern != null ? pattern : PathPattern.compile(key);
     }
 
-    private String getCrudPattern(String key) {
-        Map<String, String> configCrud = config.getCrud();
-        if (configCrud.containsKey(key)) {
-            return configCrud.get(key);
+    private static Map<String, PathPattern> compileAll(Map<String, String> patterns) {
+        Map<String, PathPattern> compiled = new HashMap<>();
+        for (var entry : patterns.entrySet()) {
+            compiled.put(entry.getKey(), PathPattern.compile(entry.getValue()));
         }
-        return CRUD_DEFAULTS.getOrDefault(key, key);
+        return compiled;
     }
 }
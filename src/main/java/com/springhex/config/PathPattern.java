@@ -0,0 +1,132 @@
+package com.springhex.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A package pattern such as {@code domain.{aggregate}.model}, split once into literal
+ * text and {@code {variable}} slots so rendering is a single pass with no rescanning.
+ * Variables without a value are rendered back as written.
+ */
+final class PathPattern {
+
+    private final String source;
+    // Alternating literal / variable tokens; isVariable[i] tells which
+    private final String[] tokens;
+    private final boolean[] isVariable;
+
+    private PathPattern(String source, String[] tokens, boolean[] isVariable) {
+        this.source = source;
+        this.tokens = tokens;
+        this.isVariable = isVariable;
+    }
+
+    static PathPattern compile(String source) {
+        List<String> tokens = new ArrayList<>();
+        List<Boolean> variables = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+
+        int pos = 0;
+        while (pos < source.length()) {
+            int open = source.indexOf('{', pos);
+            int close = open == -1 ? -1 : source.indexOf('}', open + 1);
+            if (close == -1) {
+                literal.append(source, pos, source.length());
+                break;
+            }
+            String name = source.substring(open + 1, close);
+            if (name.isEmpty() || name.indexOf('{') != -1) {
+                // Not a variable: keep the brace as text and look again after it
+                literal.append(source, pos, open + 1);
+                pos = open + 1;
+                continue;
+            }
+            literal.append(source, pos, open);
+            if (literal.length() > 0) {
+                tokens.add(literal.toString());
+                variables.add(false);
+                literal.setLength(0);
+            }
+            tokens.add(name);
+            variables.add(true);
+            pos = close + 1;
+        }
+        if (literal.length() > 0) {
+            tokens.add(literal.toString());
+            variables.add(false);
+        }
+        return new PathPattern(source, tokens.toArray(new String[0]), toArray(variables));
+    }
+
+    /**
+     * Rebuilds a pattern from the tokens of a compiled one, as read back from a snapshot.
+     */
+    static PathPattern of(List<String> tokens, List<Boolean> variables) {
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < tokens.size(); i++) {
+            source.append(variables.get(i) ? "{" + tokens.get(i) + "}" : tokens.get(i));
+        }
+        return new PathPattern(source.toString(), tokens.toArray(new String[0]), toArray(variables));
+    }
+
+    private static boolean[] toArray(List<Boolean> values) {
+        boolean[] array = new boolean[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    String getSource() {
+        return source;
+    }
+
+    int size() {
+        return tokens.length;
+    }
+
+    String getToken(int i) {
+        return tokens[i];
+    }
+
+    boolean isVariable(int i) {
+        return isVariable[i];
+    }
+
+    String render(String variable, String value) {
+        if (tokens.length == 1 && !isVariable[0]) {
+            return tokens[0];
+        }
+        StringBuilder out = new StringBuilder(source.length() + value.length());
+        for (int i = 0; i < tokens.length; i++) {
+            if (isVariable[i] && tokens[i].equals(variable)) {
+                out.append(value);
+            } else {
+                appendRaw(out, i);
+            }
+        }
+        return out.toString();
+    }
+
+    String render(Map<String, String> vars) {
+        StringBuilder out = new StringBuilder(source.length() + 32);
+        for (int i = 0; i < tokens.length; i++) {
+            String value = isVariable[i] ? vars.get(tokens[i]) : null;
+            if (value != null) {
+                out.append(value);
+            } else {
+                appendRaw(out, i);
+            }
+        }
+        return out.toString();
+    }
+
+    private void appendRaw(StringBuilder out, int i) {
+        if (isVariable[i]) {
+            out.append('{').append(tokens[i]).append('}');
+        } else {
+            out.append(tokens[i]);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.springhex.config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-project memo of parsed {@code .hex/config.yml}, keyed by absolute project directory.
+ * Source facts such as the detected base package live in {@link com.springhex.util.ProjectIndex}.
+ *
+ * Each lookup re-stats the file the value was derived from and reloads it if it
+ * changed, appeared or disappeared. In a one-shot CLI run the cache is always
+ * cold; it pays off in the daemon, where the JVM outlives individual commands.
+ */
+final class ProjectCache {
+
+    private static final String CONFIG_FILE = ".hex/config.yml";
+
+    private static final Map<Path, Entry<HexConfig>> CONFIGS = new ConcurrentHashMap<>();
+
+    private ProjectCache() {}
+
+    static HexConfig hexConfig(String outputDir) {
+        Path root = normalize(outputDir);
+        List<Object> stamp = stamp(root, List.of(CONFIG_FILE));
+
+        Entry<HexConfig> cached = CONFIGS.get(root);
+        if (cached != null && cached.stamp.equals(stamp)) {
+            return cached.value;
+        }
+        HexConfig loaded = HexConfig.load(outputDir);
+        CONFIGS.put(root, new Entry<>(stamp, loaded));
+        return loaded;
+    }
+
+    private static Path normalize(String outputDir) {
+        return Path.of(outputDir).toAbsolutePath().normalize();
+    }
+
+    private static List<Object> stamp(Path root, List<String> files) {
+        List<Object> stamp = new ArrayList<>(files.size() * 2);
+        for (String file : files) {
+            try {
+                BasicFileAttributes attrs = Files.readAttributes(root.resolve(file), BasicFileAttributes.class);
+                stamp.add(attrs.lastModifiedTime());
+                stamp.add(attrs.size());
+            } catch (NoSuchFileException e) {
+                stamp.add(null);
+                stamp.add(null);
+            } catch (IOException e) {
+                // Unreadable: force a miss so the caller surfaces the real error
+                stamp.add(new Object());
+                stamp.add(null);
+            }
+        }
+        return stamp;
+    }
+
+    private static final class Entry<T> {
+        private final List<Object> stamp;
+        private final T value;
+
+        Entry(List<Object> stamp, T value) {
+            this.stamp = Objects.requireNonNull(stamp);
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.springhex.config;
+
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses {@code .hex/config.yml}. Kept apart from {@link HexConfig} so SnakeYAML is only
+ * loaded when a config file actually has to be parsed, not when its snapshot is reused.
+ */
+final class YamlConfigParser {
+
+    private YamlConfigParser() {}
+
+    static HexConfig parse(byte[] content) {
+        Yaml yaml = new Yaml(new SafeConstructor(new LoaderOptions()));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> root = yaml.load(new ByteArrayInputStream(content));
+        if (root == null) {
+            return HexConfig.empty();
+        }
+
+        List<String> warnings = new ArrayList<>();
+        Object basePkgValue = root.get("base-package");
+        String basePackage = null;
+        if (basePkgValue instanceof String s) {
+            basePackage = s;
+        } else if (basePkgValue != null) {
+            warnings.add("Warning: 'base-package' in .hex/config.yml must be a string, got: " + basePkgValue.getClass().getSimpleName());
+        }
+
+        Map<String, PathPattern> paths = toPatternMap(root.get("paths"), "paths", warnings);
+        Map<String, PathPattern> crud = toPatternMap(root.get("crud"), "crud", warnings);
+
+        return new HexConfig(basePackage, paths, crud, Collections.unmodifiableList(warnings), true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, PathPattern> toPatternMap(Object obj, String sectionName, List<String> warnings) {
+        if (obj == null) {
+            return Collections.emptyMap();
+        }
+        if (!(obj instanceof Map)) {
+            warnings.add("Warning: '" + sectionName + "' in .hex/config.yml must be a map, got: " + obj.getClass().getSimpleName());
+            return Collections.emptyMap();
+        }
+        Map<String, Object> raw = (Map<String, Object>) obj;
+        Map<String, PathPattern> result = new LinkedHashMap<>();
+        for (var entry : raw.entrySet()) {
+            if (entry.getValue() instanceof String s) {
+                result.put(entry.getKey(), PathPattern.compile(s));
+            } else if (entry.getValue() != null) {
+                warnings.add("Warning: '" + sectionName + "." + entry.getKey() + "' must be a string, got: " + entry.getValue().getClass().getSimpleName());
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+}
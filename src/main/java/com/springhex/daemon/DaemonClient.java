@@ -0,0 +1,126 @@
+package com.springhex.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.OptionalInt;
+
+/**
+ * Forwards a CLI invocation to a running {@link DaemonServer}.
+ *
+ * Every method fails soft: if no daemon is listening, or it rejects the request,
+ * the caller gets an empty result and runs the command in-process instead.
+ */
+public final class DaemonClient {
+
+    private final String version;
+
+    public DaemonClient(String version) {
+        this.version = version;
+    }
+
+    /**
+     * Runs {@code args} in the daemon, streaming its output to this process's
+     * stdout/stderr. Returns the exit code, or empty if the daemon was not used.
+     */
+    public OptionalInt tryRun(String[] args) {
+        if (System.getenv(DaemonProtocol.DISABLE_ENV) != null || !Files.exists(DaemonProtocol.socketPath())) {
+            return OptionalInt.empty();
+        }
+
+        try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            channel.connect(DaemonProtocol.socketAddress());
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            DaemonProtocol.writeHeader(out, version, DaemonProtocol.RUN);
+            DaemonProtocol.writeRun(out, Paths.get("").toAbsolutePath().toString(), args, System.getenv());
+            out.flush();
+
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            return relay(in);
+        } catch (IOException e) {
+            // Nothing reached the daemon, so running locally cannot duplicate any work
+            return OptionalInt.empty();
+        }
+    }
+
+    /**
+     * Asks the daemon to shut down. Returns false if none was reachable.
+     */
+    public boolean stop() {
+        return send(DaemonProtocol.STOP);
+    }
+
+    /**
+     * Returns true if a daemon for this CLI version is listening.
+     */
+    public boolean ping() {
+        return send(DaemonProtocol.PING);
+    }
+
+    private boolean send(byte kind) {
+        try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            channel.connect(DaemonProtocol.socketAddress());
+            DataOutputStream out = new DataOutputStream(Channels.newOutputStream(channel));
+            DaemonProtocol.writeHeader(out, version, kind);
+            out.flush();
+
+            DataInputStream in = new DataInputStream(Channels.newInputStream(channel));
+            return in.readByte() == DaemonProtocol.EXIT && in.readInt() == 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private OptionalInt relay(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        if (type == DaemonProtocol.REJECTED) {
+            in.readInt();
+            return OptionalInt.empty();
+        }
+
+        // The daemon accepted the request; from here on a failure must not trigger a local re-run
+        try {
+            return OptionalInt.of(relayFrames(in, type));
+        } catch (IOException e) {
+            System.err.println("Error: lost connection to spring-hex daemon: " + e.getMessage());
+            return OptionalInt.of(1);
+        }
+    }
+
+    private int relayFrames(DataInputStream in, byte firstType) throws IOException {
+        byte[] buffer = new byte[8192];
+        byte type = firstType;
+        while (true) {
+            switch (type) {
+                case DaemonProtocol.STDOUT:
+                case DaemonProtocol.STDERR: {
+                    int length = in.readInt();
+                    PrintStream target = type == DaemonProtocol.STDOUT ? System.out : System.err;
+                    while (length > 0) {
+                        int read = in.read(buffer, 0, Math.min(buffer.length, length));
+                        if (read < 0) {
+                            throw new IOException("Daemon closed the connection mid-frame");
+                        }
+                        target.write(buffer, 0, read);
+                        length -= read;
+                    }
+                    target.flush();
+                    break;
+                }
+                case DaemonProtocol.EXIT:
+                    return in.readInt();
+                default:
+                    throw new IOException("Unexpected daemon frame type: " + type);
+            }
+            type = in.readByte();
+        }
+    }
+}
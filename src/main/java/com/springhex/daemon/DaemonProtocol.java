@@ -0,0 +1,99 @@
+package com.springhex.daemon;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Wire format shared by {@link DaemonClient} and {@link DaemonServer}.
+ *
+ * A request is a header ({@link #MAGIC}, CLI version, request kind) followed, for
+ * {@link #RUN} requests, by the client's working directory, argv and environment variables. The daemon answers
+ * with a stream of frames: {@code STDOUT}/{@code STDERR} chunks, then a single
+ * {@code EXIT} frame carrying the exit code, or {@code REJECTED} if it cannot serve
+ * the request (e.g. it was started from a different CLI version).
+ */
+final class DaemonProtocol {
+
+    static final int MAGIC = 0x48455832; // "HEX2"; daemons speaking an older format drop the connection
+
+    static final byte RUN = 1;
+    static final byte STOP = 2;
+    static final byte PING = 3;
+
+    static final byte STDOUT = 1;
+    static final byte STDERR = 2;
+    static final byte EXIT = 3;
+    static final byte REJECTED = 4;
+
+    static final String SOCKET_ENV = "SPRING_HEX_DAEMON_SOCKET";
+    static final String DISABLE_ENV = "SPRING_HEX_NO_DAEMON";
+
+    private DaemonProtocol() {}
+
+    static Path socketPath() {
+        String override = System.getenv(SOCKET_ENV);
+        if (override != null && !override.isBlank()) {
+            return Paths.get(override);
+        }
+        return Paths.get(System.getProperty("user.home"), ".spring-hex", "daemon.sock");
+    }
+
+    static UnixDomainSocketAddress socketAddress() {
+        return UnixDomainSocketAddress.of(socketPath());
+    }
+
+    static void writeHeader(DataOutputStream out, String version, byte kind) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeUTF(version);
+        out.writeByte(kind);
+    }
+
+    static void writeRun(DataOutputStream out, String workingDir, String[] args, Map<String, String> env) throws IOException {
+        out.writeUTF(workingDir);
+        out.writeInt(args.length);
+        for (String arg : args) {
+            out.writeUTF(arg);
+        }
+        out.writeInt(env.size());
+        for (Map.Entry<String, String> variable : env.entrySet()) {
+            out.writeUTF(variable.getKey());
+            out.writeUTF(variable.getValue());
+        }
+    }
+
+    static String[] readArgs(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        String[] args = new String[count];
+        for (int i = 0; i < count; i++) {
+            args[i] = in.readUTF();
+        }
+        return args;
+    }
+
+    static Map<String, String> readEnv(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        Map<String, String> env = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            env.put(in.readUTF(), in.readUTF());
+        }
+        return env;
+    }
+
+    static void writeFrame(DataOutputStream out, byte type, byte[] data, int offset, int length) throws IOException {
+        out.writeByte(type);
+        out.writeInt(length);
+        out.write(data, offset, length);
+    }
+
+    static void writeCode(DataOutputStream out, byte type, int code) throws IOException {
+        out.writeByte(type);
+        out.writeInt(code);
+        out.flush();
+    }
+}
@@ -0,0 +1,259 @@
+package com.springhex.daemon;
+
+import com.springhex.util.ClientEnvironment;
+import picocli.CommandLine;
+import picocli.CommandLine.Model.OptionSpec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.net.StandardProtocolFamily;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Long-lived process that runs CLI invocations forwarded by {@link DaemonClient}.
+ *
+ * Keeping the JVM warm means compiled stubs, parsed {@code .hex/config.yml} files and
+ * detected project facts survive between calls. Commands write to {@code System.out}
+ * and read {@code user.dir} and {@link ClientEnvironment}, all of which are process-wide,
+ * so requests are served one at a time.
+ */
+public final class DaemonServer {
+
+    private static final String OUTPUT_OPTION = "--output";
+    private static final String DAEMON_COMMAND = "daemon";
+
+    private final String version;
+    private final Duration idleTimeout;
+    private final Function<String[], CommandLine> commandLineFactory;
+
+    private volatile long lastActivity;
+    private volatile boolean busy;
+    private volatile boolean stopRequested;
+
+    public DaemonServer(String version, Duration idleTimeout, Function<String[], CommandLine> commandLineFactory) {
+        this.version = version;
+        this.idleTimeout = idleTimeout;
+        this.commandLineFactory = commandLineFactory;
+    }
+
+    /**
+     * Binds the socket and serves requests until stopped or idle for longer than the timeout.
+     */
+    public void serve() throws IOException {
+        Path socketPath = DaemonProtocol.socketPath();
+        prepareSocketPath(socketPath);
+
+        ScheduledExecutorService idleWatcher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "spring-hex-daemon-idle");
+            t.setDaemon(true);
+            return t;
+        });
+
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(DaemonProtocol.socketAddress());
+            restrictToOwner(socketPath);
+            System.out.println("spring-hex daemon listening on " + socketPath
+                    + " (idle timeout " + idleTimeout.toMinutes() + "m)");
+
+            lastActivity = System.nanoTime();
+            long checkMillis = Math.max(1000, Math.min(idleTimeout.toMillis() / 4, 30_000));
+            idleWatcher.scheduleAtFixedRate(() -> closeIfIdle(server), checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+
+            while (!stopRequested) {
+                SocketChannel client;
+                try {
+                    client = server.accept();
+                } catch (AsynchronousCloseException e) {
+                    break;
+                }
+                busy = true;
+                try (client) {
+                    handle(client);
+                } catch (IOException e) {
+                    System.err.println("Warning: daemon request failed: " + e.getMessage());
+                } finally {
+                    lastActivity = System.nanoTime();
+                    busy = false;
+                }
+            }
+        } finally {
+            idleWatcher.shutdownNow();
+            Files.deleteIfExists(socketPath);
+            System.out.println("spring-hex daemon stopped");
+        }
+    }
+
+    private void handle(SocketChannel client) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(client)));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(client)));
+
+        if (in.readInt() != DaemonProtocol.MAGIC) {
+            return;
+        }
+        String clientVersion = in.readUTF();
+        byte kind = in.readByte();
+
+        if (!version.equals(clientVersion)) {
+            DaemonProtocol.writeCode(out, DaemonProtocol.REJECTED, 0);
+            return;
+        }
+
+        switch (kind) {
+            case DaemonProtocol.PING:
+                DaemonProtocol.writeCode(out, DaemonProtocol.EXIT, 0);
+                break;
+            case DaemonProtocol.STOP:
+                stopRequested = true;
+                DaemonProtocol.writeCode(out, DaemonProtocol.EXIT, 0);
+                break;
+            case DaemonProtocol.RUN:
+                String workingDir = in.readUTF();
+                String[] args = DaemonProtocol.readArgs(in);
+                Map<String, String> env = DaemonProtocol.readEnv(in);
+                if (args.length > 0 && DAEMON_COMMAND.equals(args[0])) {
+                    DaemonProtocol.writeCode(out, DaemonProtocol.REJECTED, 0);
+                    break;
+                }
+                int exitCode = run(Paths.get(workingDir), args, env, out);
+                DaemonProtocol.writeCode(out, DaemonProtocol.EXIT, exitCode);
+                break;
+            default:
+                DaemonProtocol.writeCode(out, DaemonProtocol.REJECTED, 0);
+        }
+    }
+
+    private int run(Path workingDir, String[] args, Map<String, String> env, DataOutputStream out) {
+        PrintStream originalOut = System.out;
+        PrintStream originalErr = System.err;
+        String originalUserDir = System.getProperty("user.dir");
+
+        PrintStream clientOut = new PrintStream(new FrameOutputStream(out, DaemonProtocol.STDOUT), true);
+        PrintStream clientErr = new PrintStream(new FrameOutputStream(out, DaemonProtocol.STDERR), true);
+        System.setOut(clientOut);
+        System.setErr(clientErr);
+        System.setProperty("user.dir", workingDir.toString());
+        // user.dir does not move relative paths, and the daemon's variables are not the caller's
+        ClientEnvironment.install(workingDir, env);
+        try {
+            CommandLine commandLine = commandLineFactory.apply(args);
+            commandLine.setOut(new PrintWriter(clientOut, true));
+            commandLine.setErr(new PrintWriter(clientErr, true));
+            commandLine.setDefaultValueProvider(argSpec -> isOutputOption(argSpec) ? workingDir.toString() : null);
+            return commandLine.execute(absolutizeOutput(args, workingDir));
+        } finally {
+            clientOut.flush();
+            clientErr.flush();
+            System.setOut(originalOut);
+            System.setErr(originalErr);
+            System.setProperty("user.dir", originalUserDir);
+            ClientEnvironment.clear();
+        }
+    }
+
+    private static boolean isOutputOption(CommandLine.Model.ArgSpec argSpec) {
+        return argSpec.isOption() && OUTPUT_OPTION.equals(((OptionSpec) argSpec).longestName());
+    }
+
+    /**
+     * Resolves relative {@code -o}/{@code --output} values against the client's directory,
+     * since the daemon's own working directory is unrelated to the caller's.
+     */
+    static String[] absolutizeOutput(String[] args, Path workingDir) {
+        String[] result = args.clone();
+        for (int i = 0; i < result.length; i++) {
+            String arg = result[i];
+            if ((arg.equals("-o") || arg.equals(OUTPUT_OPTION)) && i + 1 < result.length) {
+                result[i + 1] = workingDir.resolve(result[i + 1]).toString();
+                i++;
+            } else if (arg.startsWith(OUTPUT_OPTION + "=")) {
+                result[i] = OUTPUT_OPTION + "=" + workingDir.resolve(arg.substring(OUTPUT_OPTION.length() + 1));
+            } else if (arg.startsWith("-o") && arg.length() > 2 && !arg.startsWith("--")) {
+                result[i] = "-o" + workingDir.resolve(arg.substring(2));
+            }
+        }
+        return result;
+    }
+
+    private void closeIfIdle(ServerSocketChannel server) {
+        long idleNanos = System.nanoTime() - lastActivity;
+        if (!busy && idleNanos >= idleTimeout.toNanos()) {
+            try {
+                server.close();
+            } catch (IOException ignored) {
+                // accept() will observe the close either way
+            }
+        }
+    }
+
+    private void prepareSocketPath(Path socketPath) throws IOException {
+        if (Files.exists(socketPath)) {
+            if (new DaemonClient(version).ping()) {
+                throw new IOException("A spring-hex daemon is already listening on " + socketPath);
+            }
+            // Left behind by a daemon that did not shut down cleanly
+            Files.delete(socketPath);
+        }
+        Path parent = socketPath.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+    }
+
+    private static void restrictToOwner(Path socketPath) {
+        try {
+            Files.setPosixFilePermissions(socketPath, PosixFilePermissions.fromString("rw-------"));
+        } catch (IOException | UnsupportedOperationException e) {
+            System.err.println("Warning: could not restrict permissions on " + socketPath + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Turns writes to System.out/System.err into protocol frames on the client connection.
+     */
+    private static final class FrameOutputStream extends OutputStream {
+
+        private final DataOutputStream out;
+        private final byte type;
+
+        FrameOutputStream(DataOutputStream out, byte type) {
+            this.out = out;
+            this.type = type;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len > 0) {
+                DaemonProtocol.writeFrame(out, type, b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.springhex.generator;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Compiles generated sources in-process with the system {@link JavaCompiler}, as a quick
+ * stand-in for a full build.
+ *
+ * Each group of files (a command, or one make:batch entry) is compiled as its own task,
+ * in parallel, against the project's classpath; anything else they reference is picked
+ * up from {@code src/main/java}. Annotation processors on the classpath (Lombok above all)
+ * run as in a normal build. Nothing is written: class files are discarded and sources
+ * generated by processors are kept in memory, since only the diagnostics matter.
+ */
+public final class CompileVerifier {
+
+    private static final int MAX_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+    private final JavaCompiler compiler;
+    private final List<String> options;
+
+    private CompileVerifier(JavaCompiler compiler, List<String> options) {
+        this.compiler = compiler;
+        this.options = options;
+    }
+
+    /**
+     * Returns a verifier for the project, or {@code null} when running on a runtime
+     * without the {@code jdk.compiler} module.
+     */
+    public static CompileVerifier create(Path projectRoot, List<Path> classpath) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            return null;
+        }
+        List<String> options = new ArrayList<>(List.of("-implicit:none", "-nowarn", "-Xlint:none"));
+        Path sourceRoot = projectRoot.toAbsolutePath().normalize().resolve("src/main/java");
+        if (Files.isDirectory(sourceRoot)) {
+            options.add("-sourcepath");
+            options.add(sourceRoot.toString());
+        }
+        if (!classpath.isEmpty()) {
+            List<String> entries = new ArrayList<>(classpath.size());
+            for (Path entry : classpath) {
+                entries.add(entry.toString());
+            }
+            options.add("-classpath");
+            options.add(String.join(File.pathSeparator, entries));
+        }
+        return new CompileVerifier(compiler, options);
+    }
+
+    /**
+     * Compiles each group's {@code .java} files; groups without any are left out of the result.
+     */
+    public List<Result> verify(Map<String, List<Path>> groups) throws InterruptedException {
+        List<Map.Entry<String, List<Path>>> work = new ArrayList<>();
+        for (Map.Entry<String, List<Path>> group : groups.entrySet()) {
+            List<Path> sources = new ArrayList<>();
+            for (Path path : group.getValue()) {
+                if (path.getFileName().toString().endsWith(".java")) {
+                    sources.add(path);
+                }
+            }
+            if (!sources.isEmpty()) {
+                work.add(Map.entry(group.getKey(), sources));
+            }
+        }
+        if (work.isEmpty()) {
+            return List.of();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(work.size(), MAX_THREADS), r -> {
+            Thread t = new Thread(r, "spring-hex-verify");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<Result>> futures = new ArrayList<>(work.size());
+            for (Map.Entry<String, List<Path>> group : work) {
+                futures.add(executor.submit(() -> compile(group.getKey(), group.getValue())));
+            }
+            List<Result> results = new ArrayList<>(futures.size());
+            for (Future<Result> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException runtime) {
+                        throw runtime;
+                    }
+                    throw new IllegalStateException(cause);
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Result compile(String group, List<Path> sources) throws Exception {
+        long start = System.nanoTime();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        // File managers are not thread-safe, so each task gets its own
+        try (StandardJavaFileManager standard = compiler.getStandardFileManager(diagnostics, Locale.ROOT, StandardCharsets.UTF_8);
+             JavaFileManager fileManager = new DiscardingFileManager(standard)) {
+            Iterable<? extends JavaFileObject> units = standard.getJavaFileObjectsFromPaths(sources);
+            compiler.getTask(null, fileManager, diagnostics, options, null, units).call();
+        }
+
+        List<String> errors = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() != Diagnostic.Kind.ERROR) {
+                continue;
+            }
+            String location = diagnostic.getSource() == null ? ""
+                : Path.of(diagnostic.getSource().toUri()) + ":" + diagnostic.getLineNumber() + ": ";
+            errors.add(location + diagnostic.getMessage(Locale.ROOT));
+        }
+        return new Result(group, sources.size(), errors, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public static final class Result {
+        private final String group;
+        private final int fileCount;
+        private final List<String> errors;
+        private final long elapsedMillis;
+
+        Result(String group, int fileCount, List<String> errors, long elapsedMillis) {
+            this.group = group;
+            this.fileCount = fileCount;
+            this.errors = List.copyOf(errors);
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public String getGroup() {
+            return group;
+        }
+
+        public int getFileCount() {
+            return fileCount;
+        }
+
+        public List<String> getErrors() {
+            return errors;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+
+    private static final class DiscardingFileManager extends ForwardingJavaFileManager<JavaFileManager> {
+
+        DiscardingFileManager(JavaFileManager delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+                                                   FileObject sibling) {
+            return new MemoryFile(className, kind);
+        }
+
+        @Override
+        public FileObject getFileForOutput(Location location, String packageName, String relativeName,
+                                           FileObject sibling) {
+            return new MemoryFile(packageName + "." + relativeName, JavaFileObject.Kind.OTHER);
+        }
+    }
+
+    private static final class MemoryFile extends SimpleJavaFileObject {
+        private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+        MemoryFile(String className, Kind kind) {
+            super(URI.create("mem:///" + className.replace('.', '/') + kind.extension), kind);
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            // Class files are never read back; keep only what processors generate
+            return kind == Kind.CLASS ? OutputStream.nullOutputStream() : content;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return content.toString(StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.springhex.generator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A stub template parsed once into literal segments and placeholder slots.
+ *
+ * The template {@code "package {{PACKAGE}};"} compiles to the literals
+ * {@code ["package ", ";"]} and the single slot {@code {{PACKAGE}}}. Rendering
+ * walks both arrays once and appends into a buffer sized up front, so the
+ * template is never copied per replacement.
+ */
+public final class CompiledStub {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String name;
+    private final String[] literals;
+    private final String[] slots;
+    private final int literalLength;
+    private final Set<String> placeholders;
+
+    private CompiledStub(String name, String[] literals, String[] slots, int literalLength) {
+        this.name = name;
+        this.literals = literals;
+        this.slots = slots;
+        this.literalLength = literalLength;
+
+        Set<String> unique = new LinkedHashSet<>(List.of(slots));
+        this.placeholders = Collections.unmodifiableSet(unique);
+    }
+
+    /**
+     * Parses a template into its compiled form. Placeholders must be of the form
+     * {@code {{UPPER_SNAKE_CASE}}}; any other double-brace sequence is rejected.
+     */
+    public static CompiledStub compile(String name, String template) throws IOException {
+        List<String> literals = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        int literalLength = 0;
+        int pos = 0;
+
+        while (true) {
+            int open = template.indexOf(OPEN, pos);
+            if (open == -1) {
+                String tail = template.substring(pos);
+                literals.add(tail);
+                literalLength += tail.length();
+                break;
+            }
+
+            int close = template.indexOf(CLOSE, open + OPEN.length());
+            if (close == -1) {
+                throw new IOException("Unterminated placeholder in stub '" + name + "' at line " + lineOf(template, open));
+            }
+
+            String key = template.substring(open + OPEN.length(), close);
+            if (!isValidKey(key)) {
+                throw new IOException("Invalid placeholder '" + OPEN + key + CLOSE + "' in stub '" + name
+                        + "' at line " + lineOf(template, open));
+            }
+
+            String literal = template.substring(pos, open);
+            literals.add(literal);
+            literalLength += literal.length();
+            slots.add(OPEN + key + CLOSE);
+            pos = close + CLOSE.length();
+        }
+
+        return new CompiledStub(name, literals.toArray(new String[0]), slots.toArray(new String[0]), literalLength);
+    }
+
+    /**
+     * Renders the stub in a single pass. Every placeholder the template declares must
+     * have a value; missing ones are reported together before any output is built.
+     */
+    public String render(Map<String, String> replacements) throws IOException {
+        String[] values = new String[slots.length];
+        int size = literalLength;
+        Set<String> missing = null;
+
+        for (int i = 0; i < slots.length; i++) {
+            String value = replacements.get(slots[i]);
+            if (value == null) {
+                if (missing == null) {
+                    missing = new LinkedHashSet<>();
+                }
+                missing.add(slots[i]);
+                continue;
+            }
+            values[i] = value;
+            size += value.length();
+        }
+
+        if (missing != null) {
+            throw new IOException("Unfilled placeholder(s) " + String.join(", ", missing) + " in stub '" + name + "'");
+        }
+
+        StringBuilder out = new StringBuilder(size);
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]).append(values[i]);
+        }
+        out.append(literals[slots.length]);
+        return out.toString();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the distinct placeholders (including braces) in order of first appearance.
+     */
+    public Set<String> getPlaceholders() {
+        return placeholders;
+    }
+
+    private static boolean isValidKey(String key) {
+        if (key.isEmpty() || key.charAt(0) < 'A' || key.charAt(0) > 'Z') {
+            return false;
+        }
+        for (int i = 1; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (!((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int lineOf(String template, int index) {
+        int line = 1;
+        for (int i = 0; i < index; i++) {
+            if (template.charAt(i) == '\n') {
+                line++;
+            }
+        }
+        return line;
+    }
+}
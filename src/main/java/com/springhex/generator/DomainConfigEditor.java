@@ -0,0 +1,162 @@
+package com.springhex.generator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An edit session on DomainConfig.java.
+ *
+ * The file is scanned once into an index of its imports and {@code @Bean} method names
+ * plus the offsets where new imports and beans go. Additions are queued against that
+ * index and {@link #render()} splices them all in with a single copy of the original,
+ * so adding many beans costs one read and one write instead of one of each per bean.
+ * Obtain an editor through {@link ConfigAppender#open}.
+ */
+public final class DomainConfigEditor {
+
+    private static final Pattern PACKAGE = Pattern.compile("(?m)^\\s*package\\s+[\\w.]+\\s*;");
+    private static final Pattern IMPORT = Pattern.compile("(?m)^\\s*import\\s+((?:static\\s+)?[\\w.]+(?:\\.\\*)?)\\s*;");
+    // @Bean, optional arguments and further annotations, then modifiers/return type up to the method name
+    private static final Pattern BEAN_METHOD = Pattern.compile(
+        "@Bean\\b(?:\\s*\\([^)]*\\))?(?:\\s+@[\\w.]+(?:\\s*\\([^)]*\\))?)*\\s+[^;{}()=@]*?\\b(\\w+)\\s*\\(");
+
+    private final Path path;
+    private final String original;
+    private final int packageEnd;
+    private final int importsEnd;
+    private final int closingBrace;
+    private final Set<String> imports = new HashSet<>();
+    private final Set<String> beans = new HashSet<>();
+
+    private final List<String> addedImports = new ArrayList<>();
+    private final List<String> addedBeans = new ArrayList<>();
+
+    private DomainConfigEditor(Path path, String content) throws IOException {
+        this.path = path;
+        this.original = content;
+
+        int bodyStart = content.indexOf('{');
+        int headerEnd = bodyStart == -1 ? content.length() : bodyStart;
+
+        Matcher pkg = PACKAGE.matcher(content).region(0, headerEnd);
+        this.packageEnd = pkg.find() ? pkg.end() : -1;
+
+        int lastImportEnd = -1;
+        Matcher imp = IMPORT.matcher(content).region(0, headerEnd);
+        while (imp.find()) {
+            imports.add(imp.group(1));
+            lastImportEnd = imp.end();
+        }
+        this.importsEnd = lastImportEnd;
+
+        this.closingBrace = content.lastIndexOf('}');
+        if (closingBrace == -1 || closingBrace < headerEnd) {
+            throw new IOException("DomainConfig.java appears malformed — no closing brace found: " + path);
+        }
+
+        Matcher bean = BEAN_METHOD.matcher(content).region(headerEnd, closingBrace);
+        while (bean.find()) {
+            beans.add(bean.group(1));
+        }
+    }
+
+    static DomainConfigEditor parse(Path path, String content) throws IOException {
+        return new DomainConfigEditor(path, content);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Returns true if a {@code @Bean} method with exactly this name exists or has been added.
+     */
+    public boolean hasBean(String methodName) {
+        return beans.contains(methodName);
+    }
+
+    public boolean hasImport(String qualifiedName) {
+        return imports.contains(qualifiedName);
+    }
+
+    /**
+     * Queues an import unless the file already has it.
+     */
+    public void addImport(String qualifiedName) {
+        if (imports.add(qualifiedName)) {
+            addedImports.add(qualifiedName);
+        }
+    }
+
+    /**
+     * Queues a rendered {@code @Bean} snippet for insertion before the class's closing brace,
+     * unless every bean method it declares is already there (as when regenerating).
+     *
+     * @return true if the snippet was queued
+     */
+    public boolean addBean(String snippet) {
+        List<String> names = new ArrayList<>();
+        Matcher bean = BEAN_METHOD.matcher(snippet);
+        while (bean.find()) {
+            names.add(bean.group(1));
+        }
+        if (!names.isEmpty() && beans.containsAll(names)) {
+            return false;
+        }
+        addedBeans.add(snippet);
+        beans.addAll(names);
+        return true;
+    }
+
+    public boolean isModified() {
+        return !addedImports.isEmpty() || !addedBeans.isEmpty();
+    }
+
+    /**
+     * Returns the file content with every queued addition applied. New imports follow the
+     * last existing import (or the package declaration when there is none); new beans go
+     * before the closing brace in the order they were added.
+     */
+    public String render() {
+        if (!isModified()) {
+            return original;
+        }
+
+        int extra = 0;
+        for (String imp : addedImports) {
+            extra += imp.length() + 10;
+        }
+        for (String snippet : addedBeans) {
+            extra += snippet.length() + 1;
+        }
+        StringBuilder out = new StringBuilder(original.length() + extra);
+
+        int importAt = importsEnd != -1 ? importsEnd : Math.max(packageEnd, 0);
+        out.append(original, 0, importAt);
+        for (int i = 0; i < addedImports.size(); i++) {
+            String line = "import " + addedImports.get(i) + ";";
+            if (importsEnd == -1 && i == 0) {
+                // First import of the file: a blank line after the package, or at the very top
+                out.append(packageEnd != -1 ? "\n\n" + line : line);
+            } else {
+                out.append('\n').append(line);
+            }
+        }
+        if (importsEnd == -1 && packageEnd == -1 && !addedImports.isEmpty()) {
+            out.append('\n');
+        }
+
+        out.append(original, importAt, closingBrace);
+        for (String snippet : addedBeans) {
+            out.append(snippet).append('\n');
+        }
+        out.append(original, closingBrace, original.length());
+        return out.toString();
+    }
+}
@@ -4,23 +4,252 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class FileGenerator {
 
+    // Writes are dominated by open/fsync latency rather than CPU, so this can exceed the core count
+    static final int WRITER_THREADS = 8;
+
+    private static final ThreadLocal<GenerationPlan> PLAN = new ThreadLocal<>();
+
+    /**
+     * Opens a plan on the current thread in which every FileGenerator records writes
+     * instead of performing them, until the plan is committed or closed.
+     */
+    public static GenerationPlan plan() {
+        if (PLAN.get() != null) {
+            throw new IllegalStateException("A generation plan is already open on this thread");
+        }
+        GenerationPlan plan = new GenerationPlan(PLAN::remove);
+        PLAN.set(plan);
+        return plan;
+    }
+
+    /**
+     * Returns the plan open on the current thread, or null when writes go straight to disk.
+     */
+    public static GenerationPlan currentPlan() {
+        return PLAN.get();
+    }
+
+    /**
+     * True when the plan open on the current thread is a {@code --dry-run} and will not be written.
+     */
+    public static boolean isDryRun() {
+        GenerationPlan plan = PLAN.get();
+        return plan != null && plan.isDryRun();
+    }
+
+    /**
+     * Prints that a file was created, or under {@code --dry-run} that it would be.
+     */
+    public static void reportCreated(Object target) {
+        System.out.println((isDryRun() ? "Would create: " : "Created: ") + target);
+    }
+
+    /**
+     * Prints that a file was changed, or under {@code --dry-run} that it would be.
+     */
+    public static void reportUpdated(Object target) {
+        System.out.println((isDryRun() ? "Would update: " : "Updated: ") + target);
+    }
+
+    /**
+     * Creates a new file, or regenerates an existing one under {@code --sync}/{@code --force},
+     * and reports the outcome. Files left alone by regeneration are reported in the plan's
+     * summary instead.
+     */
     public void generate(Path outputPath, String content) throws IOException {
+        GenerationPlan plan = PLAN.get();
+        if (isRegeneration(plan, outputPath)) {
+            regenerate(plan, outputPath, content);
+            return;
+        }
+
+        // Check if file already exists
+        if (exists(outputPath)) {
+            throw new IOException("File already exists: " + outputPath +
+                ". Use --sync or --force to regenerate it.");
+        }
+
+        if (plan != null) {
+            plan.create(outputPath, content);
+            plan.recordGenerated(outputPath, GenerationManifest.hash(content));
+            reportCreated(outputPath);
+            return;
+        }
+
         // Create parent directories if they don't exist
         Path parentDir = outputPath.getParent();
         if (parentDir != null && !Files.exists(parentDir)) {
             Files.createDirectories(parentDir);
         }
 
-        // Check if file already exists
-        if (Files.exists(outputPath)) {
-            throw new IOException("File already exists: " + outputPath + 
-                ". Use --force to overwrite (not implemented yet).");
-        }
-
         // Write the file
         Files.writeString(outputPath, content, StandardCharsets.UTF_8);
+        reportCreated(outputPath);
+    }
+
+    /**
+     * Writes a set of new files together. Every target is checked up front, so a collision
+     * fails the whole set before anything is written. Each distinct parent directory is
+     * created once and the files are then written concurrently.
+     */
+    public void generateAll(List<GeneratedFile> files) throws IOException {
+        GenerationPlan plan = PLAN.get();
+        List<String> existing = new ArrayList<>();
+        for (GeneratedFile file : files) {
+            if (!isRegeneration(plan, file.getPath()) && exists(file.getPath())) {
+                existing.add(file.getPath().toString());
+            }
+        }
+        if (!existing.isEmpty()) {
+            throw new IOException("File already exists: " + String.join(", ", existing)
+                + ". Use --sync or --force to regenerate.");
+        }
+
+        if (plan != null) {
+            for (GeneratedFile file : files) {
+                if (isRegeneration(plan, file.getPath())) {
+                    regenerate(plan, file.getPath(), file.getContent());
+                } else {
+                    plan.create(file.getPath(), file.getContent());
+                    plan.recordGenerated(file.getPath(), GenerationManifest.hash(file.getContent()));
+                    reportCreated(file.getPath());
+                }
+            }
+            return;
+        }
+
+        writeAll(files, WRITER_THREADS);
+        for (GeneratedFile file : files) {
+            reportCreated(file.getPath());
+        }
+    }
+
+    /**
+     * True when an existing file is to be judged for regeneration rather than rejected:
+     * the plan allows regeneration and the file is on disk, not just created in this plan.
+     */
+    private static boolean isRegeneration(GenerationPlan plan, Path path) {
+        return plan != null && plan.getRegenerationMode() != RegenerationMode.OFF
+            && !plan.contains(path) && Files.exists(path);
+    }
+
+    /**
+     * Rewrites an existing file only if its rendered content changed and it still holds
+     * exactly what was last generated. Files without a manifest record are rewritten
+     * under {@link RegenerationMode#FORCE} and left alone under {@link RegenerationMode#SYNC}.
+     */
+    private static void regenerate(GenerationPlan plan, Path path, String content) throws IOException {
+        String rendered = GenerationManifest.hash(content);
+        String onDisk = GenerationManifest.hash(Files.readAllBytes(path));
+        if (rendered.equals(onDisk)) {
+            plan.recordUnchanged(path, rendered);
+            return;
+        }
+
+        String recorded = plan.getManifest().getHash(path);
+        if (recorded == null && plan.getRegenerationMode() != RegenerationMode.FORCE) {
+            plan.recordSkipped(path, "not recorded as generated; use --force to overwrite");
+        } else if (recorded != null && !recorded.equals(onDisk)) {
+            plan.recordSkipped(path, "edited since it was generated");
+        } else {
+            plan.overwrite(path, content);
+            plan.recordGenerated(path, rendered);
+            reportUpdated(path);
+        }
+    }
+
+    public boolean exists(Path path) {
+        GenerationPlan plan = PLAN.get();
+        return (plan != null && plan.contains(path)) || Files.exists(path);
+    }
+
+    public String read(Path path) throws IOException {
+        GenerationPlan plan = PLAN.get();
+        String pending = plan != null ? plan.read(path) : null;
+        return pending != null ? pending : Files.readString(path, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Replaces the content of an existing file (e.g. when appending to DomainConfig).
+     */
+    public void overwrite(Path path, String content) throws IOException {
+        GenerationPlan plan = PLAN.get();
+        if (plan != null) {
+            plan.overwrite(path, content);
+            return;
+        }
+        Files.writeString(path, content, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates each distinct parent directory once, then writes the files on up to
+     * {@code threads} concurrent writers. All writes are attempted; failures are
+     * reported together in one exception.
+     */
+    static void writeAll(List<GeneratedFile> files, int threads) throws IOException {
+        if (files.isEmpty()) {
+            return;
+        }
+
+        Set<Path> parents = new LinkedHashSet<>();
+        for (GeneratedFile file : files) {
+            Path parent = file.getPath().getParent();
+            if (parent != null) {
+                parents.add(parent);
+            }
+        }
+        for (Path parent : parents) {
+            Files.createDirectories(parent);
+        }
+
+        if (files.size() == 1 || threads <= 1) {
+            for (GeneratedFile file : files) {
+                Files.writeString(file.getPath(), file.getContent(), StandardCharsets.UTF_8);
+            }
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, files.size()), r -> {
+            Thread thread = new Thread(r, "spring-hex-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>(files.size());
+            for (GeneratedFile file : files) {
+                futures.add(executor.submit(() -> {
+                    Files.writeString(file.getPath(), file.getContent(), StandardCharsets.UTF_8);
+                    return null;
+                }));
+            }
+
+            List<String> failures = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                } catch (ExecutionException e) {
+                    failures.add(files.get(i).getPath() + ": " + e.getCause().getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while writing generated files", e);
+                }
+            }
+            if (!failures.isEmpty()) {
+                throw new IOException("Failed to write " + failures.size() + " file(s):\n  " + String.join("\n  ", failures));
+            }
+        } finally {
+            executor.shutdown();
+        }
     }
 }
@@ -0,0 +1,25 @@
+package com.springhex.generator;
+
+import java.nio.file.Path;
+
+/**
+ * A rendered file waiting to be written: its target path and full content.
+ */
+public final class GeneratedFile {
+
+    private final Path path;
+    private final String content;
+
+    public GeneratedFile(Path path, String content) {
+        this.path = path;
+        this.content = content;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public String getContent() {
+        return content;
+    }
+}
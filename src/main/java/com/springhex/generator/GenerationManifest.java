@@ -0,0 +1,163 @@
+package com.springhex.generator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The record of what spring-hex generated in a project, kept in {@code .hex/manifest}.
+ *
+ * One line per generated file: the SHA-256 of the content as generated, the stub set it
+ * was rendered from, and the path relative to the project root. Comparing a file on disk
+ * against its recorded hash tells an untouched generated file from one the user edited,
+ * which is what makes {@code --sync} and {@code --force} safe to run over a whole project.
+ * The file is plain text, sorted by path, so it diffs and merges cleanly if committed.
+ * Like {@code .hex/index} it is only written in projects that have a {@code .hex/} directory.
+ */
+public final class GenerationManifest {
+
+    public static final String MANIFEST_FILE = ".hex/manifest";
+
+    private static final String HEADER = "# spring-hex generation manifest v1";
+
+    private final Path root;
+    private final Map<String, Entry> entries;
+    private boolean modified;
+
+    private GenerationManifest(Path root, Map<String, Entry> entries) {
+        this.root = root;
+        this.entries = entries;
+    }
+
+    public static GenerationManifest load(Path projectRoot) throws IOException {
+        Path root = projectRoot.toAbsolutePath().normalize();
+        Map<String, Entry> entries = new TreeMap<>();
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(root.resolve(MANIFEST_FILE), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return new GenerationManifest(root, entries);
+        }
+
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            // The path comes last so it may contain spaces
+            String[] fields = line.split(" ", 3);
+            if (fields.length != 3) {
+                throw new IOException(MANIFEST_FILE + " line " + (i + 1) + " is malformed: " + line);
+            }
+            entries.put(fields[2], new Entry(fields[0], fields[1]));
+        }
+        return new GenerationManifest(root, entries);
+    }
+
+    /**
+     * Adds or replaces the records for the given files, keyed by their content hash.
+     */
+    public static void record(Path projectRoot, Map<Path, String> generatedHashes) throws IOException {
+        GenerationManifest manifest = load(projectRoot);
+        for (Map.Entry<Path, String> generated : generatedHashes.entrySet()) {
+            manifest.put(generated.getKey(), generated.getValue());
+        }
+        manifest.save();
+    }
+
+    /**
+     * SHA-256 of the UTF-8 encoding of generated content, as hex.
+     */
+    public static String hash(String content) {
+        return hash(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String hash(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * The recorded hash for a file, or null when spring-hex has no record of generating it.
+     */
+    public String getHash(Path path) {
+        Entry entry = entries.get(relative(path));
+        return entry == null ? null : entry.hash;
+    }
+
+    void put(Path path, String hash) {
+        String relative = relative(path);
+        if (relative == null) {
+            return;
+        }
+        Entry entry = new Entry(hash, StubBundle.version());
+        if (!entry.equals(entries.put(relative, entry))) {
+            modified = true;
+        }
+    }
+
+    private void save() throws IOException {
+        Path manifestFile = root.resolve(MANIFEST_FILE);
+        if (!modified || !Files.isDirectory(manifestFile.getParent())) {
+            return;
+        }
+
+        Path temp = manifestFile.resolveSibling("manifest.tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            out.write(HEADER);
+            out.write('\n');
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                out.write(entry.getValue().hash + " " + entry.getValue().stubVersion + " " + entry.getKey());
+                out.write('\n');
+            }
+        }
+        try {
+            Files.move(temp, manifestFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, manifestFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        modified = false;
+    }
+
+    private String relative(Path path) {
+        Path absolute = path.toAbsolutePath().normalize();
+        if (!absolute.startsWith(root)) {
+            return null;
+        }
+        return root.relativize(absolute).toString().replace('\\', '/');
+    }
+
+    private static final class Entry {
+        private final String hash;
+        private final String stubVersion;
+
+        Entry(String hash, String stubVersion) {
+            this.hash = hash;
+            this.stubVersion = stubVersion;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Entry other && hash.equals(other.hash) && stubVersion.equals(other.stubVersion);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash.hashCode() * 31 + stubVersion.hashCode();
+        }
+    }
+}
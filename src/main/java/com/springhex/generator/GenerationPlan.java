@@ -0,0 +1,308 @@
+package com.springhex.generator;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The creates and edits a command intends to make, staged in memory and written in one go.
+ *
+ * While a plan is open on the current thread (see {@link FileGenerator#plan()}),
+ * {@link FileGenerator} records creates and overwrites here instead of touching disk,
+ * and reads see planned content first. {@link #commit()} writes every file to a temp
+ * file next to its target and then moves them into place; if any step fails, files
+ * already moved are deleted or restored and new directories are removed. Closing the
+ * plan without committing drops everything, which is how {@code --dry-run} works.
+ *
+ * The plan also collects the content hash of every generated file for
+ * {@link GenerationManifest} and, when regenerating, which existing files were left as
+ * they were and why.
+ */
+public final class GenerationPlan implements AutoCloseable {
+
+    private static final String TEMP_SUFFIX = ".hex-tmp";
+
+    private final Map<Path, Pending> pending = new LinkedHashMap<>();
+    private final Map<Path, String> generatedHashes = new LinkedHashMap<>();
+    private final List<Path> unchanged = new ArrayList<>();
+    private final Map<Path, String> skipped = new LinkedHashMap<>();
+    private final Runnable onClose;
+    private RegenerationMode regenerationMode = RegenerationMode.OFF;
+    private GenerationManifest manifest;
+    private String group;
+    private boolean dryRun;
+    private boolean committed;
+
+    GenerationPlan(Runnable onClose) {
+        this.onClose = onClose;
+    }
+
+    boolean contains(Path path) {
+        return pending.containsKey(key(path));
+    }
+
+    String read(Path path) {
+        Pending p = pending.get(key(path));
+        return p == null ? null : p.content;
+    }
+
+    void create(Path path, String content) {
+        pending.put(key(path), new Pending(content, true, group));
+    }
+
+    void overwrite(Path path, String content) {
+        Path key = key(path);
+        Pending existing = pending.get(key);
+        // A file created earlier in this plan is still a create, however often it is edited
+        boolean created = existing != null && existing.created;
+        pending.put(key, new Pending(content, created, existing != null ? existing.group : group));
+    }
+
+    /**
+     * Labels the files generated from here on, e.g. with the make:batch entry producing
+     * them. A file keeps the label it was first generated under.
+     */
+    public void setGroup(String group) {
+        this.group = group;
+    }
+
+    /**
+     * Planned files by the label they were generated under, in generation order.
+     * Files generated before any label was set are under {@code null}.
+     */
+    public Map<String, List<Path>> getFilesByGroup() {
+        Map<String, List<Path>> groups = new LinkedHashMap<>();
+        for (Map.Entry<Path, Pending> entry : pending.entrySet()) {
+            groups.computeIfAbsent(entry.getValue().group, g -> new ArrayList<>()).add(entry.getKey());
+        }
+        return groups;
+    }
+
+    /**
+     * Lets generators replace existing files under the given mode, judged against the
+     * project's manifest. {@link RegenerationMode#OFF} restores the default.
+     */
+    public void regenerate(RegenerationMode mode, GenerationManifest manifest) {
+        this.regenerationMode = mode;
+        this.manifest = mode == RegenerationMode.OFF ? null : manifest;
+    }
+
+    /**
+     * Marks a plan that will be discarded rather than committed, so generators word what
+     * they report as what would happen.
+     */
+    public void setDryRun(boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    public RegenerationMode getRegenerationMode() {
+        return regenerationMode;
+    }
+
+    public GenerationManifest getManifest() {
+        return manifest;
+    }
+
+    void recordGenerated(Path path, String hash) {
+        generatedHashes.put(key(path), hash);
+    }
+
+    void recordUnchanged(Path path, String hash) {
+        unchanged.add(key(path));
+        generatedHashes.put(key(path), hash);
+    }
+
+    void recordSkipped(Path path, String reason) {
+        skipped.put(key(path), reason);
+    }
+
+    /**
+     * Content hash of each file generated through the plan, as rendered by the generator.
+     */
+    public Map<Path, String> getGeneratedHashes() {
+        return Collections.unmodifiableMap(generatedHashes);
+    }
+
+    /**
+     * Existing files that were regenerated with identical content and so not rewritten.
+     */
+    public List<Path> getUnchanged() {
+        return Collections.unmodifiableList(unchanged);
+    }
+
+    /**
+     * Existing files that regeneration left alone, with the reason.
+     */
+    public Map<Path, String> getSkipped() {
+        return Collections.unmodifiableMap(skipped);
+    }
+
+    public boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    /**
+     * Paths of files that will be created, in the order they were first generated.
+     */
+    public List<Path> getCreated() {
+        return select(true);
+    }
+
+    /**
+     * Paths of existing files that will be overwritten, in the order they were first edited.
+     */
+    public List<Path> getUpdated() {
+        return select(false);
+    }
+
+    /**
+     * Writes the plan to disk. Either every file ends up in place or, on failure, the
+     * tree is put back the way it was and the original error is thrown.
+     */
+    public void commit() throws IOException {
+        if (committed) {
+            throw new IllegalStateException("Generation plan has already been committed");
+        }
+        committed = true;
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<Path, byte[]> originals = new LinkedHashMap<>();
+        List<Path> createdDirs = new ArrayList<>();
+        List<Path> temps = new ArrayList<>(pending.size());
+        List<Path> moved = new ArrayList<>(pending.size());
+
+        try {
+            List<GeneratedFile> staged = new ArrayList<>(pending.size());
+            for (Map.Entry<Path, Pending> entry : pending.entrySet()) {
+                Path target = entry.getKey();
+                if (entry.getValue().created) {
+                    if (Files.exists(target)) {
+                        throw new IOException("File already exists: " + target +
+                            ". Use --sync or --force to regenerate it.");
+                    }
+                } else {
+                    originals.put(target, Files.readAllBytes(target));
+                }
+                createParents(target.getParent(), createdDirs);
+
+                Path temp = target.resolveSibling("." + target.getFileName() + TEMP_SUFFIX);
+                temps.add(temp);
+                staged.add(new GeneratedFile(temp, entry.getValue().content));
+            }
+
+            FileGenerator.writeAll(staged, FileGenerator.WRITER_THREADS);
+
+            int i = 0;
+            for (Path target : pending.keySet()) {
+                move(temps.get(i++), target);
+                moved.add(target);
+            }
+        } catch (IOException | RuntimeException e) {
+            rollback(temps, moved, originals, createdDirs, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        onClose.run();
+    }
+
+    private void rollback(List<Path> temps, List<Path> moved, Map<Path, byte[]> originals,
+                          List<Path> createdDirs, Exception cause) {
+        for (Path temp : temps) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                cause.addSuppressed(e);
+            }
+        }
+        for (Path target : moved) {
+            try {
+                byte[] original = originals.get(target);
+                if (original == null) {
+                    Files.deleteIfExists(target);
+                } else {
+                    Files.write(target, original);
+                }
+            } catch (IOException e) {
+                cause.addSuppressed(e);
+            }
+        }
+        // Deepest first, so parents are empty by the time they are reached
+        for (int i = createdDirs.size() - 1; i >= 0; i--) {
+            try {
+                Files.deleteIfExists(createdDirs.get(i));
+            } catch (DirectoryNotEmptyException e) {
+                // Something else was put there meanwhile; leave it
+            } catch (IOException e) {
+                cause.addSuppressed(e);
+            }
+        }
+    }
+
+    /**
+     * Creates {@code dir} and any missing ancestors, recording each one created
+     * (outermost first) so a rollback can remove exactly those.
+     */
+    private static void createParents(Path dir, List<Path> createdDirs) throws IOException {
+        if (dir == null || Files.isDirectory(dir)) {
+            return;
+        }
+        createParents(dir.getParent(), createdDirs);
+        Files.createDirectory(dir);
+        createdDirs.add(dir);
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private List<Path> select(boolean created) {
+        List<Path> result = new ArrayList<>();
+        for (Map.Entry<Path, Pending> entry : pending.entrySet()) {
+            if (entry.getValue().created == created) {
+                result.add(entry.getKey());
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static Path key(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+
+    private static final class Pending {
+        private final String content;
+        private final boolean created;
+        private final String group;
+
+        Pending(String content, boolean created, String group) {
+            this.content = content;
+            this.created = created;
+            this.group = group;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.springhex.generator;
+
+/**
+ * What {@link FileGenerator} does when a file it is asked to generate already exists.
+ */
+public enum RegenerationMode {
+
+    /** Fail with "File already exists". */
+    OFF,
+
+    /**
+     * Rewrite files whose rendered output changed, but only if they still match what the
+     * manifest says was generated. Edited and untracked files are left alone.
+     */
+    SYNC,
+
+    /** Like {@link #SYNC}, and also overwrite existing files the manifest does not track. */
+    FORCE
+}
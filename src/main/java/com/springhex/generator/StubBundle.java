@@ -0,0 +1,102 @@
+package com.springhex.generator;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Read-only view of the stub bundle produced at build time by {@link StubBundleWriter}.
+ *
+ * The bundle is read from the classpath once, on first use, and shared by every
+ * {@link StubProcessor}. Entries are decoded on demand from the in-memory blob.
+ *
+ * Layout: magic, entry count, then one {@code (name, offset, length)} record per stub,
+ * followed by the concatenated UTF-8 stub bodies.
+ */
+final class StubBundle {
+
+    static final String RESOURCE = "stubs.bundle";
+    static final String STUB_EXTENSION = ".stub";
+    static final int MAGIC = 0x48455853; // "HEXS"
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final byte[] data;
+    private final int dataStart;
+    private final Map<String, int[]> entries;
+
+    private StubBundle(byte[] data, int dataStart, Map<String, int[]> entries) {
+        this.data = data;
+        this.dataStart = dataStart;
+        this.entries = entries;
+    }
+
+    /**
+     * Returns the shared bundle, or {@code null} when the classpath has none
+     * (e.g. classes compiled by an IDE without running the Maven build).
+     */
+    static StubBundle get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Returns the stub body with the platform line separator, or {@code null} if absent.
+     */
+    String find(String stubName) {
+        int[] entry = entries.get(stubName);
+        if (entry == null) {
+            return null;
+        }
+        String content = new String(data, dataStart + entry[0], entry[1], StandardCharsets.UTF_8);
+        return "\n".equals(LINE_SEPARATOR) ? content : content.replace("\n", LINE_SEPARATOR);
+    }
+
+    /**
+     * Identifies the stub set this build renders from: the leading digits of the bundle's
+     * SHA-256, or "unbundled" when running without a bundle.
+     */
+    static String version() {
+        return Holder.VERSION;
+    }
+
+    private static StubBundle load() {
+        try (InputStream in = StubBundle.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                return null;
+            }
+            byte[] data = in.readAllBytes();
+
+            DataInputStream header = new DataInputStream(new ByteArrayInputStream(data));
+            if (header.readInt() != MAGIC) {
+                System.err.println("Warning: ignoring unrecognized " + RESOURCE + " on the classpath");
+                return null;
+            }
+
+            int count = header.readInt();
+            Map<String, int[]> entries = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                String name = header.readUTF();
+                int offset = header.readInt();
+                int length = header.readInt();
+                entries.put(name, new int[]{offset, length});
+            }
+
+            int dataStart = data.length - header.available();
+            return new StubBundle(data, dataStart, entries);
+        } catch (IOException e) {
+            System.err.println("Warning: could not read " + RESOURCE + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static final class Holder {
+        private static final StubBundle INSTANCE = load();
+        private static final String VERSION = INSTANCE == null
+            ? "unbundled"
+            : GenerationManifest.hash(INSTANCE.data).substring(0, 12);
+    }
+}
@@ -0,0 +1,89 @@
+package com.springhex.generator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Build-time tool that packs every {@code .stub} file under a directory into a single
+ * indexed bundle read by {@link StubBundle}. Invoked by the Maven build during
+ * {@code process-classes}:
+ *
+ * <pre>
+ * StubBundleWriter &lt;stubs-dir&gt; &lt;bundle-file&gt;
+ * </pre>
+ *
+ * Line endings are normalized to {@code \n} and the final line terminator is dropped,
+ * matching what the line-based classpath loader produced.
+ */
+public final class StubBundleWriter {
+
+    private StubBundleWriter() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: StubBundleWriter <stubs-dir> <bundle-file>");
+        }
+        Path stubsDir = Paths.get(args[0]);
+        Path bundleFile = Paths.get(args[1]);
+
+        int count = write(stubsDir, bundleFile);
+        System.out.println("Bundled " + count + " stubs into " + bundleFile);
+    }
+
+    static int write(Path stubsDir, Path bundleFile) throws IOException {
+        List<Path> stubFiles;
+        try (Stream<Path> walk = Files.walk(stubsDir)) {
+            stubFiles = walk
+                .filter(Files::isRegularFile)
+                .filter(p -> p.getFileName().toString().endsWith(StubBundle.STUB_EXTENSION))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        ByteArrayOutputStream index = new ByteArrayOutputStream();
+        DataOutputStream indexOut = new DataOutputStream(index);
+
+        for (Path stubFile : stubFiles) {
+            String relative = stubsDir.relativize(stubFile).toString().replace('\\', '/');
+            String name = relative.substring(0, relative.length() - StubBundle.STUB_EXTENSION.length());
+            byte[] content = normalize(Files.readString(stubFile, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+
+            indexOut.writeUTF(name);
+            indexOut.writeInt(data.size());
+            indexOut.writeInt(content.length);
+            data.write(content);
+        }
+        indexOut.flush();
+
+        Path parent = bundleFile.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (OutputStream fileOut = Files.newOutputStream(bundleFile);
+             DataOutputStream out = new DataOutputStream(fileOut)) {
+            out.writeInt(StubBundle.MAGIC);
+            out.writeInt(stubFiles.size());
+            index.writeTo(out);
+            data.writeTo(out);
+        }
+        return stubFiles.size();
+    }
+
+    private static String normalize(String content) {
+        String normalized = content.replace("\r\n", "\n").replace('\r', '\n');
+        if (normalized.endsWith("\n")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized;
+    }
+}
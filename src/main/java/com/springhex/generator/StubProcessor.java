@@ -6,19 +6,46 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class StubProcessor {
 
     private static final String STUBS_PATH = "stubs/";
-    private static final String STUB_EXTENSION = ".stub";
+    private static final String STUB_EXTENSION = StubBundle.STUB_EXTENSION;
+
+    // Compiled stubs are immutable, so every processor (including ConfigAppender's) shares them
+    private static final Map<String, CompiledStub> COMPILED_STUBS = new ConcurrentHashMap<>();
 
     public String process(String stubName, Map<String, String> replacements) throws IOException {
-        String template = loadStub(stubName);
-        return applyReplacements(template, replacements);
+        return compile(stubName).render(replacements);
+    }
+
+    /**
+     * Loads and parses a stub once; later calls for the same name reuse the compiled form.
+     */
+    public CompiledStub compile(String stubName) throws IOException {
+        CompiledStub compiled = COMPILED_STUBS.get(stubName);
+        if (compiled == null) {
+            compiled = CompiledStub.compile(stubName, loadStub(stubName));
+            COMPILED_STUBS.putIfAbsent(stubName, compiled);
+        }
+        return compiled;
     }
 
+    /**
+     * Returns the raw stub text, preferring the build-time bundle and falling back to
+     * the individual classpath resource when no bundle is present.
+     */
     public String loadStub(String stubName) throws IOException {
+        StubBundle bundle = StubBundle.get();
+        if (bundle != null) {
+            String content = bundle.find(stubName);
+            if (content != null) {
+                return content;
+            }
+        }
+
         String resourcePath = STUBS_PATH + stubName + STUB_EXTENSION;
         
         try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(resourcePath)) {
@@ -33,11 +60,7 @@ public class StubProcessor {
         }
     }
 
-    public String applyReplacements(String template, Map<String, String> replacements) {
-        String result = template;
-        for (Map.Entry<String, String> entry : replacements.entrySet()) {
-            result = result.replace(entry.getKey(), entry.getValue());
-        }
-        return result;
+    public String applyReplacements(String template, Map<String, String> replacements) throws IOException {
+        return CompiledStub.compile("inline", template).render(replacements);
     }
 }
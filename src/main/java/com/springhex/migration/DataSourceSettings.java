@@ -0,0 +1,188 @@
+package com.springhex.migration;
+
+import com.springhex.util.ClientEnvironment;
+
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The datasource and Flyway settings of a Spring Boot project, read the way the application
+ * would see them without a profile: {@code application.properties}, then
+ * {@code application.yml}/{@code .yaml} (documents bound to a profile are skipped), then the
+ * {@code SPRING_DATASOURCE_*} and {@code SPRING_FLYWAY_*} environment variables.
+ * {@code ${NAME:default}} placeholders are resolved against the environment.
+ */
+public final class DataSourceSettings {
+
+    private static final String RESOURCES = "src/main/resources";
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([^}:]+)(?::([^}]*))?}");
+    private static final String FLYWAY_PREFIX = "spring.flyway.";
+    /** The {@code spring.flyway.*} settings the in-process runner honours, without dashes */
+    private static final Set<String> SUPPORTED_FLYWAY_SETTINGS = Set.of("url", "user", "password", "locations", "outoforder");
+
+    private final Map<String, String> properties;
+
+    private DataSourceSettings(Map<String, String> properties) {
+        this.properties = properties;
+    }
+
+    public static DataSourceSettings load(Path projectRoot) throws IOException {
+        Map<String, String> properties = new HashMap<>();
+
+        Path propertiesFile = projectRoot.resolve(RESOURCES).resolve("application.properties");
+        if (Files.exists(propertiesFile)) {
+            Properties loaded = new Properties();
+            try (Reader reader = Files.newBufferedReader(propertiesFile, StandardCharsets.UTF_8)) {
+                loaded.load(reader);
+            }
+            for (String name : loaded.stringPropertyNames()) {
+                properties.put(name, loaded.getProperty(name));
+            }
+        }
+
+        for (String name : new String[]{"application.yml", "application.yaml"}) {
+            Path yamlFile = projectRoot.resolve(RESOURCES).resolve(name);
+            if (Files.exists(yamlFile)) {
+                try (InputStream in = Files.newInputStream(yamlFile)) {
+                    for (Object document : new Yaml(new SafeConstructor(new LoaderOptions())).loadAll(in)) {
+                        Map<String, String> flat = new HashMap<>();
+                        flatten("", document, flat);
+                        if (!flat.containsKey("spring.config.activate.on-profile") && !flat.containsKey("spring.profiles")) {
+                            flat.forEach(properties::putIfAbsent);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    throw new IOException("Could not parse " + name + ": " + e.getMessage(), e);
+                }
+            }
+        }
+
+        // Spring's relaxed binding: SPRING_DATASOURCE_URL overrides spring.datasource.url
+        for (String name : List.of("spring.datasource.url", "spring.datasource.username", "spring.datasource.password",
+                "spring.flyway.url", "spring.flyway.user", "spring.flyway.password", "spring.flyway.locations", "spring.flyway.out-of-order")) {
+            String value = ClientEnvironment.getenv(name.toUpperCase().replace('.', '_').replace("-", ""));
+            if (value != null) {
+                properties.put(name, value);
+            }
+        }
+        return new DataSourceSettings(properties);
+    }
+
+    /**
+     * The JDBC URL, preferring a Flyway-specific one, or {@code null} when none is configured.
+     */
+    public String getUrl() {
+        String url = get("spring.flyway.url");
+        return url != null ? url : get("spring.datasource.url");
+    }
+
+    public String getUsername() {
+        return get(get("spring.flyway.url") != null ? "spring.flyway.user" : "spring.datasource.username");
+    }
+
+    public String getPassword() {
+        return get(get("spring.flyway.url") != null ? "spring.flyway.password" : "spring.datasource.password");
+    }
+
+    /**
+     * Flyway's script locations as project paths: {@code classpath:} locations map into
+     * {@code src/main/resources}, {@code filesystem:} ones are taken as they are.
+     */
+    public List<Path> getLocations(Path projectRoot) {
+        String configured = get("spring.flyway.locations");
+        List<Path> locations = new ArrayList<>();
+        for (String location : (configured != null ? configured : "classpath:db/migration").split(",")) {
+            location = location.trim();
+            if (location.startsWith("filesystem:")) {
+                locations.add(projectRoot.resolve(location.substring("filesystem:".length())));
+            } else if (!location.isEmpty()) {
+                String path = location.startsWith("classpath:") ? location.substring("classpath:".length()) : location;
+                locations.add(projectRoot.resolve(RESOURCES).resolve(path.startsWith("/") ? path.substring(1) : path));
+            }
+        }
+        return locations;
+    }
+
+    public boolean isOutOfOrder() {
+        return Boolean.parseBoolean(get("spring.flyway.out-of-order"));
+    }
+
+    /**
+     * The {@code spring.flyway.*} settings, from the configuration files or the environment,
+     * that the in-process runner does not apply, such as {@code table}, {@code schemas} or
+     * {@code placeholders.*}. {@code enabled=true} is accepted as the default it is.
+     */
+    public Set<String> getUnsupportedFlywaySettings() {
+        Set<String> unsupported = new TreeSet<>();
+        for (String name : properties.keySet()) {
+            if (name.startsWith(FLYWAY_PREFIX) && !isSupportedFlywaySetting(name.substring(FLYWAY_PREFIX.length()), get(name))) {
+                unsupported.add(name);
+            }
+        }
+        for (Map.Entry<String, String> variable : ClientEnvironment.getenv().entrySet()) {
+            String name = variable.getKey();
+            if (name.startsWith("SPRING_FLYWAY_")
+                    && !isSupportedFlywaySetting(name.substring("SPRING_FLYWAY_".length()).replace("_", ""), variable.getValue())) {
+                unsupported.add(name);
+            }
+        }
+        return unsupported;
+    }
+
+    private static boolean isSupportedFlywaySetting(String name, String value) {
+        String relaxed = name.toLowerCase().replace("-", "");
+        if (relaxed.equals("enabled")) {
+            return Boolean.parseBoolean(value);
+        }
+        return SUPPORTED_FLYWAY_SETTINGS.contains(relaxed);
+    }
+
+    private String get(String name) {
+        String value = properties.get(name);
+        if (value == null) {
+            return null;
+        }
+        Matcher m = PLACEHOLDER.matcher(value);
+        StringBuilder resolved = new StringBuilder();
+        while (m.find()) {
+            String env = ClientEnvironment.getenv(m.group(1));
+            String replacement = env != null ? env : properties.getOrDefault(m.group(1), m.group(2) != null ? m.group(2) : m.group());
+            m.appendReplacement(resolved, Matcher.quoteReplacement(replacement));
+        }
+        m.appendTail(resolved);
+        return resolved.toString();
+    }
+
+    private static void flatten(String prefix, Object node, Map<String, String> out) {
+        if (node instanceof Map<?, ?> map) {
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                flatten(prefix.isEmpty() ? String.valueOf(entry.getKey()) : prefix + "." + entry.getKey(), entry.getValue(), out);
+            }
+        } else if (node instanceof List<?> list) {
+            List<String> values = new ArrayList<>();
+            for (Object item : list) {
+                values.add(String.valueOf(item));
+            }
+            out.put(prefix, String.join(",", values));
+        } else if (node != null) {
+            out.put(prefix, String.valueOf(node));
+        }
+    }
+}
@@ -0,0 +1,421 @@
+package com.springhex.migration;
+
+import com.springhex.util.MigrationLock;
+import com.springhex.util.ProjectClasspath;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Driver;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Applies Flyway SQL migrations over plain JDBC, without starting Maven, Gradle or Flyway.
+ *
+ * Versioned ({@code V1__x.sql}) and repeatable ({@code R__x.sql}) scripts are applied in
+ * Flyway's order over a single connection, each script as one JDBC batch in its own
+ * transaction, and recorded in a {@code flyway_schema_history} table Flyway itself accepts:
+ * same columns, same checksums, scripts named relative to their location. Like Flyway's
+ * validate-on-migrate, it refuses to run when an applied migration was edited or removed,
+ * failed earlier, or when a pending version is older than the applied ones.
+ *
+ * The JDBC driver is loaded from the project's own classpath (see {@link ProjectClasspath}).
+ */
+public final class FlywayMigrator implements AutoCloseable {
+
+    public static final String HISTORY_TABLE = "flyway_schema_history";
+
+    private static final Pattern SCRIPT = Pattern.compile("(?:V(.+?)|R)__(.*)\\.sql");
+    // Databases whose DDL statements commit implicitly, so a failed script cannot be rolled back
+    private static final List<String> NON_TRANSACTIONAL_DDL = List.of("MySQL", "MariaDB", "Oracle", "H2", "HSQL Database Engine");
+
+    private final Connection connection;
+    private final URLClassLoader driverLoader;
+    private final String installedBy;
+    private final String quote;
+    private final boolean transactionalDdl;
+
+    private FlywayMigrator(Connection connection, URLClassLoader driverLoader, String installedBy) throws SQLException {
+        this.connection = connection;
+        this.driverLoader = driverLoader;
+        this.installedBy = installedBy;
+        String quote = connection.getMetaData().getIdentifierQuoteString();
+        this.quote = quote == null || quote.isBlank() ? "" : quote;
+        this.transactionalDdl = !NON_TRANSACTIONAL_DDL.contains(connection.getMetaData().getDatabaseProductName());
+    }
+
+    /**
+     * Connects to the configured database with a driver found on the project's classpath.
+     */
+    public static FlywayMigrator connect(Path projectRoot, DataSourceSettings settings) throws IOException {
+        List<URL> urls = new ArrayList<>();
+        for (Path entry : ProjectClasspath.resolve(projectRoot)) {
+            try {
+                urls.add(entry.toUri().toURL());
+            } catch (MalformedURLException e) {
+                throw new IOException("Bad classpath entry " + entry, e);
+            }
+        }
+        URLClassLoader loader = new URLClassLoader(urls.toArray(new URL[0]), ClassLoader.getPlatformClassLoader());
+
+        String url = settings.getUrl();
+        Properties info = new Properties();
+        if (settings.getUsername() != null) {
+            info.setProperty("user", settings.getUsername());
+        }
+        if (settings.getPassword() != null) {
+            info.setProperty("password", settings.getPassword());
+        }
+
+        try {
+            // DriverManager only hands out drivers visible to the caller's class loader, so ask each one directly
+            for (Driver driver : ServiceLoader.load(Driver.class, loader)) {
+                if (driver.acceptsURL(url)) {
+                    Connection connection = driver.connect(url, info);
+                    if (connection != null) {
+                        String user = settings.getUsername() != null
+                            ? settings.getUsername() : connection.getMetaData().getUserName();
+                        return new FlywayMigrator(connection, loader, user != null ? user : "spring-hex");
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            closeQuietly(loader);
+            throw new MigrationException("Could not connect to the database: " + e.getMessage(), e);
+        } catch (ServiceConfigurationError e) {
+            closeQuietly(loader);
+            throw new MigrationException("Could not load a JDBC driver from the project classpath: " + e.getMessage(), e);
+        }
+        closeQuietly(loader);
+        throw new MigrationException("No JDBC driver on the project classpath accepts the configured URL.");
+    }
+
+    public String getDatabaseName() throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        return metaData.getDatabaseProductName() + " " + metaData.getDatabaseProductVersion();
+    }
+
+    /**
+     * Applies every pending migration found under the given locations.
+     *
+     * @return the scripts applied, in order, with their execution time in milliseconds
+     */
+    public Map<String, Long> migrate(List<Path> locations, boolean outOfOrder) throws IOException, SQLException {
+        List<Script> resolved = resolve(locations);
+        connection.setAutoCommit(false);
+        createHistoryTable();
+        List<Applied> history = readHistory();
+
+        Map<MigrationVersion, Script> byVersion = new HashMap<>();
+        Map<String, Script> repeatables = new HashMap<>();
+        for (Script script : resolved) {
+            if (script.version == null) {
+                repeatables.put(script.description, script);
+            } else if (byVersion.putIfAbsent(script.version, script) != null) {
+                throw new MigrationException("Found more than one migration with version " + script.version);
+            }
+        }
+
+        MigrationVersion current = null;
+        Map<String, Integer> repeatableChecksums = new HashMap<>();
+        for (Applied applied : history) {
+            if (!applied.success) {
+                throw new MigrationException("Migration " + applied.script + " failed in an earlier run. "
+                    + "Clean up its partial changes and remove its row from " + HISTORY_TABLE + ".");
+            }
+            if (applied.version != null && (current == null || applied.version.compareTo(current) > 0)) {
+                // Baseline rows count towards the current version too
+                current = applied.version;
+            }
+            if (!"SQL".equals(applied.type)) {
+                continue;
+            }
+            if (applied.version == null) {
+                repeatableChecksums.put(applied.description, applied.checksum);
+                continue;
+            }
+            Script script = byVersion.get(applied.version);
+            if (script == null) {
+                throw new MigrationException("Applied migration " + applied.script + " was not found locally.");
+            }
+            if (applied.checksum == null || applied.checksum != script.checksum) {
+                throw new MigrationException("Checksum mismatch for " + script.name + ": applied "
+                    + applied.checksum + ", local " + script.checksum + ". Applied migrations must not be edited.");
+            }
+        }
+
+        List<Script> pending = new ArrayList<>();
+        for (Script script : new TreeMap<>(byVersion).values()) {
+            if (history.stream().noneMatch(a -> script.version.equals(a.version))) {
+                if (current != null && script.version.compareTo(current) < 0 && !outOfOrder) {
+                    throw new MigrationException(script.name + " is older than the applied version " + current
+                        + ". Set spring.flyway.out-of-order=true to apply it anyway.");
+                }
+                pending.add(script);
+            }
+        }
+        repeatables.values().stream()
+            .filter(r -> !Integer.valueOf(r.checksum).equals(repeatableChecksums.get(r.description)))
+            .sorted(Comparator.comparing(r -> r.description))
+            .forEach(pending::add);
+
+        int rank = history.stream().mapToInt(a -> a.rank).max().orElse(0);
+        Map<String, Long> applied = new LinkedHashMap<>();
+        for (Script script : pending) {
+            applied.put(script.name, apply(script, ++rank));
+        }
+        return applied;
+    }
+
+    /**
+     * Drops every table, view and sequence in the connection's schema, history included.
+     */
+    public void clean() throws SQLException {
+        connection.setAutoCommit(true);
+        DatabaseMetaData metaData = connection.getMetaData();
+        String product = metaData.getDatabaseProductName();
+        try (Statement statement = connection.createStatement()) {
+            if (product.equals("H2")) {
+                statement.execute("DROP ALL OBJECTS");
+                return;
+            }
+
+            boolean mysql = product.equals("MySQL") || product.equals("MariaDB");
+            if (!mysql && !product.equals("PostgreSQL")) {
+                throw new MigrationException("Cleaning " + product + " in-process is not supported; use --build-tool.");
+            }
+            if (mysql) {
+                statement.execute("SET FOREIGN_KEY_CHECKS = 0");
+            }
+            String catalog = connection.getCatalog();
+            String schema = connection.getSchema();
+            for (String type : new String[]{"VIEW", "MATERIALIZED VIEW", "TABLE", "SEQUENCE"}) {
+                List<String> names = new ArrayList<>();
+                try (ResultSet tables = metaData.getTables(catalog, schema, "%", new String[]{type})) {
+                    while (tables.next()) {
+                        names.add(tables.getString("TABLE_NAME"));
+                    }
+                }
+                for (String name : names) {
+                    statement.addBatch("DROP " + type + " IF EXISTS " + quote(name) + (mysql ? "" : " CASCADE"));
+                }
+            }
+            statement.executeBatch();
+            if (mysql) {
+                statement.execute("SET FOREIGN_KEY_CHECKS = 1");
+            }
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            connection.close();
+        } finally {
+            closeQuietly(driverLoader);
+        }
+    }
+
+    private long apply(Script script, int rank) throws IOException, SQLException {
+        String sql = Files.readString(script.path, StandardCharsets.UTF_8);
+        long start = System.nanoTime();
+        try (Statement statement = connection.createStatement()) {
+            for (String part : SqlScript.split(sql)) {
+                statement.addBatch(part);
+            }
+            statement.executeBatch();
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            recordHistory(script, rank, elapsedMillis, true);
+            connection.commit();
+            return elapsedMillis;
+        } catch (SQLException e) {
+            connection.rollback();
+            SQLException cause = e.getNextException() != null ? e.getNextException() : e;
+            if (transactionalDdl) {
+                throw new MigrationException("Migration " + script.name + " failed: " + cause.getMessage(), e);
+            }
+            // The statements before the failing one stay applied; record the failure as Flyway
+            // does, so the next run stops until someone repairs it
+            try {
+                recordHistory(script, rank, (System.nanoTime() - start) / 1_000_000, false);
+                connection.commit();
+            } catch (SQLException recordError) {
+                e.addSuppressed(recordError);
+            }
+            throw new MigrationException("Migration " + script.name + " failed: " + cause.getMessage()
+                + ". " + connection.getMetaData().getDatabaseProductName() + " cannot roll back DDL, so its earlier"
+                + " statements may have been applied; it was recorded as failed in " + HISTORY_TABLE + ".", e);
+        }
+    }
+
+    private void recordHistory(Script script, int rank, long elapsedMillis, boolean success) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + quote(HISTORY_TABLE)
+                + " (" + columns("installed_rank", "version", "description", "type", "script", "checksum",
+                "installed_by", "execution_time", "success") + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            insert.setInt(1, rank);
+            insert.setString(2, script.version == null ? null : script.version.toString());
+            insert.setString(3, script.description);
+            insert.setString(4, "SQL");
+            insert.setString(5, script.name);
+            insert.setInt(6, script.checksum);
+            insert.setString(7, installedBy);
+            insert.setInt(8, (int) elapsedMillis);
+            insert.setBoolean(9, success);
+            insert.executeUpdate();
+        }
+    }
+
+    private void createHistoryTable() throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet tables = metaData.getTables(connection.getCatalog(), connection.getSchema(), HISTORY_TABLE, null)) {
+            if (tables.next()) {
+                return;
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE " + quote(HISTORY_TABLE) + " ("
+                + quote("installed_rank") + " INT NOT NULL, "
+                + quote("version") + " VARCHAR(50), "
+                + quote("description") + " VARCHAR(200) NOT NULL, "
+                + quote("type") + " VARCHAR(20) NOT NULL, "
+                + quote("script") + " VARCHAR(1000) NOT NULL, "
+                + quote("checksum") + " INT, "
+                + quote("installed_by") + " VARCHAR(100) NOT NULL, "
+                + quote("installed_on") + " TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL, "
+                + quote("execution_time") + " INT NOT NULL, "
+                + quote("success") + " BOOLEAN NOT NULL, "
+                + "CONSTRAINT " + quote(HISTORY_TABLE + "_pk") + " PRIMARY KEY (" + quote("installed_rank") + "))");
+            statement.execute("CREATE INDEX " + quote(HISTORY_TABLE + "_s_idx") + " ON " + quote(HISTORY_TABLE)
+                + " (" + quote("success") + ")");
+        }
+        connection.commit();
+    }
+
+    private List<Applied> readHistory() throws SQLException {
+        List<Applied> history = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT " + columns("installed_rank", "version", "description",
+                 "type", "script", "checksum", "success") + " FROM " + quote(HISTORY_TABLE)
+                 + " ORDER BY " + quote("installed_rank"))) {
+            while (rows.next()) {
+                int checksum = rows.getInt(6);
+                Integer nullableChecksum = rows.wasNull() ? null : checksum;
+                String version = rows.getString(2);
+                history.add(new Applied(rows.getInt(1), version == null ? null : MigrationVersion.parse(version),
+                    rows.getString(3), rows.getString(4), rows.getString(5), nullableChecksum, rows.getBoolean(7)));
+            }
+        }
+        return history;
+    }
+
+    private static List<Script> resolve(List<Path> locations) throws IOException {
+        List<Script> scripts = new ArrayList<>();
+        for (Path location : locations) {
+            if (!Files.isDirectory(location)) {
+                continue;
+            }
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(location)) {
+                files = walk.filter(Files::isRegularFile).sorted().toList();
+            }
+            for (Path file : files) {
+                Matcher m = SCRIPT.matcher(file.getFileName().toString());
+                if (!m.matches()) {
+                    continue;
+                }
+                MigrationVersion version = null;
+                if (m.group(1) != null) {
+                    version = MigrationVersion.parse(m.group(1));
+                    if (version == null) {
+                        throw new MigrationException("Invalid version in " + file.getFileName());
+                    }
+                }
+                String name = location.relativize(file).toString().replace('\\', '/');
+                scripts.add(new Script(file, name, version, m.group(2).replace('_', ' '), MigrationLock.checksum(file)));
+            }
+        }
+        return scripts;
+    }
+
+    private String columns(String... names) {
+        StringBuilder columns = new StringBuilder();
+        for (String name : names) {
+            if (columns.length() > 0) {
+                columns.append(", ");
+            }
+            columns.append(quote(name));
+        }
+        return columns.toString();
+    }
+
+    private String quote(String identifier) {
+        return quote + identifier + quote;
+    }
+
+    private static void closeQuietly(URLClassLoader loader) {
+        try {
+            loader.close();
+        } catch (IOException e) {
+            // only open jar handles are lost
+        }
+    }
+
+    private static final class Script {
+        private final Path path;
+        private final String name;
+        private final MigrationVersion version;
+        private final String description;
+        private final int checksum;
+
+        Script(Path path, String name, MigrationVersion version, String description, int checksum) {
+            this.path = path;
+            this.name = name;
+            this.version = version;
+            this.description = description;
+            this.checksum = checksum;
+        }
+    }
+
+    private static final class Applied {
+        private final int rank;
+        private final MigrationVersion version;
+        private final String description;
+        private final String type;
+        private final String script;
+        private final Integer checksum;
+        private final boolean success;
+
+        Applied(int rank, MigrationVersion version, String description, String type, String script,
+                Integer checksum, boolean success) {
+            this.rank = rank;
+            this.version = version;
+            this.description = description;
+            this.type = type;
+            this.script = script;
+            this.checksum = checksum;
+            this.success = success;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.springhex.migration;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A Flyway version: dot- or underscore-separated numbers, trailing zeros insignificant
+ * ({@code 1.0} equals {@code 1}).
+ */
+public final class MigrationVersion implements Comparable<MigrationVersion> {
+
+    private final String text;
+    private final List<BigInteger> parts;
+
+    private MigrationVersion(String text, List<BigInteger> parts) {
+        this.text = text;
+        this.parts = parts;
+    }
+
+    /**
+     * Parses the version part of a file name such as {@code V1_2__x.sql}, or returns
+     * {@code null} if it is not numeric.
+     */
+    public static MigrationVersion parse(String text) {
+        String normalized = text.replace('_', '.');
+        List<BigInteger> parts = new ArrayList<>();
+        for (String part : normalized.split("\\.")) {
+            try {
+                parts.add(new BigInteger(part));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        while (parts.size() > 1 && parts.get(parts.size() - 1).signum() == 0) {
+            parts.remove(parts.size() - 1);
+        }
+        return new MigrationVersion(normalized, parts);
+    }
+
+    @Override
+    public int compareTo(MigrationVersion other) {
+        for (int i = 0; i < Math.max(parts.size(), other.parts.size()); i++) {
+            BigInteger a = i < parts.size() ? parts.get(i) : BigInteger.ZERO;
+            BigInteger b = i < other.parts.size() ? other.parts.get(i) : BigInteger.ZERO;
+            int cmp = a.compareTo(b);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof MigrationVersion other && parts.equals(other.parts);
+    }
+
+    @Override
+    public int hashCode() {
+        return parts.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,92 @@
+package com.springhex.migration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a SQL migration into statements on {@code ;}, ignoring semicolons inside quotes,
+ * comments and PostgreSQL dollar-quoted bodies. Custom delimiters ({@code DELIMITER //})
+ * are not supported.
+ */
+final class SqlScript {
+
+    private SqlScript() {}
+
+    static List<String> split(String sql) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            char next = i + 1 < length ? sql.charAt(i + 1) : '\0';
+
+            if (c == '-' && next == '-') {
+                int end = sql.indexOf('\n', i);
+                i = end < 0 ? length : end;
+            } else if (c == '/' && next == '*') {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+                current.append(' ');
+            } else if (c == '\'' || c == '"' || c == '`') {
+                int end = closingQuote(sql, i, c);
+                current.append(sql, i, end);
+                i = end;
+            } else if (c == '$' && dollarTag(sql, i) != null) {
+                String tag = dollarTag(sql, i);
+                int end = sql.indexOf(tag, i + tag.length());
+                end = end < 0 ? length : end + tag.length();
+                current.append(sql, i, end);
+                i = end;
+            } else if (c == ';') {
+                add(statements, current);
+                current.setLength(0);
+                i++;
+            } else {
+                current.append(c);
+                i++;
+            }
+        }
+        add(statements, current);
+        return statements;
+    }
+
+    private static void add(List<String> statements, StringBuilder statement) {
+        String trimmed = statement.toString().trim();
+        if (!trimmed.isEmpty()) {
+            statements.add(trimmed);
+        }
+    }
+
+    /**
+     * Index just past the quote closing the one at {@code start}; a doubled quote is an escape.
+     */
+    private static int closingQuote(String sql, int start, char quote) {
+        int i = start + 1;
+        while (i < sql.length()) {
+            if (sql.charAt(i) == quote) {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return sql.length();
+    }
+
+    /**
+     * The {@code $tag$} starting at {@code start}, or {@code null} if there is none.
+     */
+    private static String dollarTag(String sql, int start) {
+        int i = start + 1;
+        while (i < sql.length() && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '_')) {
+            i++;
+        }
+        if (i < sql.length() && sql.charAt(i) == '$' && (i == start + 1 || !Character.isDigit(sql.charAt(start + 1)))) {
+            return sql.substring(start, i + 1);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,118 @@
+package com.springhex.util;
+
+import com.springhex.util.BuildToolDetector.BuildTool;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Which test classes the build itself would run, so that an explicit list of classes
+ * ({@code -Dtest=...}, {@code --tests ...}) does not widen or narrow {@code mvn test}.
+ *
+ * Surefire's {@code -Dtest} replaces the plugin's {@code <includes>} and {@code <excludes>},
+ * so for Maven those are read from the pom (falling back to Surefire's defaults) and applied
+ * here first. Gradle keeps the build script's own filters next to {@code --tests}, so every
+ * class is accepted.
+ */
+public final class BuildTestFilter {
+
+    private static final List<String> SUREFIRE_DEFAULT_INCLUDES =
+        List.of("**/Test*.java", "**/*Test.java", "**/*Tests.java", "**/*TestCase.java");
+    private static final Pattern SUREFIRE_PLUGIN = Pattern.compile(
+        "<plugin>(?:(?!</?plugin>).)*<artifactId>maven-surefire-plugin</artifactId>(?:(?!</?plugin>).)*</plugin>",
+        Pattern.DOTALL);
+    private static final Pattern INCLUDES = Pattern.compile("<includes>(.*?)</includes>", Pattern.DOTALL);
+    private static final Pattern EXCLUDES = Pattern.compile("<excludes>(.*?)</excludes>", Pattern.DOTALL);
+    private static final Pattern INCLUDE = Pattern.compile("<include>(.*?)</include>", Pattern.DOTALL);
+    private static final Pattern EXCLUDE = Pattern.compile("<exclude>(.*?)</exclude>", Pattern.DOTALL);
+
+    private BuildTestFilter() {}
+
+    /**
+     * A test over fully qualified class names.
+     */
+    public static Predicate<String> load(Path projectRoot, BuildTool tool) throws IOException {
+        Path pom = projectRoot.resolve("pom.xml");
+        if (tool != BuildTool.MAVEN || !Files.exists(pom)) {
+            return className -> true;
+        }
+        List<String> includes = new ArrayList<>();
+        List<String> excludes = new ArrayList<>();
+        Matcher plugin = SUREFIRE_PLUGIN.matcher(Files.readString(pom));
+        while (plugin.find()) {
+            patterns(INCLUDES, INCLUDE, plugin.group(), includes);
+            patterns(EXCLUDES, EXCLUDE, plugin.group(), excludes);
+        }
+        List<Pattern> included = compile(includes.isEmpty() ? SUREFIRE_DEFAULT_INCLUDES : includes);
+        List<Pattern> excluded = compile(excludes);
+        return className -> {
+            String path = className.replace('.', '/');
+            return matchesAny(included, path) && !matchesAny(excluded, path);
+        };
+    }
+
+    private static void patterns(Pattern list, Pattern element, String plugin, List<String> out) {
+        Matcher lists = list.matcher(plugin);
+        while (lists.find()) {
+            Matcher elements = element.matcher(lists.group(1));
+            while (elements.find()) {
+                // Surefire accepts several comma-separated patterns in one element
+                for (String pattern : elements.group(1).split(",")) {
+                    if (!pattern.isBlank()) {
+                        out.add(pattern.trim());
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean matchesAny(List<Pattern> patterns, String path) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(path).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Surefire patterns as regexes over a class's path without extension: Ant-style globs
+     * ({@code **}{@code /*IT.java}) or {@code %regex[...]}.
+     */
+    private static List<Pattern> compile(List<String> patterns) {
+        List<Pattern> compiled = new ArrayList<>();
+        for (String pattern : patterns) {
+            if (pattern.startsWith("%regex[") && pattern.endsWith("]")) {
+                String regex = pattern.substring("%regex[".length(), pattern.length() - 1);
+                compiled.add(Pattern.compile("(?:" + regex.replaceAll("\\\\?\\.(?:class|java)$", "") + ")(?:\\.(?:class|java))?"));
+                continue;
+            }
+            String glob = pattern.replace('\\', '/').replaceAll("\\.(?:class|java)$", "");
+            StringBuilder regex = new StringBuilder();
+            for (int i = 0; i < glob.length(); i++) {
+                char c = glob.charAt(i);
+                if (glob.startsWith("**/", i)) {
+                    regex.append("(?:.*/)?");
+                    i += 2;
+                } else if (glob.startsWith("**", i)) {
+                    regex.append(".*");
+                    i++;
+                } else if (c == '*') {
+                    regex.append("[^/]*");
+                } else if (c == '?') {
+                    regex.append("[^/]");
+                } else {
+                    regex.append(Pattern.quote(String.valueOf(c)));
+                }
+            }
+            compiled.add(Pattern.compile(regex.toString()));
+        }
+        return compiled;
+    }
+}
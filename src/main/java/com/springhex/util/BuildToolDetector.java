@@ -1,13 +1,67 @@
 package com.springhex.util;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
+/**
+ * Finds a project's build tool and runs it as warm as it safely can.
+ *
+ * Maven goes through {@code mvnd} when it is on the PATH, so the build JVM is reused between
+ * invocations, unless the project has a Maven wrapper pinning another Maven version than the
+ * one mvnd bundles; the choice is printed. Gradle gets {@code --daemon} and, from 8.1 on, the configuration cache.
+ * {@code -ntp} is added where the Maven version is known to support it. Once an invocation
+ * has succeeded, repeating it with unchanged build files runs offline, since everything it
+ * needs is then in the local cache; those successes are remembered in {@code .hex/builds}.
+ * Builds that declare SNAPSHOT, dynamic ({@code 1.+}, {@code latest.release}) or ranged
+ * versions always stay online, since what they resolve to can change without a build file
+ * changing.
+ * {@code SPRING_HEX_PLAIN_BUILD=1} turns all of this off.
+ */
 public class BuildToolDetector {
 
     public enum BuildTool { MAVEN, GRADLE }
 
+    public static final String BUILDS_FILE = ".hex/builds";
+
+    private static final List<String> BUILD_FILES = List.of(
+        "pom.xml", "build.gradle", "build.gradle.kts", "settings.gradle", "settings.gradle.kts");
+    private static final Set<String> WARM_FLAGS = Set.of(
+        "-o", "-ntp", "--offline", "--daemon", "--configuration-cache", "--configuration-cache-problems=warn");
+    // A dependency version Maven may resolve differently from one day to the next
+    private static final Pattern MAVEN_CHANGING_VERSION = Pattern.compile("-SNAPSHOT|^(?:LATEST|RELEASE)$|^[\\[(]");
+    private static final Pattern MAVEN_COORDINATES = Pattern.compile("(?s)<(dependency|plugin|extension|parent)>(.*?)</\\1>");
+    private static final Pattern MAVEN_PROPERTY = Pattern.compile("<([\\w.-]+)>([^<]*)</\\1>");
+    // Gradle's -SNAPSHOT, 1.+, + and latest.release notations and version ranges
+    private static final Pattern GRADLE_CHANGING_VERSION = Pattern.compile(
+        "-SNAPSHOT\\b|[\\d.:'\"]\\+['\"]|\\blatest\\.\\w+|:[\\[(][^'\"]*['\"]|\"[\\[(][^\"]*,");
+    private static final Pattern GRADLE_PROJECT_VERSION = Pattern.compile("(?m)^\\s*version\\s*[=(].*$");
+    // Where mvnd is on a given PATH, if anywhere; under the daemon each client brings its own
+    private static final Map<String, Optional<Path>> MVND_ON_PATH = new ConcurrentHashMap<>();
+    // The Maven version bundled with each mvnd installation, read from its mvn/lib
+    private static final Map<Path, Optional<String>> MVND_MAVEN_VERSION = new ConcurrentHashMap<>();
+    private static final Pattern MAVEN_CORE_JAR = Pattern.compile("maven-core-(\\d+\\.\\d+\\.\\d+)\\.jar");
+    private static final Pattern DISTRIBUTION_VERSION = Pattern.compile("distributionUrl=.*?-(\\d+)\\.(\\d+)(?:\\.(\\d+))?[^/]*\\.zip");
+
     public BuildTool detect(String baseDir) {
         Path dir = Paths.get(baseDir);
         if (Files.exists(dir.resolve("gradlew")) || Files.exists(dir.resolve("build.gradle")) || Files.exists(dir.resolve("build.gradle.kts"))) {
@@ -22,8 +76,342 @@ public class BuildToolDetector {
     public String resolveExecutable(String baseDir, BuildTool tool) {
         Path dir = Paths.get(baseDir);
         if (tool == BuildTool.MAVEN) {
-            return Files.exists(dir.resolve("mvnw")) ? "./mvnw" : "mvn";
+            boolean wrapper = Files.exists(dir.resolve("mvnw"));
+            Path mvnd = isPlain() ? null : mvnd();
+            if (mvnd == null) {
+                return wrapper ? "./mvnw" : "mvn";
+            }
+            if (!wrapper) {
+                System.out.println("Using mvnd from " + mvnd + ".");
+                return "mvnd";
+            }
+            // The wrapper pins the project's Maven; mvnd may only stand in for the same version
+            int[] pinned = wrapperVersion(dir.resolve(".mvn/wrapper/maven-wrapper.properties"));
+            String pinnedVersion = pinned == null ? null : pinned[0] + "." + pinned[1] + "." + pinned[2];
+            String bundled = MVND_MAVEN_VERSION.computeIfAbsent(mvnd, BuildToolDetector::bundledMavenVersion).orElse(null);
+            if (pinnedVersion != null && pinnedVersion.equals(bundled)) {
+                System.out.println("Using mvnd from " + mvnd + ": its Maven " + bundled + " matches the wrapper's.");
+                return "mvnd";
+            }
+            System.out.println("Using ./mvnw: the wrapper pins Maven " + (pinnedVersion != null ? pinnedVersion : "of an unknown version")
+                + ", mvnd runs " + (bundled != null ? bundled : "an unknown version") + ".");
+            return "./mvnw";
         }
         return Files.exists(dir.resolve("gradlew")) ? "./gradlew" : "gradle";
     }
+
+    /**
+     * Inserts the warm-invocation flags after the executable of a command built with
+     * {@link #resolveExecutable}.
+     */
+    public List<String> prepare(String baseDir, BuildTool tool, List<String> command) {
+        if (isPlain()) {
+            return command;
+        }
+        Path dir = Paths.get(baseDir);
+        String executable = command.get(0);
+        List<String> flags = new ArrayList<>();
+        if (tool == BuildTool.MAVEN) {
+            int[] version = executable.equals("./mvnw") ? wrapperVersion(dir.resolve(".mvn/wrapper/maven-wrapper.properties")) : null;
+            // mvnd bundles a recent Maven; plain mvn is of unknown age, and -ntp needs 3.6.1
+            if (executable.equals("mvnd") || atLeast(version, 3, 6, 1)) {
+                flags.add("-ntp");
+            }
+        } else {
+            flags.add("--daemon");
+            int[] version = executable.equals("./gradlew") ? wrapperVersion(dir.resolve("gradle/wrapper/gradle-wrapper.properties")) : null;
+            if (atLeast(version, 8, 1, 0) && !configuresConfigurationCache(dir)) {
+                flags.add("--configuration-cache");
+                flags.add("--configuration-cache-problems=warn");
+            }
+        }
+        if (hasSucceeded(dir, tool, command) && !declaresChangingVersions(dir)) {
+            flags.add(tool == BuildTool.MAVEN ? "-o" : "--offline");
+        }
+
+        List<String> prepared = new ArrayList<>(command.size() + flags.size());
+        prepared.add(executable);
+        prepared.addAll(flags);
+        prepared.addAll(command.subList(1, command.size()));
+        return prepared;
+    }
+
+    /**
+     * Runs a prepared command, reports how long it took, and records a success so the next
+     * identical run may go offline.
+     *
+     * The build's output is copied into the current {@code System.out} and {@code System.err}
+     * rather than inherited: under the daemon those are the client's streams, while the
+     * process's own file descriptors belong to the daemon.
+     */
+    public int execute(String baseDir, BuildTool tool, List<String> command) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        ProcessBuilder pb = ClientEnvironment.processBuilder(command);
+        pb.directory(new File(baseDir));
+        pb.redirectInput(ProcessBuilder.Redirect.INHERIT);
+        Process process = pb.start();
+        Thread stdout = copy(process.getInputStream(), System.out);
+        Thread stderr = copy(process.getErrorStream(), System.err);
+        int exitCode;
+        try {
+            exitCode = process.waitFor();
+            stdout.join();
+            stderr.join();
+        } finally {
+            // Only reached with a live process when interrupted
+            process.destroy();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        boolean offline = command.contains("-o") || command.contains("--offline");
+        System.out.println(String.format(Locale.ROOT, "Build finished in %.1f s (%s%s)", elapsedMillis / 1000.0,
+            Paths.get(command.get(0)).getFileName(), offline ? ", offline" : ""));
+
+        Path dir = Paths.get(baseDir);
+        try {
+            if (exitCode == 0) {
+                recordSuccess(dir, tool, command);
+            } else if (offline) {
+                forgetSuccess(dir, tool, command);
+                System.out.println("The build ran offline. If it failed on a missing dependency or plugin,"
+                    + " run it again; the next run goes online.");
+            }
+        } catch (IOException e) {
+            // Only the next run's offline shortcut is lost
+        }
+        return exitCode;
+    }
+
+    private static Thread copy(InputStream from, PrintStream to) {
+        Thread thread = new Thread(() -> {
+            byte[] buffer = new byte[8192];
+            try (InputStream in = from) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    to.write(buffer, 0, read);
+                    to.flush();
+                }
+            } catch (IOException e) {
+                // the process went away; its exit code tells the rest
+            }
+        }, "build-output");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Modification time and size of each build file present, as one comparable string.
+     */
+    public static String buildFileStamp(Path projectRoot) throws IOException {
+        StringBuilder stamp = new StringBuilder();
+        for (String name : BUILD_FILES) {
+            try {
+                BasicFileAttributes attrs = Files.readAttributes(projectRoot.resolve(name), BasicFileAttributes.class);
+                stamp.append(' ').append(name).append('@').append(attrs.lastModifiedTime().toMillis())
+                    .append(':').append(attrs.size());
+            } catch (NoSuchFileException e) {
+                // absent build files are part of the stamp by omission
+            }
+        }
+        return stamp.toString().trim();
+    }
+
+    private static boolean isPlain() {
+        return "1".equals(ClientEnvironment.getenv("SPRING_HEX_PLAIN_BUILD"));
+    }
+
+    private boolean hasSucceeded(Path dir, BuildTool tool, List<String> command) {
+        try {
+            return readBuilds(dir).contains(buildKey(dir, tool, command));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void recordSuccess(Path dir, BuildTool tool, List<String> command) throws IOException {
+        Path buildsFile = dir.resolve(BUILDS_FILE);
+        if (!Files.isDirectory(buildsFile.getParent())) {
+            return;
+        }
+        HexDirectory.ensureGitignore(dir);
+        String stamp = buildFileStamp(dir);
+        Set<String> builds = new LinkedHashSet<>();
+        for (String line : readBuilds(dir)) {
+            // Entries for older build files can never match again
+            if (line.startsWith(stamp + "\t")) {
+                builds.add(line);
+            }
+        }
+        if (builds.add(buildKey(dir, tool, command))) {
+            Files.write(buildsFile, builds, StandardCharsets.UTF_8);
+        }
+    }
+
+    private void forgetSuccess(Path dir, BuildTool tool, List<String> command) throws IOException {
+        Set<String> builds = readBuilds(dir);
+        if (builds.remove(buildKey(dir, tool, command))) {
+            Files.write(dir.resolve(BUILDS_FILE), builds, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Set<String> readBuilds(Path dir) throws IOException {
+        try {
+            return new LinkedHashSet<>(Files.readAllLines(dir.resolve(BUILDS_FILE), StandardCharsets.UTF_8));
+        } catch (NoSuchFileException e) {
+            return new LinkedHashSet<>();
+        }
+    }
+
+    private static String buildKey(Path dir, BuildTool tool, List<String> command) throws IOException {
+        List<String> args = new ArrayList<>();
+        for (String arg : command.subList(1, command.size())) {
+            if (!WARM_FLAGS.contains(arg)) {
+                args.add(arg);
+            }
+        }
+        return buildFileStamp(dir) + "\t" + tool + "\t" + String.join(" ", args);
+    }
+
+    private static boolean declaresChangingVersions(Path dir) {
+        String pom = readIfPresent(dir.resolve("pom.xml"));
+        if (pom != null && mavenDeclaresChangingVersions(pom)) {
+            return true;
+        }
+        for (String name : List.of("build.gradle", "build.gradle.kts", "settings.gradle", "settings.gradle.kts")) {
+            String script = readIfPresent(dir.resolve(name));
+            // The project's own version is built here, not resolved
+            if (script != null && GRADLE_CHANGING_VERSION.matcher(GRADLE_PROJECT_VERSION.matcher(script).replaceAll("")).find()) {
+                return true;
+            }
+        }
+        String catalog = readIfPresent(dir.resolve("gradle/libs.versions.toml"));
+        return catalog != null && GRADLE_CHANGING_VERSION.matcher(catalog).find();
+    }
+
+    private static boolean mavenDeclaresChangingVersions(String pom) {
+        String withoutParent = pom.replaceFirst("(?s)<parent>.*?</parent>", "");
+        String ownGroup = firstElement(withoutParent, "groupId");
+        if (ownGroup == null) {
+            ownGroup = firstElement(pom, "groupId");
+        }
+        Matcher coordinates = MAVEN_COORDINATES.matcher(pom);
+        while (coordinates.find()) {
+            String version = firstElement(coordinates.group(2), "version");
+            // Snapshots of the project's own modules come from the reactor
+            if (version != null && MAVEN_CHANGING_VERSION.matcher(version).find()
+                    && !(version.endsWith("-SNAPSHOT") && ownGroup != null && ownGroup.equals(firstElement(coordinates.group(2), "groupId")))) {
+                return true;
+            }
+        }
+        // Versions held in properties; revision, changelist and sha1 version the project itself
+        int start = pom.indexOf("<properties>");
+        int end = pom.indexOf("</properties>");
+        if (start >= 0 && end > start) {
+            Matcher property = MAVEN_PROPERTY.matcher(pom.substring(start, end));
+            while (property.find()) {
+                if (!Set.of("revision", "changelist", "sha1").contains(property.group(1))
+                        && MAVEN_CHANGING_VERSION.matcher(property.group(2).trim()).find()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String firstElement(String xml, String name) {
+        int start = xml.indexOf("<" + name + ">");
+        int end = xml.indexOf("</" + name + ">", start + 1);
+        return start >= 0 && end > start ? xml.substring(start + name.length() + 2, end).trim() : null;
+    }
+
+    private static String readIfPresent(Path file) {
+        try {
+            return Files.readString(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static int[] wrapperVersion(Path properties) {
+        try {
+            Matcher m = DISTRIBUTION_VERSION.matcher(Files.readString(properties, StandardCharsets.UTF_8));
+            if (m.find()) {
+                return new int[]{Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)),
+                    m.group(3) == null ? 0 : Integer.parseInt(m.group(3))};
+            }
+        } catch (IOException e) {
+            // no wrapper properties: version unknown
+        }
+        return null;
+    }
+
+    private static boolean atLeast(int[] version, int major, int minor, int patch) {
+        if (version == null) {
+            return false;
+        }
+        if (version[0] != major) {
+            return version[0] > major;
+        }
+        if (version[1] != minor) {
+            return version[1] > minor;
+        }
+        return version[2] >= patch;
+    }
+
+    private static boolean configuresConfigurationCache(Path dir) {
+        // The project's own setting wins, whichever way it goes
+        try {
+            String properties = Files.readString(dir.resolve("gradle.properties"), StandardCharsets.UTF_8);
+            return properties.contains("org.gradle.configuration-cache") || properties.contains("org.gradle.unsafe.configuration-cache");
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static Path mvnd() {
+        String path = ClientEnvironment.getenv("PATH");
+        if (path == null) {
+            return null;
+        }
+        return MVND_ON_PATH.computeIfAbsent(path, p -> findOnPath(p, "mvnd")).orElse(null);
+    }
+
+    private static Optional<Path> findOnPath(String path, String name) {
+        boolean windows = File.separatorChar == '\\';
+        for (String dir : path.split(File.pathSeparator)) {
+            for (String candidate : windows ? new String[]{name + ".cmd", name + ".exe"} : new String[]{name}) {
+                try {
+                    Path file = Paths.get(dir, candidate);
+                    if (Files.isExecutable(file) && !Files.isDirectory(file)) {
+                        return Optional.of(file);
+                    }
+                } catch (InvalidPathException e) {
+                    // malformed PATH entry
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * The Maven version an mvnd installation runs, from the {@code maven-core} jar in its
+     * {@code mvn/lib}; the executable on the PATH may be a symlink into that installation.
+     */
+    private static Optional<String> bundledMavenVersion(Path mvnd) {
+        try {
+            Path bin = mvnd.toRealPath().getParent();
+            if (bin == null || bin.getParent() == null) {
+                return Optional.empty();
+            }
+            try (Stream<Path> jars = Files.list(bin.getParent().resolve("mvn/lib"))) {
+                return jars.map(jar -> MAVEN_CORE_JAR.matcher(jar.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(m -> m.group(1))
+                    .findFirst();
+            }
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
 }
@@ -0,0 +1,70 @@
+package com.springhex.util;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The working directory and environment variables of the invocation being served.
+ *
+ * A command run from the shell sees its own process's. Under the daemon it runs inside a
+ * long-lived JVM on behalf of a client with its own directory and variables, so the daemon
+ * installs the client's here for the length of each request. Code that reads environment
+ * variables, resolves a relative path argument or starts a process goes through this class.
+ */
+public final class ClientEnvironment {
+
+    private static volatile Path workingDir;
+    private static volatile Map<String, String> env;
+
+    private ClientEnvironment() {}
+
+    /**
+     * Serves the next commands on behalf of a client; {@link #clear} restores the process's own.
+     */
+    public static void install(Path clientWorkingDir, Map<String, String> clientEnv) {
+        workingDir = clientWorkingDir;
+        env = Map.copyOf(clientEnv);
+    }
+
+    public static void clear() {
+        workingDir = null;
+        env = null;
+    }
+
+    public static String getenv(String name) {
+        Map<String, String> current = env;
+        return current != null ? current.get(name) : System.getenv(name);
+    }
+
+    public static Map<String, String> getenv() {
+        Map<String, String> current = env;
+        return current != null ? current : System.getenv();
+    }
+
+    public static Path workingDir() {
+        Path current = workingDir;
+        return current != null ? current : Paths.get("").toAbsolutePath();
+    }
+
+    /**
+     * Resolves a path argument the way the client's shell would.
+     */
+    public static Path resolve(String path) {
+        return workingDir().resolve(path);
+    }
+
+    /**
+     * A process builder for a child that inherits the client's environment.
+     */
+    public static ProcessBuilder processBuilder(List<String> command) {
+        ProcessBuilder pb = new ProcessBuilder(command);
+        Map<String, String> current = env;
+        if (current != null) {
+            pb.environment().clear();
+            pb.environment().putAll(current);
+        }
+        return pb;
+    }
+}
@@ -0,0 +1,49 @@
+package com.springhex.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The project's {@code .hex/} directory, which mixes files a team shares ({@code config.yml},
+ * {@code manifest}, {@code migrations.lock}) with per-machine caches that change on nearly
+ * every run.
+ *
+ * Whatever writes a cache there first makes sure a {@code .hex/.gitignore} lists the caches,
+ * so committing {@code .hex/} does not commit them. An existing {@code .gitignore} is left as
+ * the team edited it.
+ */
+public final class HexDirectory {
+
+    public static final String GITIGNORE_FILE = ".hex/.gitignore";
+
+    private static final String GITIGNORE = String.join("\n",
+        "# Caches spring-hex rebuilds on its own; config.yml, manifest and migrations.lock are meant to be committed",
+        "index",
+        "config.cache",
+        "test-deps",
+        "test-timings",
+        "builds",
+        "classpath",
+        "*.tmp",
+        "");
+
+    private HexDirectory() {}
+
+    /**
+     * Writes {@code .hex/.gitignore} if the project has a {@code .hex/} directory without one.
+     * A failure only costs the ignore file, so it is not reported.
+     */
+    public static void ensureGitignore(Path projectRoot) {
+        Path gitignore = projectRoot.resolve(GITIGNORE_FILE);
+        if (Files.exists(gitignore) || !Files.isDirectory(gitignore.getParent())) {
+            return;
+        }
+        try {
+            Files.writeString(gitignore, GITIGNORE, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            // the caches still work; they are just not ignored
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.springhex.util;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads the {@code TEST-*.xml} files Surefire and Gradle write (one {@code <testsuite>} per
+ * test class) and merges them into one {@code <testsuites>} report.
+ */
+public final class JUnitReports {
+
+    private JUnitReports() {}
+
+    public static Suite read(Path reportFile) throws IOException {
+        Element suite = parse(reportFile).getDocumentElement();
+        List<String> failedCases = new ArrayList<>();
+        NodeList cases = suite.getElementsByTagName("testcase");
+        for (int i = 0; i < cases.getLength(); i++) {
+            Element testCase = (Element) cases.item(i);
+            if (testCase.getElementsByTagName("failure").getLength() > 0
+                    || testCase.getElementsByTagName("error").getLength() > 0) {
+                failedCases.add(testCase.getAttribute("classname") + "." + testCase.getAttribute("name"));
+            }
+        }
+        return new Suite(reportFile, suite.getAttribute("name"), count(suite, "tests"), count(suite, "failures"),
+            count(suite, "errors"), count(suite, "skipped"), millis(suite.getAttribute("time")), failedCases);
+    }
+
+    /**
+     * Writes the suites into a single {@code <testsuites>} document with the summed counts.
+     */
+    public static void merge(Collection<Suite> suites, Path output) throws IOException {
+        try {
+            Document merged = newBuilder().newDocument();
+            Element root = merged.createElement("testsuites");
+            merged.appendChild(root);
+            int tests = 0, failures = 0, errors = 0, skipped = 0;
+            long millis = 0;
+            for (Suite suite : suites) {
+                root.appendChild(merged.importNode(parse(suite.file).getDocumentElement(), true));
+                tests += suite.tests;
+                failures += suite.failures;
+                errors += suite.errors;
+                skipped += suite.skipped;
+                millis += suite.millis;
+            }
+            root.setAttribute("tests", Integer.toString(tests));
+            root.setAttribute("failures", Integer.toString(failures));
+            root.setAttribute("errors", Integer.toString(errors));
+            root.setAttribute("skipped", Integer.toString(skipped));
+            root.setAttribute("time", String.format(Locale.ROOT, "%.3f", millis / 1000.0));
+
+            Files.createDirectories(output.getParent());
+            Transformer transformer = TransformerFactory.newInstance().newTransformer();
+            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+            transformer.transform(new DOMSource(merged), new StreamResult(output.toFile()));
+        } catch (TransformerException e) {
+            throw new IOException("Could not write " + output + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static Document parse(Path file) throws IOException {
+        try {
+            return newBuilder().parse(file.toFile());
+        } catch (SAXException e) {
+            throw new IOException("Could not read " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static DocumentBuilder newBuilder() throws IOException {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            return factory.newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private static int count(Element suite, String attribute) {
+        try {
+            return Integer.parseInt(suite.getAttribute(attribute).trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static long millis(String time) {
+        try {
+            // Older Surefire versions format the time with grouping separators
+            return Math.round(Double.parseDouble(time.replace(",", "").trim()) * 1000);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * One test class's results.
+     */
+    public static final class Suite {
+        private final Path file;
+        private final String name;
+        private final int tests;
+        private final int failures;
+        private final int errors;
+        private final int skipped;
+        private final long millis;
+        private final List<String> failedCases;
+
+        private Suite(Path file, String name, int tests, int failures, int errors, int skipped, long millis,
+                      List<String> failedCases) {
+            this.file = file;
+            this.name = name;
+            this.tests = tests;
+            this.failures = failures;
+            this.errors = errors;
+            this.skipped = skipped;
+            this.millis = millis;
+            this.failedCases = failedCases;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getTests() {
+            return tests;
+        }
+
+        public int getFailures() {
+            return failures;
+        }
+
+        public int getErrors() {
+            return errors;
+        }
+
+        public int getSkipped() {
+            return skipped;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        public List<String> getFailedCases() {
+            return failedCases;
+        }
+    }
+}
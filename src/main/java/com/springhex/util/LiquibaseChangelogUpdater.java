@@ -1,14 +1,16 @@
 package com.springhex.util;
 
+import com.springhex.generator.FileGenerator;
+
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 
 public class LiquibaseChangelogUpdater {
 
+    private final FileGenerator fileGenerator = new FileGenerator();
+
     public void addIncludeToXmlChangelog(Path masterFile, String changesetPath) throws IOException {
-        String content = Files.readString(masterFile, StandardCharsets.UTF_8);
+        String content = fileGenerator.read(masterFile);
         String includeTag = "    <include file=\"" + changesetPath + "\"/>";
 
         if (content.contains(changesetPath)) {
@@ -21,11 +23,11 @@ public class LiquibaseChangelogUpdater {
         }
 
         String updated = content.substring(0, insertPos) + includeTag + "\n" + content.substring(insertPos);
-        Files.writeString(masterFile, updated, StandardCharsets.UTF_8);
+        fileGenerator.overwrite(masterFile, updated);
     }
 
     public void addIncludeToYamlChangelog(Path masterFile, String changesetPath) throws IOException {
-        String content = Files.readString(masterFile, StandardCharsets.UTF_8);
+        String content = fileGenerator.read(masterFile);
 
         if (content.contains(changesetPath)) {
             return;
@@ -33,6 +35,6 @@ public class LiquibaseChangelogUpdater {
 
         String includeEntry = "\n- include:\n    file: " + changesetPath;
         String updated = content + includeEntry + "\n";
-        Files.writeString(masterFile, updated, StandardCharsets.UTF_8);
+        fileGenerator.overwrite(masterFile, updated);
     }
 }
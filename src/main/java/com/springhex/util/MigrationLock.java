@@ -0,0 +1,301 @@
+package com.springhex.util;
+
+import com.springhex.migration.MigrationVersion;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Checksums of a project's migration files, and the lockfile that pins them.
+ *
+ * Every file under {@code db/migration} and {@code db/changelog} gets the checksum Flyway
+ * computes for SQL migrations: a CRC32 over the UTF-8 bytes of each line without its line
+ * break, so the value matches the {@code checksum} column of {@code flyway_schema_history}.
+ * Liquibase changelogs get the same checksum per file (not Liquibase's own per-changeset
+ * MD5), and the include order of the master changelogs is kept as well.
+ *
+ * {@link #validate} compares the tree against {@code .hex/migrations.lock} without a database
+ * or a build: edited or deleted migrations, duplicate Flyway versions, new versions older than
+ * the locked ones, and reordered Liquibase includes.
+ */
+public final class MigrationLock {
+
+    public static final String LOCK_FILE = ".hex/migrations.lock";
+
+    private static final String HEADER = "# spring-hex migration lock v1";
+    private static final List<String> MIGRATION_DIRS = List.of(
+        "src/main/resources/db/migration", "src/main/resources/db/changelog");
+    private static final Pattern VERSIONED = Pattern.compile("([VU])(.+?)__(.*)\\.sql");
+    private static final Pattern MIGRATION_FILE = Pattern.compile(".*\\.(sql|xml|ya?ml|json)");
+    private static final Pattern MASTER = Pattern.compile("db\\.changelog-master\\.(xml|ya?ml|json)");
+    private static final Pattern INCLUDE = Pattern.compile("\\bfile\\s*[=:]\\s*[\"']?([^\"'\\s/>]+[^\"'\\s>]*)");
+
+    private final Map<String, Integer> checksums;
+    private final Map<String, List<String>> includes;
+
+    private MigrationLock(Map<String, Integer> checksums, Map<String, List<String>> includes) {
+        this.checksums = checksums;
+        this.includes = includes;
+    }
+
+    /**
+     * Checksums every migration file under the project, in parallel.
+     */
+    public static MigrationLock scan(Path projectRoot) throws IOException {
+        Path root = projectRoot.toAbsolutePath().normalize();
+        List<Path> files = new ArrayList<>();
+        for (String dir : MIGRATION_DIRS) {
+            Path migrationDir = root.resolve(dir);
+            if (Files.isDirectory(migrationDir)) {
+                try (Stream<Path> walk = Files.walk(migrationDir)) {
+                    walk.filter(f -> Files.isRegularFile(f) && MIGRATION_FILE.matcher(f.getFileName().toString()).matches())
+                        .forEach(files::add);
+                }
+            }
+        }
+
+        Map<String, Integer> checksums;
+        try {
+            checksums = files.parallelStream().collect(Collectors.toMap(
+                f -> relative(root, f), MigrationLock::checksum, (a, b) -> a, TreeMap::new));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        Map<String, List<String>> includes = new TreeMap<>();
+        for (Path file : files) {
+            if (MASTER.matcher(file.getFileName().toString()).matches()) {
+                includes.put(relative(root, file), readIncludes(file));
+            }
+        }
+        return new MigrationLock(checksums, includes);
+    }
+
+    /**
+     * Reads the project's lockfile, or returns {@code null} if it has none.
+     */
+    public static MigrationLock load(Path projectRoot) throws IOException {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(projectRoot.resolve(LOCK_FILE), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+
+        Map<String, Integer> checksums = new TreeMap<>();
+        Map<String, List<String>> includes = new TreeMap<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            // Paths come last so they may contain spaces
+            String[] fields = line.split(" ", 3);
+            try {
+                if (fields.length == 3 && fields[0].equals("file")) {
+                    checksums.put(fields[2], Integer.parseInt(fields[1]));
+                    continue;
+                }
+                if (fields.length == 3 && fields[0].equals("include")) {
+                    String[] include = fields[2].split(" -> ", 2);
+                    if (include.length == 2) {
+                        List<String> refs = includes.computeIfAbsent(include[0], k -> new ArrayList<>());
+                        if (Integer.parseInt(fields[1]) == refs.size()) {
+                            refs.add(include[1]);
+                            continue;
+                        }
+                    }
+                }
+            } catch (NumberFormatException e) {
+                // reported below
+            }
+            throw new IOException(LOCK_FILE + " line " + (i + 1) + " is malformed: " + line);
+        }
+        return new MigrationLock(checksums, includes);
+    }
+
+    public void save(Path projectRoot) throws IOException {
+        Path lockFile = projectRoot.resolve(LOCK_FILE);
+        Files.createDirectories(lockFile.getParent());
+        Path temp = lockFile.resolveSibling("migrations.lock.tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            out.write(HEADER);
+            out.write('\n');
+            for (Map.Entry<String, Integer> entry : checksums.entrySet()) {
+                out.write("file " + entry.getValue() + " " + entry.getKey());
+                out.write('\n');
+            }
+            for (Map.Entry<String, List<String>> master : includes.entrySet()) {
+                List<String> refs = master.getValue();
+                for (int i = 0; i < refs.size(); i++) {
+                    out.write("include " + i + " " + master.getKey() + " -> " + refs.get(i));
+                    out.write('\n');
+                }
+            }
+        }
+        try {
+            Files.move(temp, lockFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, lockFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Rewrites the lockfile from the tree if the project has one; used after migrations
+     * were applied, since applied migrations are exactly what the lock should pin.
+     */
+    public static void refreshIfPresent(Path projectRoot) throws IOException {
+        if (Files.exists(projectRoot.resolve(LOCK_FILE))) {
+            scan(projectRoot).save(projectRoot);
+        }
+    }
+
+    /**
+     * Problems in this tree, judged against the locked state ({@code null} when there is no
+     * lockfile, in which case only the tree itself is checked).
+     */
+    public List<String> validate(MigrationLock locked, boolean outOfOrderAllowed) {
+        List<String> problems = new ArrayList<>();
+
+        Map<MigrationVersion, String> versions = new HashMap<>();
+        for (String path : checksums.keySet()) {
+            MigrationVersion version = flywayVersion(path);
+            if (version == null) {
+                continue;
+            }
+            String other = versions.putIfAbsent(version, path);
+            if (other != null) {
+                problems.add("Duplicate Flyway version " + version + ": " + other + " and " + path);
+            }
+        }
+        if (locked == null) {
+            return problems;
+        }
+
+        MigrationVersion highestLocked = null;
+        for (Map.Entry<String, Integer> entry : locked.checksums.entrySet()) {
+            String path = entry.getKey();
+            Integer current = checksums.get(path);
+            if (current == null) {
+                problems.add(path + " was deleted or renamed after it was locked");
+            } else if (!current.equals(entry.getValue()) && !isRepeatable(path) && !isMaster(path)) {
+                problems.add(path + " was edited after it was locked (checksum "
+                    + entry.getValue() + " is now " + current + ")");
+            }
+            MigrationVersion version = flywayVersion(path);
+            if (version != null && (highestLocked == null || version.compareTo(highestLocked) > 0)) {
+                highestLocked = version;
+            }
+        }
+
+        if (!outOfOrderAllowed && highestLocked != null) {
+            for (String path : getPending(locked)) {
+                MigrationVersion version = flywayVersion(path);
+                if (version != null && version.compareTo(highestLocked) < 0) {
+                    problems.add(path + " has version " + version + ", older than the locked " + highestLocked
+                        + " (set spring.flyway.out-of-order=true to allow this)");
+                }
+            }
+        }
+
+        for (Map.Entry<String, List<String>> master : locked.includes.entrySet()) {
+            List<String> current = includes.getOrDefault(master.getKey(), List.of());
+            List<String> kept = new ArrayList<>(current);
+            kept.retainAll(master.getValue());
+            if (!kept.equals(master.getValue())) {
+                problems.add(master.getKey() + " no longer includes the locked changelogs in their locked order");
+            }
+        }
+        return problems;
+    }
+
+    /**
+     * Migration files in this tree that the lock does not know yet.
+     */
+    public List<String> getPending(MigrationLock locked) {
+        List<String> pending = new ArrayList<>();
+        for (String path : checksums.keySet()) {
+            if (locked == null || !locked.checksums.containsKey(path)) {
+                pending.add(path);
+            }
+        }
+        return pending;
+    }
+
+    public Map<String, Integer> getChecksums() {
+        return Collections.unmodifiableMap(checksums);
+    }
+
+    /**
+     * Flyway's checksum of a migration script: CRC32 over each line's UTF-8 bytes, line
+     * breaks and a leading byte order mark excluded.
+     */
+    public static int checksum(Path file) {
+        CRC32 crc = new CRC32();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            if (line != null && line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+            while (line != null) {
+                crc.update(line.getBytes(StandardCharsets.UTF_8));
+                line = reader.readLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return (int) crc.getValue();
+    }
+
+    private static List<String> readIncludes(Path master) throws IOException {
+        List<String> refs = new ArrayList<>();
+        Matcher m = INCLUDE.matcher(Files.readString(master, StandardCharsets.UTF_8));
+        while (m.find()) {
+            refs.add(m.group(1));
+        }
+        return refs;
+    }
+
+    private static boolean isMaster(String path) {
+        // Master changelogs grow with every migration; their include order is checked instead
+        return MASTER.matcher(path.substring(path.lastIndexOf('/') + 1)).matches();
+    }
+
+    private static boolean isRepeatable(String path) {
+        // Repeatable migrations are meant to change; Flyway simply re-runs them
+        return path.substring(path.lastIndexOf('/') + 1).startsWith("R__");
+    }
+
+    private static MigrationVersion flywayVersion(String path) {
+        Matcher m = VERSIONED.matcher(path.substring(path.lastIndexOf('/') + 1));
+        if (!m.matches() || !m.group(1).equals("V")) {
+            return null;
+        }
+        return MigrationVersion.parse(m.group(2));
+    }
+
+    private static String relative(Path root, Path file) {
+        return root.relativize(file).toString().replace('\\', '/');
+    }
+}
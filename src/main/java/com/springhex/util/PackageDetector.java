@@ -10,6 +10,9 @@ import java.util.regex.Pattern;
 
 public class PackageDetector {
 
+    private static final Pattern PARENT_BLOCK = Pattern.compile("(?s)<parent>.*?</parent>");
+    private static final Pattern GROUP_ID = Pattern.compile("<groupId>([^<]+)</groupId>");
+
     public Optional<String> detect() {
         return detect(Paths.get("."));
     }
@@ -32,43 +35,14 @@ public class PackageDetector {
     }
 
     private Optional<String> detectFromSpringBootMain(Path projectRoot) {
-        Path srcMainJava = projectRoot.resolve("src/main/java");
-        if (!Files.exists(srcMainJava)) {
-            return Optional.empty();
+        // Initialized projects keep .hex/index, which only rescans sources that changed since the last run
+        if (Files.isDirectory(projectRoot.resolve(".hex"))) {
+            return ProjectIndex.open(projectRoot).getMainPackage();
         }
 
-        try {
-            return Files.walk(srcMainJava)
-                .filter(p -> p.toString().endsWith(".java"))
-                .filter(this::isSpringBootMainClass)
-                .findFirst()
-                .flatMap(this::extractPackage);
-        } catch (IOException e) {
-            return Optional.empty();
-        }
-    }
-
-    private boolean isSpringBootMainClass(Path javaFile) {
-        try {
-            String content = Files.readString(javaFile);
-            return content.contains("@SpringBootApplication");
-        } catch (IOException e) {
-            return false;
-        }
-    }
-
-    private Optional<String> extractPackage(Path javaFile) {
-        try {
-            String content = Files.readString(javaFile);
-            Pattern pattern = Pattern.compile("^package\\s+([\\w.]+);", Pattern.MULTILINE);
-            Matcher matcher = pattern.matcher(content);
-            if (matcher.find()) {
-                return Optional.of(matcher.group(1));
-            }
-        } catch (IOException e) {
-            // ignore
-        }
-        return Optional.empty();
+        // Otherwise a one-off parallel scan that stops at the first hit beats building an index
+        return SourceScanner.findSpringBootApplication(projectRoot.resolve("src/main/java"))
+            .map(SourceScanner.Header::getPackageName);
     }
 
     private Optional<String> detectFromPom(Path projectRoot) {
@@ -82,10 +56,9 @@ public class PackageDetector {
             
             // Try to get groupId (skip parent's groupId)
             // Simple approach: find groupId that's not inside <parent> block
-            String withoutParent = content.replaceAll("(?s)<parent>.*?</parent>", "");
-            
-            Pattern pattern = Pattern.compile("<groupId>([^<]+)</groupId>");
-            Matcher matcher = pattern.matcher(withoutParent);
+            String withoutParent = PARENT_BLOCK.matcher(content).replaceAll("");
+
+            Matcher matcher = GROUP_ID.matcher(withoutParent);
             if (matcher.find()) {
                 return Optional.of(matcher.group(1));
             }
@@ -0,0 +1,147 @@
+package com.springhex.util;
+
+import com.springhex.util.BuildToolDetector.BuildTool;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The classpath of a Maven or Gradle project, for compiling generated code in-process and
+ * for loading the project's JDBC driver.
+ *
+ * The project's own compiled classes come from {@code target/classes} or
+ * {@code build/classes/java/main}. The dependency jars are asked of the build tool once
+ * (every scope, so both compile-only tools such as Lombok and runtime-only drivers are on it)
+ * and kept in {@code target/spring-hex-classpath} ({@code build/...} for Gradle) together
+ * with the stamps of the build files, so they are only resolved again after the build itself
+ * changes or is cleaned. Without a build tool there are no dependency jars; only the
+ * project's classes are returned, with a warning.
+ */
+public final class ProjectClasspath {
+
+    private static final String CACHE_FILE = "spring-hex-classpath";
+
+    private static final List<String> CLASS_DIRS = List.of("target/classes", "build/classes/java/main");
+    private static final String GRADLE_MARKER = "SPRING_HEX_CLASSPATH=";
+    private static final String GRADLE_INIT_SCRIPT = String.join("\n",
+        "rootProject {",
+        "    afterEvaluate {",
+        "        tasks.register('springHexClasspath') {",
+        "            doLast {",
+        "                def main = project.sourceSets.main",
+        "                println '" + GRADLE_MARKER + "' + (main.compileClasspath + main.runtimeClasspath).asPath",
+        "            }",
+        "        }",
+        "    }",
+        "}",
+        "");
+
+    private ProjectClasspath() {}
+
+    /**
+     * Returns the classpath entries that exist, project classes first.
+     *
+     * @throws IOException if the dependency classpath is not cached and the build tool
+     *         could not produce it
+     */
+    public static List<Path> resolve(Path projectRoot) throws IOException {
+        Path root = projectRoot.toAbsolutePath().normalize();
+        List<Path> entries = new ArrayList<>();
+        for (String dir : CLASS_DIRS) {
+            if (Files.isDirectory(root.resolve(dir))) {
+                entries.add(root.resolve(dir));
+            }
+        }
+        for (String entry : dependencies(root).split(File.pathSeparator)) {
+            if (!entry.isBlank() && Files.exists(Path.of(entry))) {
+                entries.add(Path.of(entry));
+            }
+        }
+        return entries;
+    }
+
+    private static String dependencies(Path root) throws IOException {
+        BuildToolDetector detector = new BuildToolDetector();
+        BuildTool tool = detector.detect(root.toString());
+        if (tool == null) {
+            System.err.println("Warning: No build tool detected, so only target/classes and build/classes are on the classpath.");
+            return "";
+        }
+
+        String stamp = stamp(root);
+        Path cache = root.resolve(tool == BuildTool.MAVEN ? "target" : "build").resolve(CACHE_FILE);
+        try {
+            List<String> lines = Files.readAllLines(cache, StandardCharsets.UTF_8);
+            if (lines.size() == 2 && lines.get(0).equals(stamp)) {
+                return lines.get(1);
+            }
+        } catch (NoSuchFileException e) {
+            // not cached yet
+        }
+
+        String classpath = fromBuildTool(root, detector, tool);
+        Files.createDirectories(cache.getParent());
+        Files.writeString(cache, stamp + "\n" + classpath + "\n", StandardCharsets.UTF_8);
+        return classpath;
+    }
+
+    private static String stamp(Path root) throws IOException {
+        // v2: dependencies of every scope, not just compile
+        return "# v2 " + BuildToolDetector.buildFileStamp(root);
+    }
+
+    private static String fromBuildTool(Path root, BuildToolDetector detector, BuildTool tool) throws IOException {
+        String executable = detector.resolveExecutable(root.toString(), tool);
+
+        if (tool == BuildTool.MAVEN) {
+            Path output = Files.createTempFile("spring-hex-classpath", ".txt");
+            try {
+                run(root, List.of(executable, "-q", "dependency:build-classpath", "-Dmdep.outputFile=" + output));
+                return Files.readString(output, StandardCharsets.UTF_8).trim();
+            } finally {
+                Files.deleteIfExists(output);
+            }
+        }
+
+        Path initScript = Files.createTempFile("spring-hex-classpath", ".gradle");
+        try {
+            Files.writeString(initScript, GRADLE_INIT_SCRIPT, StandardCharsets.UTF_8);
+            String output = run(root, List.of(executable, "-q", "--init-script", initScript.toString(), "springHexClasspath"));
+            for (String line : output.split("\\R")) {
+                if (line.startsWith(GRADLE_MARKER)) {
+                    return line.substring(GRADLE_MARKER.length()).trim();
+                }
+            }
+            throw new IOException("Gradle did not report a classpath.");
+        } finally {
+            Files.deleteIfExists(initScript);
+        }
+    }
+
+    private static String run(Path root, List<String> command) throws IOException {
+        Process process = ClientEnvironment.processBuilder(command)
+            .directory(root.toFile())
+            .redirectErrorStream(true)
+            .start();
+        String output;
+        try (InputStream in = process.getInputStream()) {
+            output = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        try {
+            if (process.waitFor() != 0) {
+                throw new IOException("'" + String.join(" ", command) + "' failed:\n" + output.trim());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while resolving the classpath", e);
+        }
+        return output;
+    }
+}
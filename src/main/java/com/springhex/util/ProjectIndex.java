@@ -0,0 +1,528 @@
+package com.springhex.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Facts about a project's sources (each file's package and whether it is the
+ * {@code @SpringBootApplication} class), kept in {@code .hex/index} to find the main class
+ * and base package quickly.
+ *
+ * The file starts with a short summary naming the main class and its stamp, so asking
+ * for the base package costs a small read and one stat while that class is unchanged.
+ * Queries that need the whole tree load the rest and refresh it incrementally: a
+ * directory whose mtime is unchanged is not listed again, and a file whose mtime and
+ * size are unchanged is not read again. Stamps too close to the last index write are
+ * never trusted, since a change in the same timestamp tick would otherwise go unnoticed.
+ * The index is only persisted in projects that have a {@code .hex/} directory; elsewhere
+ * it lives for the current process.
+ */
+public final class ProjectIndex {
+
+    public static final String INDEX_FILE = ".hex/index";
+
+    private static final String SOURCE_ROOT = "src/main/java";
+    private static final int MAGIC = 0x48455849;
+    // v3: directories named build, out, generated... under src/main/java are no longer skipped;
+    // v4: no list of generated files, which .hex/manifest keeps
+    private static final int VERSION = 4;
+    // Coarsest common mtime granularity (FAT/some network filesystems) plus slack
+    private static final long RACY_WINDOW_MILLIS = 2_000;
+
+    private static final int FLAG_MAIN = 1;
+    private static final int FLAG_DIR_PACKAGE = 2;
+    private static final int FLAG_OWN_PACKAGE = 4;
+
+    private static final Map<Path, ProjectIndex> OPEN = new ConcurrentHashMap<>();
+
+    private final Path root;
+    private final Path sourceRoot;
+    private long writtenAt;
+    private MainRecord main;
+
+    // Loaded on first use; keyed by directory path relative to src/main/java ("" for the root)
+    private Map<String, DirEntry> dirs;
+    private boolean refreshed;
+
+    private ProjectIndex(Path root) {
+        this.root = root;
+        this.sourceRoot = root.resolve(SOURCE_ROOT);
+    }
+
+    /**
+     * Returns the index for a project. Only the summary is read here; the rest is loaded
+     * and brought up to date by the first query that needs it.
+     */
+    public static ProjectIndex open(Path projectRoot) {
+        Path root = projectRoot.toAbsolutePath().normalize();
+        ProjectIndex index = OPEN.computeIfAbsent(root, ProjectIndex::new);
+        synchronized (index) {
+            if (index.dirs == null) {
+                index.loadSummary();
+            }
+            // Each open serves a new command; the tree may have changed since the last one
+            index.refreshed = false;
+        }
+        return index;
+    }
+
+    /**
+     * The package of the first {@code @SpringBootApplication} class, in path order.
+     */
+    public synchronized Optional<String> getMainPackage() {
+        MainRecord record = currentMain();
+        return record == null ? Optional.empty() : Optional.ofNullable(record.packageName);
+    }
+
+    // --- main class fast path ----------------------------------------------------------
+
+    private MainRecord currentMain() {
+        if (!refreshed && main != null && isUnchanged(main)) {
+            return main;
+        }
+        ensureFresh();
+        return main;
+    }
+
+    private boolean isUnchanged(MainRecord record) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(sourceRoot.resolve(record.relFile), BasicFileAttributes.class);
+            long mtime = attrs.lastModifiedTime().toMillis();
+            return mtime == record.mtime && attrs.size() == record.size && !isRacy(mtime);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // --- refresh -----------------------------------------------------------------------
+
+    private void ensureLoaded() {
+        if (dirs == null) {
+            loadFull();
+        }
+    }
+
+    private void ensureFresh() {
+        ensureLoaded();
+        if (refreshed) {
+            return;
+        }
+        refreshed = true;
+        if (refresh()) {
+            save();
+        }
+    }
+
+    private boolean refresh() {
+        Set<String> seenDirs = new HashSet<>();
+        List<StaleFile> stale = new ArrayList<>();
+        boolean changed = false;
+
+        if (Files.isDirectory(sourceRoot)) {
+            changed = visit("", seenDirs, stale);
+        }
+
+        // Headers of new and modified files are read in parallel once the walk is done
+        if (!stale.isEmpty()) {
+            stale.parallelStream().forEach(StaleFile::scan);
+            for (StaleFile file : stale) {
+                FileEntry previous = file.scanned == null
+                    ? file.dir.files.remove(file.name)
+                    : file.dir.files.put(file.name, file.scanned);
+                changed |= !Objects.equals(file.scanned, previous);
+            }
+        }
+
+        changed |= dirs.keySet().retainAll(seenDirs);
+
+        MainRecord previousMain = main;
+        main = findMain();
+        return changed || !Objects.equals(previousMain, main);
+    }
+
+    private boolean visit(String relDir, Set<String> seenDirs, List<StaleFile> stale) {
+        Path dir = relDir.isEmpty() ? sourceRoot : sourceRoot.resolve(relDir);
+        long mtime;
+        try {
+            mtime = Files.getLastModifiedTime(dir, LinkOption.NOFOLLOW_LINKS).toMillis();
+        } catch (IOException e) {
+            return false;
+        }
+        seenDirs.add(relDir);
+
+        boolean changed = false;
+        DirEntry entry = dirs.get(relDir);
+        if (entry == null || entry.mtime != mtime || isRacy(mtime)) {
+            DirEntry listed = list(dir, mtime, entry);
+            if (listed == null) {
+                return false;
+            }
+            changed = entry == null || entry.mtime != mtime || !entry.sameChildren(listed);
+            entry = listed;
+            dirs.put(relDir, entry);
+        }
+
+        for (Map.Entry<String, FileEntry> file : entry.files.entrySet()) {
+            Path path = dir.resolve(file.getKey());
+            if (isStale(path, file.getValue())) {
+                stale.add(new StaleFile(entry, file.getKey(), path));
+            }
+        }
+        for (String name : entry.subdirs) {
+            changed |= visit(relDir.isEmpty() ? name : relDir + "/" + name, seenDirs, stale);
+        }
+        return changed;
+    }
+
+    private boolean isStale(Path file, FileEntry entry) {
+        if (entry == null) {
+            return true;
+        }
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            long mtime = attrs.lastModifiedTime().toMillis();
+            return entry.mtime != mtime || entry.size != attrs.size() || isRacy(mtime);
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    private boolean isRacy(long mtime) {
+        return mtime + RACY_WINDOW_MILLIS >= writtenAt;
+    }
+
+    /**
+     * Lists a directory, carrying over the entries of files that are still present so only
+     * their stamps need checking.
+     */
+    private static DirEntry list(Path dir, long mtime, DirEntry previous) {
+        List<String> javaFiles = new ArrayList<>();
+        List<String> subdirs = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path child : stream) {
+                String name = child.getFileName().toString();
+                if (name.endsWith(".java")) {
+                    javaFiles.add(name);
+                } else if (!SourceScanner.isSkippedDirectory(name) && Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                    subdirs.add(name);
+                }
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        Collections.sort(javaFiles);
+        Collections.sort(subdirs);
+
+        Map<String, FileEntry> files = new LinkedHashMap<>();
+        for (String name : javaFiles) {
+            files.put(name, previous == null ? null : previous.files.get(name));
+        }
+        return new DirEntry(mtime, files, subdirs);
+    }
+
+    private MainRecord findMain() {
+        // The smallest relative path, as SourceScanner.findSpringBootApplication picks, so the
+        // answer depends neither on hash or directory order nor on whether .hex/ exists
+        MainRecord first = null;
+        for (Map.Entry<String, DirEntry> dir : dirs.entrySet()) {
+            for (Map.Entry<String, FileEntry> file : dir.getValue().files.entrySet()) {
+                FileEntry entry = file.getValue();
+                String relFile = dir.getKey().isEmpty() ? file.getKey() : dir.getKey() + "/" + file.getKey();
+                if (entry != null && entry.main && (first == null || relFile.compareTo(first.relFile) < 0)) {
+                    first = new MainRecord(relFile, entry.mtime, entry.size, entry.packageName);
+                }
+            }
+        }
+        return first;
+    }
+
+    // --- persistence -------------------------------------------------------------------
+
+    private void loadSummary() {
+        try (DataInputStream in = openIndex()) {
+            if (in != null) {
+                readSummary(in);
+            }
+        } catch (IOException e) {
+            main = null;
+            writtenAt = 0;
+        }
+    }
+
+    private void loadFull() {
+        dirs = new HashMap<>();
+        try (DataInputStream in = openIndex()) {
+            if (in == null || !readSummary(in)) {
+                return;
+            }
+
+            Map<String, String> packages = new HashMap<>();
+            int dirCount = in.readInt();
+            for (int i = 0; i < dirCount; i++) {
+                String relDir = in.readUTF();
+                long mtime = in.readLong();
+                String dirPackage = dedupe(packages, in.readUTF());
+
+                int fileCount = in.readInt();
+                Map<String, FileEntry> files = new LinkedHashMap<>(fileCount * 2);
+                for (int j = 0; j < fileCount; j++) {
+                    String name = in.readUTF();
+                    long fileMtime = in.readLong();
+                    long size = in.readLong();
+                    int flags = in.readByte();
+                    String packageName = null;
+                    if ((flags & FLAG_DIR_PACKAGE) != 0) {
+                        packageName = dirPackage;
+                    } else if ((flags & FLAG_OWN_PACKAGE) != 0) {
+                        packageName = dedupe(packages, in.readUTF());
+                    }
+                    files.put(name, new FileEntry(fileMtime, size, packageName, (flags & FLAG_MAIN) != 0));
+                }
+
+                int subdirCount = in.readInt();
+                List<String> subdirs = new ArrayList<>(subdirCount);
+                for (int j = 0; j < subdirCount; j++) {
+                    subdirs.add(in.readUTF());
+                }
+                dirs.put(relDir, new DirEntry(mtime, files, subdirs));
+            }
+        } catch (IOException e) {
+            // Corrupt or truncated: rebuild from scratch
+            dirs.clear();
+            main = null;
+            writtenAt = 0;
+        }
+    }
+
+    private DataInputStream openIndex() throws IOException {
+        try {
+            return new DataInputStream(new BufferedInputStream(Files.newInputStream(root.resolve(INDEX_FILE)), 64 * 1024));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private boolean readSummary(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            // Older format: treat as absent and rebuild
+            main = null;
+            writtenAt = 0;
+            return false;
+        }
+        writtenAt = in.readLong();
+        main = in.readBoolean()
+            ? new MainRecord(in.readUTF(), in.readLong(), in.readLong(), in.readBoolean() ? in.readUTF() : null)
+            : null;
+        return true;
+    }
+
+    private void save() {
+        Path indexFile = root.resolve(INDEX_FILE);
+        if (!Files.isDirectory(indexFile.getParent())) {
+            return;
+        }
+        HexDirectory.ensureGitignore(root);
+
+        long now = System.currentTimeMillis();
+        Path temp = indexFile.resolveSibling("index.tmp");
+        try {
+            try (OutputStream raw = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(raw, 64 * 1024))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(now);
+                out.writeBoolean(main != null);
+                if (main != null) {
+                    out.writeUTF(main.relFile);
+                    out.writeLong(main.mtime);
+                    out.writeLong(main.size);
+                    out.writeBoolean(main.packageName != null);
+                    if (main.packageName != null) {
+                        out.writeUTF(main.packageName);
+                    }
+                }
+
+                out.writeInt(dirs.size());
+                for (Map.Entry<String, DirEntry> dir : dirs.entrySet()) {
+                    DirEntry entry = dir.getValue();
+                    String dirPackage = entry.commonPackage();
+                    out.writeUTF(dir.getKey());
+                    out.writeLong(entry.mtime);
+                    out.writeUTF(dirPackage);
+
+                    out.writeInt(entry.files.size());
+                    for (Map.Entry<String, FileEntry> file : entry.files.entrySet()) {
+                        FileEntry f = file.getValue();
+                        out.writeUTF(file.getKey());
+                        out.writeLong(f.mtime);
+                        out.writeLong(f.size);
+                        int flags = f.main ? FLAG_MAIN : 0;
+                        if (f.packageName != null) {
+                            flags |= f.packageName.equals(dirPackage) ? FLAG_DIR_PACKAGE : FLAG_OWN_PACKAGE;
+                        }
+                        out.writeByte(flags);
+                        if ((flags & FLAG_OWN_PACKAGE) != 0) {
+                            out.writeUTF(f.packageName);
+                        }
+                    }
+
+                    out.writeInt(entry.subdirs.size());
+                    for (String subdir : entry.subdirs) {
+                        out.writeUTF(subdir);
+                    }
+                }
+            }
+            try {
+                Files.move(temp, indexFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            writtenAt = now;
+        } catch (IOException e) {
+            // The index is only a cache; a failed write costs a rescan next time
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // nothing more to do
+            }
+        }
+    }
+
+    private static String dedupe(Map<String, String> seen, String value) {
+        String existing = seen.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+
+    private static final class DirEntry {
+        private final long mtime;
+        private final Map<String, FileEntry> files;
+        private final List<String> subdirs;
+
+        DirEntry(long mtime, Map<String, FileEntry> files, List<String> subdirs) {
+            this.mtime = mtime;
+            this.files = files;
+            this.subdirs = subdirs;
+        }
+
+        boolean sameChildren(DirEntry other) {
+            return files.keySet().equals(other.files.keySet()) && subdirs.equals(other.subdirs);
+        }
+
+        /** Package of the first file; in practice every file in a directory shares it. */
+        String commonPackage() {
+            for (FileEntry file : files.values()) {
+                if (file != null && file.packageName != null) {
+                    return file.packageName;
+                }
+            }
+            return "";
+        }
+    }
+
+    private static final class FileEntry {
+        private final long mtime;
+        private final long size;
+        private final String packageName;
+        private final boolean main;
+
+        FileEntry(long mtime, long size, String packageName, boolean main) {
+            this.mtime = mtime;
+            this.size = size;
+            this.packageName = packageName;
+            this.main = main;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof FileEntry)) {
+                return false;
+            }
+            FileEntry other = (FileEntry) o;
+            return mtime == other.mtime && size == other.size && main == other.main
+                && Objects.equals(packageName, other.packageName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(mtime, size, packageName, main);
+        }
+    }
+
+    private static final class MainRecord {
+        private final String relFile;
+        private final long mtime;
+        private final long size;
+        private final String packageName;
+
+        MainRecord(String relFile, long mtime, long size, String packageName) {
+            this.relFile = relFile;
+            this.mtime = mtime;
+            this.size = size;
+            this.packageName = packageName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof MainRecord)) {
+                return false;
+            }
+            MainRecord other = (MainRecord) o;
+            return relFile.equals(other.relFile) && mtime == other.mtime && size == other.size
+                && Objects.equals(packageName, other.packageName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(relFile, mtime, size, packageName);
+        }
+    }
+
+    private static final class StaleFile {
+        private final DirEntry dir;
+        private final String name;
+        private final Path path;
+        private FileEntry scanned;
+
+        StaleFile(DirEntry dir, String name, Path path) {
+            this.dir = dir;
+            this.name = name;
+            this.path = path;
+        }
+
+        void scan() {
+            BasicFileAttributes attrs;
+            try {
+                attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            } catch (IOException e) {
+                return;
+            }
+            // Stat before reading, so an edit racing the read shows up as stale next time
+            SourceScanner.Header header = SourceScanner.scanHeader(path);
+            scanned = new FileEntry(attrs.lastModifiedTime().toMillis(), attrs.size(),
+                header.getPackageName(), header.isSpringBootApplication());
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package com.springhex.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reads just the header of Java sources: the package declaration and the annotations in
+ * front of the first type, stopping at the opening brace of its body.
+ *
+ * Files are scanned as bytes, never decoded in full. Small files are read a prefix at a
+ * time, large ones memory-mapped, so in both cases only the header is actually read. Comments, string and character literals
+ * are skipped, so an {@code @SpringBootApplication} in a Javadoc or string does not count.
+ */
+public final class SourceScanner {
+
+    /** The facts read from one file's header. */
+    public static final class Header {
+        private final String packageName;
+        private final boolean springBootApplication;
+
+        Header(String packageName, boolean springBootApplication) {
+            this.packageName = packageName;
+            this.springBootApplication = springBootApplication;
+        }
+
+        /** The declared package, or null for the default package. */
+        public String getPackageName() {
+            return packageName;
+        }
+
+        public boolean isSpringBootApplication() {
+            return springBootApplication;
+        }
+    }
+
+    private static final Header EMPTY = new Header(null, false);
+
+    // Below this a plain read is cheaper than setting up a mapping
+    private static final long MAP_THRESHOLD = 64 * 1024;
+    // Enough for the package, imports and annotations of nearly every source file
+    private static final int PREFIX_SIZE = 8 * 1024;
+
+    private static final byte[] PACKAGE = "package".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] IMPORT = "import".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MAIN_ANNOTATION = "SpringBootApplication".getBytes(StandardCharsets.US_ASCII);
+
+    private SourceScanner() {}
+
+    /**
+     * Reads the header of one source file. Unreadable files yield an empty header.
+     */
+    public static Header scanHeader(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size >= MAP_THRESHOLD) {
+                return parseHeader(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), true);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(size, PREFIX_SIZE));
+            readFully(channel, buffer);
+            Header header = parseHeader(buffer.flip(), buffer.limit() >= size);
+            if (header == null) {
+                // The header runs past the prefix: read the whole file
+                ByteBuffer whole = ByteBuffer.allocate((int) size);
+                channel.position(0);
+                readFully(channel, whole);
+                header = parseHeader(whole.flip(), true);
+            }
+            return header;
+        } catch (IOException | RuntimeException e) {
+            return EMPTY;
+        }
+    }
+
+    /**
+     * Searches a source tree for a {@code @SpringBootApplication} class, walking directories
+     * in parallel. When several exist, the first by relative path is returned, the same one
+     * {@link ProjectIndex#getMainPackage()} goes by; once a candidate is found, workers skip the
+     * files and subtrees that sort after it.
+     */
+    public static Optional<Header> findSpringBootApplication(Path sourceRoot) {
+        if (!Files.isDirectory(sourceRoot)) {
+            return Optional.empty();
+        }
+        AtomicReference<Found> found = new AtomicReference<>();
+        ForkJoinPool.commonPool().invoke(new FindMainTask(sourceRoot, "", found));
+        return Optional.ofNullable(found.get()).map(f -> f.header);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+            // keep reading until full or EOF
+        }
+    }
+
+    /**
+     * Directories a source walk does not enter. Only hidden ones: under a source root every
+     * other name, {@code build} and {@code generated} included, can be a package.
+     */
+    static boolean isSkippedDirectory(String name) {
+        return name.startsWith(".");
+    }
+
+    private static final class Found {
+        final String relPath;
+        final Header header;
+
+        Found(String relPath, Header header) {
+            this.relPath = relPath;
+            this.header = header;
+        }
+    }
+
+    private static final class FindMainTask extends RecursiveAction {
+        private final Path dir;
+        // Relative path of dir with a trailing slash, "" for the source root
+        private final String prefix;
+        private final AtomicReference<Found> found;
+
+        FindMainTask(Path dir, String prefix, AtomicReference<Found> found) {
+            this.dir = dir;
+            this.prefix = prefix;
+            this.found = found;
+        }
+
+        @Override
+        protected void compute() {
+            List<FindMainTask> subtasks = new ArrayList<>();
+            List<String> sources = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                for (Path child : stream) {
+                    String name = child.getFileName().toString();
+                    if (name.endsWith(".java")) {
+                        sources.add(name);
+                    } else if (!isSkippedDirectory(name) && Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                        subtasks.add(new FindMainTask(child, prefix + name + "/", found));
+                    }
+                }
+            } catch (IOException e) {
+                return;
+            }
+            sources.sort(null);
+
+            // Fork the subtrees first so other workers can start on them while this one reads files
+            for (FindMainTask task : subtasks) {
+                task.fork();
+            }
+            for (String name : sources) {
+                String relPath = prefix + name;
+                if (sortsAfterFound(relPath)) {
+                    break;
+                }
+                Header header = scanHeader(dir.resolve(name));
+                if (header.isSpringBootApplication()) {
+                    offer(new Found(relPath, header));
+                    break;
+                }
+            }
+            for (FindMainTask task : subtasks) {
+                // Everything in a subtree sorts after its prefix
+                if (sortsAfterFound(task.prefix) && task.tryUnfork()) {
+                    continue;
+                }
+                task.join();
+            }
+        }
+
+        private boolean sortsAfterFound(String relPath) {
+            Found current = found.get();
+            return current != null && current.relPath.compareTo(relPath) < 0;
+        }
+
+        private void offer(Found candidate) {
+            Found current;
+            do {
+                current = found.get();
+                if (current != null && current.relPath.compareTo(candidate.relPath) <= 0) {
+                    return;
+                }
+            } while (!found.compareAndSet(current, candidate));
+        }
+    }
+
+    // --- byte-level header parser ------------------------------------------------------
+
+    /**
+     * Parses a header from the buffer's remaining bytes. When {@code wholeFile} is false the
+     * buffer holds only a prefix, and null is returned if the header does not end inside it.
+     */
+    static Header parseHeader(ByteBuffer buf, boolean wholeFile) {
+        String packageName = null;
+        boolean main = false;
+        boolean complete = false;
+        int parenDepth = 0;
+        int pos = buf.position();
+        int limit = buf.limit();
+        if (limit - pos >= 3 && buf.get(pos) == (byte) 0xEF && buf.get(pos + 1) == (byte) 0xBB && buf.get(pos + 2) == (byte) 0xBF) {
+            pos += 3;
+        }
+
+        while (pos < limit) {
+            byte b = buf.get(pos);
+
+            if (b == '/' && pos + 1 < limit) {
+                byte next = buf.get(pos + 1);
+                if (next == '/') {
+                    pos = skipLine(buf, pos + 2, limit);
+                    continue;
+                }
+                if (next == '*') {
+                    pos = skipBlockComment(buf, pos + 2, limit);
+                    continue;
+                }
+            }
+            if (b == '"' || b == '\'') {
+                pos = skipLiteral(buf, pos, limit);
+                continue;
+            }
+            if (b == '(') {
+                parenDepth++;
+            } else if (b == ')') {
+                parenDepth = Math.max(0, parenDepth - 1);
+            } else if (b == '{' && parenDepth == 0) {
+                // Start of the first type body: the header is over
+                complete = true;
+                break;
+            } else if (b == '@' && parenDepth == 0) {
+                int start = skipWhitespace(buf, pos + 1, limit);
+                int end = scanQualifiedName(buf, start, limit);
+                if (endsWithSimpleName(buf, start, end, MAIN_ANNOTATION)) {
+                    main = true;
+                }
+                pos = end;
+                continue;
+            } else if (isIdentifierStart(b)) {
+                int end = scanIdentifier(buf, pos, limit);
+                if (packageName == null && matches(buf, pos, end, PACKAGE)) {
+                    int nameStart = skipWhitespace(buf, end, limit);
+                    int nameEnd = scanQualifiedName(buf, nameStart, limit);
+                    packageName = ascii(buf, nameStart, nameEnd);
+                    end = nameEnd;
+                } else if (matches(buf, pos, end, IMPORT)) {
+                    end = skipTo(buf, end, limit, (byte) ';');
+                }
+                pos = end;
+                continue;
+            }
+            pos++;
+        }
+
+        if (!complete && !wholeFile) {
+            return null;
+        }
+        return packageName == null && !main ? EMPTY : new Header(packageName, main);
+    }
+
+    private static int skipLine(ByteBuffer buf, int pos, int limit) {
+        while (pos < limit && buf.get(pos) != '\n') {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int skipBlockComment(ByteBuffer buf, int pos, int limit) {
+        while (pos + 1 < limit && !(buf.get(pos) == '*' && buf.get(pos + 1) == '/')) {
+            pos++;
+        }
+        return Math.min(limit, pos + 2);
+    }
+
+    private static int skipLiteral(ByteBuffer buf, int pos, int limit) {
+        byte quote = buf.get(pos);
+        // Text block: """ ... """
+        if (quote == '"' && pos + 2 < limit && buf.get(pos + 1) == '"' && buf.get(pos + 2) == '"') {
+            pos += 3;
+            while (pos + 2 < limit && !(buf.get(pos) == '"' && buf.get(pos + 1) == '"' && buf.get(pos + 2) == '"')) {
+                pos += buf.get(pos) == '\\' ? 2 : 1;
+            }
+            return Math.min(limit, pos + 3);
+        }
+        pos++;
+        while (pos < limit) {
+            byte b = buf.get(pos);
+            if (b == '\\') {
+                pos += 2;
+            } else if (b == quote || b == '\n') {
+                return pos + 1;
+            } else {
+                pos++;
+            }
+        }
+        return limit;
+    }
+
+    private static int skipTo(ByteBuffer buf, int pos, int limit, byte target) {
+        while (pos < limit && buf.get(pos) != target) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int skipWhitespace(ByteBuffer buf, int pos, int limit) {
+        while (pos < limit && isWhitespace(buf.get(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int scanIdentifier(ByteBuffer buf, int pos, int limit) {
+        while (pos < limit && isIdentifierPart(buf.get(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int scanQualifiedName(ByteBuffer buf, int pos, int limit) {
+        while (pos < limit && (isIdentifierPart(buf.get(pos)) || buf.get(pos) == '.')) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static boolean matches(ByteBuffer buf, int start, int end, byte[] word) {
+        if (end - start != word.length) {
+            return false;
+        }
+        for (int i = 0; i < word.length; i++) {
+            if (buf.get(start + i) != word[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean endsWithSimpleName(ByteBuffer buf, int start, int end, byte[] name) {
+        int nameStart = end - name.length;
+        if (nameStart < start || (nameStart > start && buf.get(nameStart - 1) != '.')) {
+            return false;
+        }
+        return matches(buf, nameStart, end, name);
+    }
+
+    private static String ascii(ByteBuffer buf, int start, int end) {
+        if (end <= start) {
+            return null;
+        }
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buf.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r' || b == '\f';
+    }
+
+    private static boolean isIdentifierStart(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || b == '_' || b == '$' || b < 0;
+    }
+
+    private static boolean isIdentifierPart(byte b) {
+        return isIdentifierStart(b) || (b >= '0' && b <= '9');
+    }
+}
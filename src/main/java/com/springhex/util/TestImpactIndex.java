@@ -0,0 +1,580 @@
+package com.springhex.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Which classes of a project use which, for picking the tests a change can affect.
+ *
+ * Every file under {@code src/main/java} and {@code src/test/java} is reduced to its package,
+ * its imports and the type-like names it mentions (capitalized identifiers and qualified
+ * names), with comments and literals skipped. Those facts are resolved against the project's
+ * own classes when a selection is made: a name counts as a reference when it is imported,
+ * wildcard-imported, in the same package or written out in full. A test is affected when it
+ * reaches a changed class through any chain of references. Spring components are wired by the
+ * container instead, so a changed {@code @Component}, {@code @Service}, {@code @Controller},
+ * {@code @Configuration} (and the like) affects every test that loads a context.
+ *
+ * The facts are kept in {@code .hex/test-deps} with each file's stamp, so only files that
+ * changed since the last selection are read again. Without a {@code .hex/} directory the
+ * index is built for the current process only.
+ */
+public final class TestImpactIndex {
+
+    public static final String INDEX_FILE = ".hex/test-deps";
+
+    private static final String HEADER = "# spring-hex test dependencies v2";
+    private static final String MAIN_ROOT = "src/main/java";
+    private static final String TEST_ROOT = "src/test/java";
+    private static final List<String> SOURCE_ROOTS = List.of(MAIN_ROOT, TEST_ROOT);
+    private static final Set<String> BUILD_FILES = Set.of(
+        "pom.xml", "build.gradle", "build.gradle.kts", "settings.gradle", "settings.gradle.kts", "gradle.properties");
+    // Surefire's default includes, for test classes that only inherit their test methods
+    private static final Pattern TEST_CLASS = Pattern.compile("Test.*|.*Tests?|.*TestCase");
+    // What makes a class a test to JUnit 4 and 5, TestNG and the JUnit Platform suites (Cucumber and the like)
+    private static final Set<String> TEST_ANNOTATIONS = Set.of("Test", "ParameterizedTest", "RepeatedTest",
+        "TestFactory", "TestTemplate", "Suite", "RunWith");
+    private static final long RACY_WINDOW_MILLIS = 2_000;
+    // Classes the container creates and wires, which tests reach through ports or HTTP rather than by name
+    private static final Set<String> STEREOTYPES = Set.of("Component", "Service", "Repository", "Controller",
+        "RestController", "ControllerAdvice", "RestControllerAdvice", "Configuration", "AutoConfiguration");
+    // Tests that start a Spring context, and so run every component in it
+    private static final Set<String> CONTEXT_TEST_ANNOTATIONS = Set.of("SpringBootTest", "WebMvcTest", "WebFluxTest",
+        "DataJpaTest", "DataJdbcTest", "DataMongoTest", "DataRedisTest", "JdbcTest", "JooqTest", "RestClientTest",
+        "ContextConfiguration", "SpringJUnitConfig", "SpringJUnitWebConfig");
+
+    private final Map<String, SourceFacts> files;
+
+    private TestImpactIndex(Map<String, SourceFacts> files) {
+        this.files = files;
+    }
+
+    /**
+     * Loads the index and brings it up to date with the sources on disk.
+     */
+    public static TestImpactIndex open(Path projectRoot) throws IOException {
+        Path root = projectRoot.toAbsolutePath().normalize();
+        Path indexFile = root.resolve(INDEX_FILE);
+        long writtenAt = 0;
+        Map<String, SourceFacts> cached = new HashMap<>();
+        try {
+            writtenAt = Files.getLastModifiedTime(indexFile).toMillis();
+            List<String> lines = Files.readAllLines(indexFile, StandardCharsets.UTF_8);
+            if (!lines.isEmpty() && lines.get(0).equals(HEADER)) {
+                for (String line : lines.subList(1, lines.size())) {
+                    SourceFacts facts = SourceFacts.parse(line);
+                    if (facts != null) {
+                        cached.put(facts.path, facts);
+                    }
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // first selection in this project
+        }
+
+        List<Path> sources = new ArrayList<>();
+        for (String sourceRoot : SOURCE_ROOTS) {
+            Path dir = root.resolve(sourceRoot);
+            if (Files.isDirectory(dir)) {
+                try (Stream<Path> walk = Files.walk(dir)) {
+                    walk.filter(f -> f.getFileName().toString().endsWith(".java") && Files.isRegularFile(f))
+                        .forEach(sources::add);
+                }
+            }
+        }
+
+        long racyBefore = writtenAt - RACY_WINDOW_MILLIS;
+        Map<String, SourceFacts> current;
+        try {
+            current = sources.parallelStream()
+                .map(file -> refresh(root, file, cached.get(relative(root, file)), racyBefore))
+                .collect(Collectors.toMap(f -> f.path, f -> f, (a, b) -> a, TreeMap::new));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        if (!current.equals(cached) && Files.isDirectory(indexFile.getParent())) {
+            HexDirectory.ensureGitignore(root);
+            save(indexFile, current.values());
+        }
+        return new TestImpactIndex(current);
+    }
+
+    /**
+     * Picks the tests affected by the given changed paths, relative to the project root.
+     * Changes the index cannot follow (build files, resources, non-Java sources, anything in a
+     * nested module's {@code src/} or build file) select the full suite; other changes outside
+     * {@code src/} are ignored. When main classes changed but no test is affected, the full suite
+     * runs too, since nothing proves the change is untested.
+     */
+    public Selection select(Collection<String> changedPaths) {
+        Set<String> changedClasses = new TreeSet<>();
+        boolean mainChanged = false;
+        for (String path : changedPaths) {
+            String className = className(path);
+            if (className != null) {
+                changedClasses.add(className);
+                mainChanged |= path.startsWith(MAIN_ROOT + "/");
+            } else if (path.startsWith("src/") || BUILD_FILES.contains(path)
+                    || path.startsWith("gradle/") || path.startsWith(".mvn/")) {
+                return Selection.fullSuite(path + " is not Java source, so its effect on tests is unknown");
+            } else if (path.contains("/src/") || BUILD_FILES.contains(path.substring(path.lastIndexOf('/') + 1))) {
+                // Only the root module is indexed
+                return Selection.fullSuite(path + " belongs to a nested module, so its effect on tests is unknown");
+            }
+        }
+
+        // Deleted classes are still known, so the classes that used them count as affected
+        Set<String> known = new HashSet<>(changedClasses);
+        Map<String, List<String>> bySimpleName = new HashMap<>();
+        Map<String, String> classOf = new HashMap<>();
+        for (SourceFacts facts : files.values()) {
+            String className = className(facts.path);
+            classOf.put(facts.path, className);
+            known.add(className);
+        }
+        for (String className : known) {
+            bySimpleName.computeIfAbsent(simpleName(className), k -> new ArrayList<>()).add(className);
+        }
+
+        Map<String, Set<String>> dependents = new HashMap<>();
+        for (SourceFacts facts : files.values()) {
+            String className = classOf.get(facts.path);
+            for (String dependency : facts.resolve(known, bySimpleName)) {
+                if (!dependency.equals(className)) {
+                    dependents.computeIfAbsent(dependency, k -> new HashSet<>()).add(className);
+                }
+            }
+        }
+
+        Set<String> components = annotatedWith(STEREOTYPES, MAIN_ROOT);
+        Set<String> contextTests = annotatedWith(CONTEXT_TEST_ANNOTATIONS, TEST_ROOT);
+
+        Set<String> affected = new HashSet<>(changedClasses);
+        Deque<String> queue = new ArrayDeque<>(changedClasses);
+        boolean contextsAffected = false;
+        while (!queue.isEmpty()) {
+            String className = queue.poll();
+            if (!contextsAffected && components.contains(className)) {
+                // Context tests count as affected themselves, so their subclasses follow through the references
+                contextsAffected = true;
+                for (String contextTest : contextTests) {
+                    if (affected.add(contextTest)) {
+                        queue.add(contextTest);
+                    }
+                }
+            }
+            for (String dependent : dependents.getOrDefault(className, Collections.emptySet())) {
+                if (affected.add(dependent)) {
+                    queue.add(dependent);
+                }
+            }
+        }
+
+        Set<String> tests = getTests();
+        tests.retainAll(affected);
+        if (tests.isEmpty() && mainChanged) {
+            return Selection.fullSuite("main classes changed but no test reaches them, so their effect on tests is unknown");
+        }
+        return new Selection(null, changedClasses.size(), tests);
+    }
+
+    /**
+     * Classes under a source root annotated with one of the given annotations, directly or
+     * through a project annotation that carries one.
+     */
+    private Set<String> annotatedWith(Set<String> annotations, String sourceRoot) {
+        Set<String> names = new HashSet<>(annotations);
+        for (SourceFacts facts : files.values()) {
+            if (facts.isAnnotatedWith(annotations)) {
+                names.add(simpleName(className(facts.path)));
+            }
+        }
+        Set<String> annotated = new HashSet<>();
+        for (SourceFacts facts : files.values()) {
+            if (facts.path.startsWith(sourceRoot + "/") && facts.isAnnotatedWith(names)) {
+                annotated.add(className(facts.path));
+            }
+        }
+        return annotated;
+    }
+
+    /**
+     * Fully qualified names of every test class in the project, sorted: the classes under
+     * {@code src/test/java} with test methods or a runner annotation, whatever their name, and
+     * those named like tests, which may inherit their test methods. The build may run fewer;
+     * see {@link BuildTestFilter}.
+     */
+    public Set<String> getTests() {
+        Set<String> tests = new TreeSet<>();
+        for (SourceFacts facts : files.values()) {
+            String className = className(facts.path);
+            if (facts.path.startsWith(TEST_ROOT + "/")
+                    && (facts.isAnnotatedWith(TEST_ANNOTATIONS) || TEST_CLASS.matcher(simpleName(className)).matches())) {
+                tests.add(className);
+            }
+        }
+        return tests;
+    }
+
+    /**
+     * The tests to run, or the reason to run them all.
+     */
+    public static final class Selection {
+        private final String fullSuiteReason;
+        private final int changedClassCount;
+        private final Set<String> tests;
+
+        private Selection(String fullSuiteReason, int changedClassCount, Set<String> tests) {
+            this.fullSuiteReason = fullSuiteReason;
+            this.changedClassCount = changedClassCount;
+            this.tests = tests;
+        }
+
+        static Selection fullSuite(String reason) {
+            return new Selection(reason, 0, Collections.emptySet());
+        }
+
+        public boolean isFullSuite() {
+            return fullSuiteReason != null;
+        }
+
+        public String getFullSuiteReason() {
+            return fullSuiteReason;
+        }
+
+        public int getChangedClassCount() {
+            return changedClassCount;
+        }
+
+        /**
+         * Fully qualified names of the affected test classes, sorted.
+         */
+        public Set<String> getTests() {
+            return tests;
+        }
+    }
+
+    private static SourceFacts refresh(Path root, Path file, SourceFacts cached, long racyBefore) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            long mtime = attrs.lastModifiedTime().toMillis();
+            if (cached != null && cached.mtime == mtime && cached.size == attrs.size() && mtime < racyBefore) {
+                return cached;
+            }
+            String source = Files.readString(file, StandardCharsets.UTF_8);
+            return SourceFacts.scan(relative(root, file), mtime, attrs.size(), source);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void save(Path indexFile, Collection<SourceFacts> facts) throws IOException {
+        Path tmp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            out.write(HEADER);
+            out.newLine();
+            for (SourceFacts f : facts) {
+                out.write(f.format());
+                out.newLine();
+            }
+        }
+        try {
+            Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * The class a source path declares, or {@code null} if it is not under a source root.
+     */
+    private static String className(String path) {
+        for (String sourceRoot : SOURCE_ROOTS) {
+            if (path.startsWith(sourceRoot + "/") && path.endsWith(".java")) {
+                return path.substring(sourceRoot.length() + 1, path.length() - ".java".length()).replace('/', '.');
+            }
+        }
+        return null;
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    private static String relative(Path root, Path file) {
+        return root.relativize(file).toString().replace('\\', '/');
+    }
+
+    /**
+     * What one source file declares and mentions, before resolution against the project.
+     */
+    private static final class SourceFacts {
+        final String path;
+        final long mtime;
+        final long size;
+        final String packageName;
+        final Set<String> imports;
+        final Set<String> names;
+
+        SourceFacts(String path, long mtime, long size, String packageName, Set<String> imports, Set<String> names) {
+            this.path = path;
+            this.mtime = mtime;
+            this.size = size;
+            this.packageName = packageName;
+            this.imports = imports;
+            this.names = names;
+        }
+
+        Set<String> resolve(Set<String> known, Map<String, List<String>> bySimpleName) {
+            Set<String> resolved = new HashSet<>();
+            List<String> visiblePackages = new ArrayList<>();
+            visiblePackages.add(packageName);
+            for (String imported : imports) {
+                if (imported.endsWith(".*")) {
+                    String prefix = imported.substring(0, imported.length() - 2);
+                    // "import a.b.Outer.*" brings in nested types; the file that matters is Outer's
+                    if (!addLongestKnownPrefix(prefix, known, resolved)) {
+                        visiblePackages.add(prefix);
+                    }
+                } else {
+                    addLongestKnownPrefix(imported, known, resolved);
+                }
+            }
+            for (String name : names) {
+                if (name.startsWith("@")) {
+                    // annotation usages are also recorded under their plain name
+                    continue;
+                }
+                if (Character.isUpperCase(name.charAt(0))) {
+                    List<String> candidates = bySimpleName.get(name);
+                    if (candidates == null) {
+                        continue;
+                    }
+                    for (String candidate : candidates) {
+                        String candidatePackage = candidate.contains(".") ? candidate.substring(0, candidate.lastIndexOf('.')) : "";
+                        if (visiblePackages.contains(candidatePackage)) {
+                            resolved.add(candidate);
+                        }
+                    }
+                } else {
+                    addLongestKnownPrefix(name, known, resolved);
+                }
+            }
+            return resolved;
+        }
+
+        private static boolean addLongestKnownPrefix(String qualifiedName, Set<String> known, Set<String> resolved) {
+            String candidate = qualifiedName;
+            while (true) {
+                if (known.contains(candidate)) {
+                    resolved.add(candidate);
+                    return true;
+                }
+                int dot = candidate.lastIndexOf('.');
+                if (dot < 0) {
+                    return false;
+                }
+                candidate = candidate.substring(0, dot);
+            }
+        }
+
+        static SourceFacts scan(String path, long mtime, long size, String source) {
+            String packageName = "";
+            Set<String> imports = new TreeSet<>();
+            Set<String> names = new TreeSet<>();
+            int length = source.length();
+            int i = 0;
+            while (i < length) {
+                char c = source.charAt(i);
+                if (c == '/' && i + 1 < length && source.charAt(i + 1) == '/') {
+                    i = skipPast(source, i + 2, "\n");
+                } else if (c == '/' && i + 1 < length && source.charAt(i + 1) == '*') {
+                    i = skipPast(source, i + 2, "*/");
+                } else if (c == '"' && source.startsWith("\"\"\"", i)) {
+                    i = skipPast(source, i + 3, "\"\"\"");
+                } else if (c == '"' || c == '\'') {
+                    i = skipQuoted(source, i + 1, c);
+                } else if (Character.isJavaIdentifierStart(c)) {
+                    boolean annotation = previousNonWhitespace(source, i) == '@';
+                    int end = scanQualifiedName(source, i);
+                    String name = source.substring(i, end).replaceAll("\\s+", "");
+                    i = end;
+                    if (name.equals("package") || name.equals("import")) {
+                        int start = skipWhitespace(source, i);
+                        boolean isStatic = source.startsWith("static", start)
+                            && !Character.isJavaIdentifierPart(charAt(source, start + 6));
+                        if (isStatic) {
+                            start = skipWhitespace(source, start + 6);
+                        }
+                        int semicolon = source.indexOf(';', start);
+                        if (semicolon < 0) {
+                            break;
+                        }
+                        String target = source.substring(start, semicolon).replaceAll("\\s+", "");
+                        if (name.equals("package")) {
+                            packageName = target;
+                        } else {
+                            // Static imports name members; the class is what a file depends on
+                            imports.add(isStatic && !target.endsWith(".*") ? target.substring(0, Math.max(0, target.lastIndexOf('.'))) : target);
+                        }
+                        i = semicolon + 1;
+                    } else {
+                        addName(name, names);
+                        if (annotation && !name.equals("interface")) {
+                            names.add("@" + simpleName(name));
+                        }
+                    }
+                } else {
+                    i++;
+                }
+            }
+            return new SourceFacts(path, mtime, size, packageName, imports, names);
+        }
+
+        /**
+         * Keeps what can name a project class: a capitalized identifier's first segment
+         * ({@code Foo} of {@code Foo.bar()}), or a qualified name up to its first capitalized
+         * segment ({@code com.x.Foo} of {@code com.x.Foo.bar()}).
+         */
+        private static void addName(String name, Set<String> names) {
+            String[] segments = name.split("\\.");
+            if (Character.isUpperCase(segments[0].charAt(0))) {
+                names.add(segments[0]);
+                return;
+            }
+            StringBuilder qualified = new StringBuilder(segments[0]);
+            for (int s = 1; s < segments.length; s++) {
+                qualified.append('.').append(segments[s]);
+                if (!segments[s].isEmpty() && Character.isUpperCase(segments[s].charAt(0))) {
+                    names.add(qualified.toString());
+                    return;
+                }
+            }
+        }
+
+        private static int scanQualifiedName(String source, int start) {
+            int i = start;
+            while (true) {
+                while (i < source.length() && Character.isJavaIdentifierPart(source.charAt(i))) {
+                    i++;
+                }
+                int next = skipWhitespace(source, i);
+                if (next < source.length() && source.charAt(next) == '.') {
+                    int after = skipWhitespace(source, next + 1);
+                    if (after < source.length() && Character.isJavaIdentifierStart(source.charAt(after))) {
+                        i = after;
+                        continue;
+                    }
+                }
+                return i;
+            }
+        }
+
+        private static int skipPast(String source, int from, String terminator) {
+            int end = source.indexOf(terminator, from);
+            return end < 0 ? source.length() : end + terminator.length();
+        }
+
+        private static int skipQuoted(String source, int from, char quote) {
+            int i = from;
+            while (i < source.length()) {
+                char c = source.charAt(i);
+                if (c == '\\') {
+                    i += 2;
+                } else if (c == quote || c == '\n') {
+                    return i + 1;
+                } else {
+                    i++;
+                }
+            }
+            return i;
+        }
+
+        private static int skipWhitespace(String source, int from) {
+            int i = from;
+            while (i < source.length() && Character.isWhitespace(source.charAt(i))) {
+                i++;
+            }
+            return i;
+        }
+
+        private static char previousNonWhitespace(String source, int before) {
+            int i = before - 1;
+            while (i >= 0 && Character.isWhitespace(source.charAt(i))) {
+                i--;
+            }
+            return i >= 0 ? source.charAt(i) : ' ';
+        }
+
+        boolean isAnnotatedWith(Set<String> annotations) {
+            for (String annotation : annotations) {
+                if (names.contains("@" + annotation)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static char charAt(String source, int index) {
+            return index < source.length() ? source.charAt(index) : ' ';
+        }
+
+        String format() {
+            return path + "\t" + mtime + "\t" + size + "\t" + packageName + "\t"
+                + String.join(" ", imports) + "\t" + String.join(" ", names);
+        }
+
+        static SourceFacts parse(String line) {
+            String[] fields = line.split("\t", -1);
+            if (fields.length != 6) {
+                return null;
+            }
+            try {
+                return new SourceFacts(fields[0], Long.parseLong(fields[1]), Long.parseLong(fields[2]), fields[3],
+                    split(fields[4]), split(fields[5]));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private static Set<String> split(String field) {
+            return field.isEmpty() ? new TreeSet<>() : new TreeSet<>(List.of(field.split(" ")));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SourceFacts other && path.equals(other.path) && mtime == other.mtime
+                && size == other.size && packageName.equals(other.packageName)
+                && imports.equals(other.imports) && names.equals(other.names);
+        }
+
+        @Override
+        public int hashCode() {
+            return path.hashCode();
+        }
+    }
+}
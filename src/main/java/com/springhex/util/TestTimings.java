@@ -0,0 +1,126 @@
+package com.springhex.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * How long each test class took on its last run, kept in {@code .hex/test-timings}, and the
+ * split of a set of test classes into shards of about equal duration.
+ */
+public final class TestTimings {
+
+    public static final String TIMINGS_FILE = ".hex/test-timings";
+
+    private static final String HEADER = "# spring-hex test timings v1";
+    // Estimate for classes never timed when nothing has been timed yet
+    private static final long DEFAULT_MILLIS = 1_000;
+
+    private final Map<String, Long> millisByClass;
+
+    private TestTimings(Map<String, Long> millisByClass) {
+        this.millisByClass = millisByClass;
+    }
+
+    public static TestTimings load(Path projectRoot) throws IOException {
+        Map<String, Long> millisByClass = new TreeMap<>();
+        try {
+            for (String line : Files.readAllLines(projectRoot.resolve(TIMINGS_FILE), StandardCharsets.UTF_8)) {
+                String[] fields = line.split("\t");
+                if (line.startsWith("#") || fields.length != 2) {
+                    continue;
+                }
+                try {
+                    millisByClass.put(fields[0], Long.parseLong(fields[1]));
+                } catch (NumberFormatException e) {
+                    // a damaged line only costs that class its estimate
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // no run timed yet
+        }
+        return new TestTimings(millisByClass);
+    }
+
+    /**
+     * Replaces the timings of the given classes with those of the latest run.
+     */
+    public void record(Map<String, Long> latest) {
+        millisByClass.putAll(latest);
+    }
+
+    /**
+     * Writes the timings back, in projects that have a {@code .hex/} directory.
+     */
+    public void saveIfPossible(Path projectRoot) throws IOException {
+        Path file = projectRoot.resolve(TIMINGS_FILE);
+        if (!Files.isDirectory(file.getParent())) {
+            return;
+        }
+        HexDirectory.ensureGitignore(projectRoot);
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        millisByClass.forEach((className, millis) -> lines.add(className + "\t" + millis));
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The last duration of a class, or the mean of all known durations if it was never timed.
+     */
+    public long estimate(String className) {
+        Long millis = millisByClass.get(className);
+        if (millis != null) {
+            return millis;
+        }
+        return millisByClass.isEmpty()
+            ? DEFAULT_MILLIS
+            : millisByClass.values().stream().mapToLong(Long::longValue).sum() / millisByClass.size();
+    }
+
+    /**
+     * Splits test classes into at most {@code count} non-empty shards, longest first onto the
+     * shard with the least estimated time so far. Shards are returned longest first.
+     */
+    public List<Shard> split(Collection<String> testClasses, int count) {
+        List<String> byDuration = new ArrayList<>(testClasses);
+        byDuration.sort(Comparator.comparingLong(this::estimate).reversed().thenComparing(Comparator.naturalOrder()));
+
+        List<Shard> shards = new ArrayList<>();
+        for (int i = 0; i < Math.min(count, byDuration.size()); i++) {
+            shards.add(new Shard());
+        }
+        for (String className : byDuration) {
+            Shard lightest = shards.get(0);
+            for (Shard shard : shards) {
+                if (shard.estimatedMillis < lightest.estimatedMillis) {
+                    lightest = shard;
+                }
+            }
+            lightest.testClasses.add(className);
+            lightest.estimatedMillis += estimate(className);
+        }
+        shards.sort(Comparator.comparingLong(Shard::getEstimatedMillis).reversed());
+        return shards;
+    }
+
+    public static final class Shard {
+        private final List<String> testClasses = new ArrayList<>();
+        private long estimatedMillis;
+
+        public List<String> getTestClasses() {
+            return testClasses;
+        }
+
+        public long getEstimatedMillis() {
+            return estimatedMillis;
+        }
+    }
+}